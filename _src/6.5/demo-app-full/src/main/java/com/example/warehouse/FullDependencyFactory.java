@@ -21,6 +21,16 @@ public final class FullDependencyFactory implements DependencyFactory {
         return exporterFactory.newExporter(report, type, out);
     }
 
+    @Override
+    public boolean isSupported(ExportType type) {
+        return exporterFactory.isSupported(type);
+    }
+
+    @Override
+    public ReportSink newSink(ExportType type, OutputStream out) {
+        return exporterFactory.newSink(type, out);
+    }
+
     @Override
     public ChartPlotter newPlotter(Report.Type reportType, ChartType chartType) {
         return plotterFactory.newPlotter(reportType, chartType);
@@ -1,37 +1,51 @@
 package com.example.warehouse.export;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.ReportRecord;
 
-import java.io.PrintStream;
 import java.util.List;
-import java.util.stream.Collectors;
 
-public final class CsvExporter extends AbstractExporter {
+public final class CsvExporter extends AbstractExporter implements ChunkedExporter {
 
-    private static final String SEPARATOR = ",";
+    private static final char SEPARATOR = ',';
 
     private final boolean includeHeader;
 
-    CsvExporter(Report report, PrintStream out, boolean includeHeader) {
+    CsvExporter(Report report, ExportOutput out, boolean includeHeader) {
         super(report, out);
         this.includeHeader = includeHeader;
     }
 
+    CsvExporter(ExportOutput out, boolean includeHeader) {
+        super(out);
+        this.includeHeader = includeHeader;
+    }
+
     @Override
-    protected void handleLabels(PrintStream out, List<String> labels) {
+    protected void handleLabels(ExportOutput out, List<String> labels) {
         if (includeHeader) {
             printStrings(out, labels);
         }
     }
 
     @Override
-    protected void handleRecord(PrintStream out, List<Report.Field> record, boolean first, boolean last) {
-        printStrings(out, record.stream()
-            .map(Report.Field::getAsString)
-            .collect(Collectors.toList()));
+    protected void handleRecord(ExportOutput out, ReportRecord record, boolean first) {
+        for (int i = 0; i < record.getColumnCount(); i++) {
+            if (i != 0) {
+                out.write(SEPARATOR);
+            }
+            writeValue(out, record, i);
+        }
+        out.newLine();
     }
 
-    private void printStrings(PrintStream out, List<String> records) {
-        out.println(String.join(SEPARATOR, records));
+    private void printStrings(ExportOutput out, List<String> records) {
+        for (int i = 0; i < records.size(); i++) {
+            if (i != 0) {
+                out.write(SEPARATOR);
+            }
+            out.write(records.get(i));
+        }
+        out.newLine();
     }
 }
@@ -1,22 +1,77 @@
 package com.example.warehouse.export;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.ReportSink;
 
 import java.io.OutputStream;
-import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.System.getenv;
 
 public final class FullExporterFactory implements ExporterFactory {
 
+    // INFO: JSON exports leave out all whitespace when set, direct exports
+    // from the database are always indented.
+    private static final JsonExporter.Layout JSON_LAYOUT = Boolean.parseBoolean(getenv()
+        .getOrDefault("JSON_EXPORT_COMPACT", "false")) ? JsonExporter.Layout.COMPACT : JsonExporter.Layout.PRETTY;
+
+    // INFO: reports with more records than fit in a chunk are formatted by
+    // several threads at once, when enabled and there's more than one thread
+    // in the common pool.
+    private static final boolean PARALLEL_EXPORT = Boolean.parseBoolean(getenv()
+        .getOrDefault("PARALLEL_EXPORT", "false"));
+
+    private static final int EXPORT_CHUNK_SIZE = Integer.parseInt(getenv()
+        .getOrDefault("EXPORT_CHUNK_SIZE", String.valueOf(ParallelExporter.DEFAULT_CHUNK_SIZE)));
+
+    private static final boolean COLUMNAR_EXPORT_CHECKSUMS = Boolean.parseBoolean(getenv()
+        .getOrDefault("COLUMNAR_EXPORT_CHECKSUMS", "true"));
+
     @Override
     public Exporter newExporter(Report report, ExportType type, OutputStream out) {
+        // INFO: binary, it doesn't write text.
+        if (type == ExportType.COLUMNAR) {
+            return new ColumnarExporter(report, out, COLUMNAR_EXPORT_CHECKSUMS);
+        }
+        ExportOutput output = new ExportOutput(out);
+        Exporter exporter = newSequentialExporter(report, type, output);
+        if (PARALLEL_EXPORT
+            && ForkJoinPool.getCommonPoolParallelism() > 1
+            && exporter instanceof ChunkedExporter
+            && report.getRecordCount() > EXPORT_CHUNK_SIZE) {
+            return new ParallelExporter(report, output, (ChunkedExporter) exporter, ForkJoinPool.commonPool(), EXPORT_CHUNK_SIZE);
+        }
+        return exporter;
+    }
+
+    // INFO: TXT needs every record to size its columns, so it's still buffered.
+    @Override
+    public ReportSink newSink(ExportType type, OutputStream out) {
+        if (type == ExportType.CSV) {
+            return new CsvExporter(new ExportOutput(out), true);
+        } else if (type == ExportType.HTML) {
+            return new HtmlExporter(new ExportOutput(out));
+        } else if (type == ExportType.JSON) {
+            return new JsonExporter(new ExportOutput(out), JSON_LAYOUT);
+        } else if (type == ExportType.NDJSON) {
+            return new JsonExporter(new ExportOutput(out), JsonExporter.Layout.LINES);
+        } else if (type == ExportType.COLUMNAR) {
+            return new ColumnarExporter(out, COLUMNAR_EXPORT_CHECKSUMS);
+        }
+        return ExporterFactory.super.newSink(type, out);
+    }
+
+    private Exporter newSequentialExporter(Report report, ExportType type, ExportOutput out) {
         if (type == ExportType.CSV) {
-            return new CsvExporter(report, new PrintStream(out), true);
+            return new CsvExporter(report, out, true);
         } else if (type == ExportType.TXT) {
-            return new TxtExporter(report, new PrintStream(out));
+            return new TxtExporter(report, out);
         } else if (type == ExportType.HTML) {
-            return new HtmlExporter(report, new PrintStream(out));
+            return new HtmlExporter(report, out);
         } else if (type == ExportType.JSON) {
-            return new JsonExporter(report, new PrintStream(out));
+            return new JsonExporter(report, out, JSON_LAYOUT);
+        } else if (type == ExportType.NDJSON) {
+            return new JsonExporter(report, out, JsonExporter.Layout.LINES);
         }
         throw new IllegalStateException(String.format("Chosen exporter %s not handled, this cannot happen.", type));
     }
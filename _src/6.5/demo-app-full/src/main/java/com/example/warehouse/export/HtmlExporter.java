@@ -1,53 +1,59 @@
 package com.example.warehouse.export;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.ReportRecord;
 
-import java.io.PrintStream;
 import java.util.List;
 
-public class HtmlExporter extends AbstractExporter {
+public class HtmlExporter extends AbstractExporter implements ChunkedExporter {
 
-    HtmlExporter(Report report, PrintStream out) {
+    HtmlExporter(Report report, ExportOutput out) {
         super(report, out);
     }
 
+    HtmlExporter(ExportOutput out) {
+        super(out);
+    }
+
     @Override
-    protected void beforeLabels(PrintStream out) {
-        out.println("<table>");
-        out.println("\t<thead>");
+    protected void beforeLabels(ExportOutput out) {
+        out.write("<table>").newLine();
+        out.write("\t<thead>").newLine();
     }
 
     @Override
-    protected void handleLabels(PrintStream out, List<String> labels) {
-        out.println("\t\t<tr>");
+    protected void handleLabels(ExportOutput out, List<String> labels) {
+        out.write("\t\t<tr>").newLine();
         for (String label : labels) {
-            out.printf("\t\t\t<td>%s</td>%n", label);
+            out.write("\t\t\t<td>").write(label).write("</td>").newLine();
         }
-        out.println("\t\t</tr>");
+        out.write("\t\t</tr>").newLine();
     }
 
     @Override
-    protected void afterLabels(PrintStream out) {
-        out.println("\t</thead>");
+    protected void afterLabels(ExportOutput out) {
+        out.write("\t</thead>").newLine();
     }
 
     @Override
-    protected void beforeRecords(PrintStream out) {
-        out.println("\t<tbody>");
+    protected void beforeRecords(ExportOutput out) {
+        out.write("\t<tbody>").newLine();
     }
 
     @Override
-    protected void handleRecord(PrintStream out, List<Report.Field> record, boolean first, boolean last) {
-        out.println("\t\t<tr>");
-        for (Report.Field field : record) {
-            out.printf("\t\t\t<td>%s</td>%n", field.getAsString());
+    protected void handleRecord(ExportOutput out, ReportRecord record, boolean first) {
+        out.write("\t\t<tr>").newLine();
+        for (int i = 0; i < record.getColumnCount(); i++) {
+            out.write("\t\t\t<td>");
+            writeValue(out, record, i);
+            out.write("</td>").newLine();
         }
-        out.println("\t\t</tr>");
+        out.write("\t\t</tr>").newLine();
     }
 
     @Override
-    protected void afterRecords(PrintStream out) {
-        out.println("\t</tbody>");
-        out.println("</table>");
+    protected void afterRecords(ExportOutput out) {
+        out.write("\t</tbody>").newLine();
+        out.write("</table>").newLine();
     }
 }
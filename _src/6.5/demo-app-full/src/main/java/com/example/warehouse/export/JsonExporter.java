@@ -1,49 +1,232 @@
 package com.example.warehouse.export;
 
+import com.example.warehouse.Deadline;
 import com.example.warehouse.Report;
+import com.example.warehouse.ReportRecord;
+import com.example.warehouse.ReportSink;
 
-import java.io.PrintStream;
 import java.util.List;
 
-public class JsonExporter implements Exporter {
+// INFO: writes records as they arrive to the export's output. The keys
+// of the labels are escaped and laid out once when the export starts, for
+// every record only the values are escaped.
+public class JsonExporter implements ChunkedExporter, ReportSink {
+
+    // INFO: `PRETTY` is an indented array of objects, `COMPACT` the same
+    // without any whitespace and `LINES` one object per line with no array
+    // around them, aka NDJSON.
+    public enum Layout {
+        PRETTY,
+        COMPACT,
+        LINES
+    }
+
+    private static final String[] CONTROL_CHARACTERS = new String[0x20];
+
+    static {
+        for (int i = 0; i < CONTROL_CHARACTERS.length; i++) {
+            CONTROL_CHARACTERS[i] = String.format("\\u%04x", i);
+        }
+        CONTROL_CHARACTERS['\b'] = "\\b";
+        CONTROL_CHARACTERS['\t'] = "\\t";
+        CONTROL_CHARACTERS['\n'] = "\\n";
+        CONTROL_CHARACTERS['\f'] = "\\f";
+        CONTROL_CHARACTERS['\r'] = "\\r";
+    }
 
     private final Report report;
-    private final PrintStream out;
+    private final ExportOutput out;
+    private final Layout layout;
+    private final Deadline deadline = Deadline.current();
 
-    JsonExporter(Report report, PrintStream out) {
+    private String[] keys;
+    private boolean first;
+
+    JsonExporter(Report report, ExportOutput out, Layout layout) {
         this.report = report;
         this.out = out;
+        this.layout = layout;
+    }
+
+    JsonExporter(ExportOutput out, Layout layout) {
+        this(null, out, layout);
     }
 
     @Override
     public void export() {
-        out.println("[");
-        List<List<Report.Field>> records = report.getRecords();
-        for (int i = 0; i < records.size(); i++) {
-            out.println("\t{");
-            List<Report.Field> record = records.get(i);
-            for (int j = 0; j < report.getLabels().size(); j++) {
-                String label = report.getLabels().get(j);
-                Report.Field field = record.get(j);
-                out.printf("\t\t\"%s\": ", label);
-                if (field.getDataType() == Report.DataType.NUMBER) {
-                    // number field
-                    out.printf("%s", field.getAsNumber());
-                } else {
-                    // date or string field
-                    out.printf("\"%s\"", field.getAsString());
-                }
-                if (j != report.getLabels().size() - 1) {
-                    out.print(",");
-                }
-                out.printf("%n");
+        if (report == null) {
+            throw new IllegalStateException("Exporter has no report, it can only be used as a sink.");
+        }
+        report.writeTo(this);
+    }
+
+    @Override
+    public void start(List<String> labels) {
+        writeHeader(out, labels);
+        first = true;
+    }
+
+    // INFO: whether a record is the last one isn't known yet, so the comma
+    // separating records is written before every record but the first.
+    @Override
+    public void record(ReportRecord record) {
+        deadline.check();
+        writeRecord(out, record, first);
+        first = false;
+    }
+
+    @Override
+    public void finish() {
+        writeEnd(out, first);
+        out.flush();
+    }
+
+    // INFO: the keys are laid out by the header, so it has to be written
+    // before any chunk.
+    @Override
+    public void writeHeader(ExportOutput out, List<String> labels) {
+        keys = new String[labels.size()];
+        for (int i = 0; i < keys.length; i++) {
+            String key = quote(labels.get(i));
+            if (layout == Layout.PRETTY) {
+                keys[i] = "\t\t" + key + ": ";
+            } else {
+                keys[i] = (i == 0 ? "" : ",") + key + ":";
             }
-            out.print("\t}");
-            if (i != records.size() - 1) {
-                out.print(",");
+        }
+        if (layout == Layout.PRETTY) {
+            out.write('[').newLine();
+        } else if (layout == Layout.COMPACT) {
+            out.write('[');
+        }
+    }
+
+    @Override
+    public void writeChunk(ExportOutput out, Report.Cursor records) {
+        while (records.next()) {
+            deadline.check();
+            writeRecord(out, records, records.isFirst());
+        }
+    }
+
+    // INFO: chunks can't keep track of whether any record was written, the
+    // report tells instead.
+    @Override
+    public void writeFooter(ExportOutput out) {
+        if (report == null) {
+            throw new IllegalStateException("Exporter has no report, it can only be used as a sink.");
+        }
+        writeEnd(out, report.isEmpty());
+    }
+
+    private void writeEnd(ExportOutput out, boolean empty) {
+        if (layout == Layout.PRETTY) {
+            if (!empty) {
+                out.newLine();
+            }
+            out.write(']').newLine();
+        } else if (layout == Layout.COMPACT) {
+            out.write(']');
+        }
+    }
+
+    private void writeRecord(ExportOutput out, ReportRecord record, boolean first) {
+        if (layout == Layout.PRETTY) {
+            writePrettyRecord(out, record, first);
+        } else {
+            if (!first && layout == Layout.COMPACT) {
+                out.write(',');
+            }
+            writeCompactRecord(out, record);
+            if (layout == Layout.LINES) {
+                out.write('\n');
+            }
+        }
+    }
+
+    private void writePrettyRecord(ExportOutput out, ReportRecord record, boolean first) {
+        if (!first) {
+            out.write(',').newLine();
+        }
+        out.write("\t{").newLine();
+        for (int i = 0; i < keys.length; i++) {
+            out.write(keys[i]);
+            writeValue(out, record, i);
+            if (i != keys.length - 1) {
+                out.write(',');
+            }
+            out.newLine();
+        }
+        out.write("\t}");
+    }
+
+    private void writeCompactRecord(ExportOutput out, ReportRecord record) {
+        out.write('{');
+        for (int i = 0; i < keys.length; i++) {
+            out.write(keys[i]);
+            writeValue(out, record, i);
+        }
+        out.write('}');
+    }
+
+    private static void writeValue(ExportOutput out, ReportRecord record, int column) {
+        switch (record.getDataType(column)) {
+            case NUMBER:
+                out.write(record.getNumber(column));
+                break;
+            case STRING:
+                writeString(out, record.getString(column));
+                break;
+            default:
+                // INFO: dates are `yyyy-MM-dd`, nothing to escape.
+                out.write('"');
+                out.write(record.getAsString(column));
+                out.write('"');
+        }
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder().append('"');
+        int last = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = escape(value.charAt(i));
+            if (replacement != null) {
+                sb.append(value, last, i).append(replacement);
+                last = i + 1;
             }
-            out.println();
         }
-        out.println("]");
+        return sb.append(value, last, value.length()).append('"').toString();
+    }
+
+    private static void writeString(ExportOutput out, String value) {
+        out.write('"');
+        int last = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = escape(value.charAt(i));
+            if (replacement != null) {
+                out.write(value, last, i - last);
+                out.write(replacement);
+                last = i + 1;
+            }
+        }
+        out.write(value, last, value.length() - last);
+        out.write('"');
+    }
+
+    // INFO: escapes what JSON requires to be escaped, plus the line and
+    // paragraph separators which aren't allowed in JavaScript strings.
+    private static String escape(char c) {
+        if (c < CONTROL_CHARACTERS.length) {
+            return CONTROL_CHARACTERS[c];
+        } else if (c == '"') {
+            return "\\\"";
+        } else if (c == '\\') {
+            return "\\\\";
+        } else if (c == '\u2028') {
+            return "\\u2028";
+        } else if (c == '\u2029') {
+            return "\\u2029";
+        }
+        return null;
     }
 }
@@ -4,7 +4,6 @@ import com.example.warehouse.Report;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.List;
 
 abstract class AbstractChartPlotter implements ChartPlotter {
 
@@ -23,7 +22,7 @@ abstract class AbstractChartPlotter implements ChartPlotter {
 
     @Override
     public final void plot(Report report, OutputStream out) throws IOException {
-        if (report.getRecords().isEmpty()) {
+        if (report.isEmpty()) {
             throw new IllegalArgumentException("Cannot plot empty report.");
         }
         checkReport(report);
@@ -33,23 +32,17 @@ abstract class AbstractChartPlotter implements ChartPlotter {
     abstract void doPlot(Report report, OutputStream out) throws IOException;
 
     private void checkReport(Report report) {
-        List<List<Report.Field>> records = report.getRecords();
-        if (!records.isEmpty()) {
-            List<Report.Field> firstRecord = records.get(0);
-            long dateCount = firstRecord.stream()
-                .filter(f -> f.getDataType() == Report.DataType.DATE)
-                .count();
-            if (dateCount == 0) {
-                throw new IllegalArgumentException("Can't handle report without a date component yet.");
-            } else if (dateCount == 1) {
-                Report.Field dateField = firstRecord.stream()
-                    .filter(f -> f.getDataType() == Report.DataType.DATE)
-                    .findFirst()
-                    .orElseThrow();
-                dateIndex = firstRecord.indexOf(dateField);
-            } else {
-                throw new IllegalStateException("Cannot handle plotting report with multiple date columns.");
+        dateIndex = -1;
+        for (int i = 0; i < report.getColumnCount(); i++) {
+            if (report.getDataType(i) == Report.DataType.DATE) {
+                if (dateIndex != -1) {
+                    throw new IllegalStateException("Cannot handle plotting report with multiple date columns.");
+                }
+                dateIndex = i;
             }
         }
+        if (dateIndex == -1) {
+            throw new IllegalArgumentException("Can't handle report without a date component yet.");
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.example.warehouse.plot;
 
+import com.example.warehouse.Deadline;
 import com.example.warehouse.Report;
 import org.jfree.chart.JFreeChart;
 import org.jfree.data.time.Day;
@@ -8,6 +9,7 @@ import org.jfree.data.time.TimeSeriesCollection;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,7 +26,6 @@ final class ComplexChartPlotter extends AbstractChartPlotter implements ChartPlo
     @Override
     void doPlot(Report report, OutputStream out) throws IOException {
         List<String> labels = report.getLabels();
-        List<List<Report.Field>> records = report.getRecords();
 
         String dateLabel = labels.get(dateIndex);
         List<String> valueLabels = labels
@@ -37,18 +38,18 @@ final class ComplexChartPlotter extends AbstractChartPlotter implements ChartPlo
             seriesCollection.addSeries(new TimeSeries(valueLabel));
         }
 
-        for (List<Report.Field> record : records) {
-            Report.Field dateField = record.get(dateIndex);
-            Day day = Day.parseDay(dateField.getAsString());
-            List<Number> values = record.stream()
-                .filter(f -> !f.equals(dateField))
-                .map(Report.Field::getAsNumber)
-                .collect(Collectors.toList());
-
-            for (int j = 0; j < values.size(); j++) {
-                Number value = values.get(j);
-                TimeSeries series = seriesCollection.getSeries(j);
-                series.add(day, value);
+        Deadline deadline = Deadline.current();
+        Report.Cursor record = report.cursor();
+        while (record.next()) {
+            deadline.check();
+            LocalDate date = record.getDate(dateIndex);
+            Day day = new Day(date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+            int seriesIndex = 0;
+            for (int j = 0; j < record.getColumnCount(); j++) {
+                if (j != dateIndex) {
+                    TimeSeries series = seriesCollection.getSeries(seriesIndex++);
+                    series.add(day, record.getNumber(j));
+                }
             }
         }
 
@@ -71,6 +72,8 @@ final class ComplexChartPlotter extends AbstractChartPlotter implements ChartPlo
         } else {
             throw new IllegalStateException(String.format("Chart type %s not handled.", chartType));
         }
+        // INFO: rendering can't be interrupted, so don't start it when out of time.
+        deadline.check();
         writeChartAsPNG(out, chart, PNG_WIDTH, PNG_HEIGHT);
     }
 }
@@ -0,0 +1,84 @@
+package com.example.warehouse;
+
+import java.time.LocalDate;
+
+// INFO: reports built field by field, the way the first report generations
+// did, for tests outside of this package.
+public final class TestReports {
+
+    private TestReports() {
+    }
+
+    public static Report daily() {
+        Report report = new Report();
+        report.addLabel("Date");
+        report.addLabel("Total products");
+        report.addLabel("Total revenue");
+        report.addRecord(date("2019-01-05"), number(103), number(4321));
+        report.addRecord(date("2019-01-11"), number(0), number(-250));
+        report.addRecord(date("2020-02-29"), number(Long.MAX_VALUE), number(Long.MIN_VALUE));
+        report.addRecord(date("1999-12-31"), number(7), number(1234567890123L));
+        return report;
+    }
+
+    public static Report single() {
+        Report report = new Report();
+        report.addLabel("Date");
+        report.addLabel("Total revenue");
+        report.addRecord(date("2019-03-01"), number(42));
+        return report;
+    }
+
+    public static Report empty() {
+        Report report = new Report();
+        report.addLabel("Date");
+        report.addLabel("Total revenue");
+        return report;
+    }
+
+    public static Report ranking() {
+        Report report = new Report();
+        report.addLabel("Product");
+        report.addLabel("Quantity");
+        report.addLabel("Revenue");
+        report.addRecord(string("a4 paper"), number(10010), number(20020));
+        report.addRecord(string("sun glasses"), number(12), number(144));
+        report.addRecord(string("a4 paper"), number(1), number(2));
+        report.addRecord(string("computer desk with a very long name"), number(3), number(-3));
+        return report;
+    }
+
+    // INFO: a date column next to a number column, under the given labels.
+    public static Report dates(String dateLabel, String numberLabel, LocalDate... dates) {
+        Report report = new Report();
+        report.addLabel(dateLabel);
+        report.addLabel(numberLabel);
+        for (LocalDate date : dates) {
+            report.addRecord(new Report.Field(Report.DataType.DATE, date), number(date.toEpochDay()));
+        }
+        return report;
+    }
+
+    // INFO: a string column next to a number column, under the given labels.
+    public static Report strings(String stringLabel, String numberLabel, String... values) {
+        Report report = new Report();
+        report.addLabel(stringLabel);
+        report.addLabel(numberLabel);
+        for (int i = 0; i < values.length; i++) {
+            report.addRecord(string(values[i]), number(i));
+        }
+        return report;
+    }
+
+    private static Report.Field date(String value) {
+        return new Report.Field(Report.DataType.DATE, LocalDate.parse(value));
+    }
+
+    private static Report.Field number(long value) {
+        return new Report.Field(Report.DataType.NUMBER, value);
+    }
+
+    private static Report.Field string(String value) {
+        return new Report.Field(Report.DataType.STRING, value);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.TestReports;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarReportReaderTest {
+
+    @Test
+    void readsBackEveryReport() throws IOException {
+        for (Report report : new Report[]{TestReports.daily(), TestReports.single(), TestReports.ranking(), dates(), strings()}) {
+            for (boolean checksums : new boolean[]{true, false}) {
+                for (int blockSize : new int[]{1, 3, 1000, ColumnarExporter.DEFAULT_BLOCK_SIZE}) {
+                    assertSameReport(report, ColumnarReportReader.read(new ByteArrayInputStream(export(report, checksums, blockSize))));
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsBackEmptyReport() throws IOException {
+        for (boolean checksums : new boolean[]{true, false}) {
+            // given
+            Report report = TestReports.empty();
+
+            // when
+            Report read = ColumnarReportReader.read(new ByteArrayInputStream(export(report, checksums, 1)));
+
+            // then
+            assertEquals(report.getLabels(), read.getLabels());
+            assertEquals(0, read.getRecordCount());
+        }
+    }
+
+    @Test
+    void leavesBytesAfterExportUnread() throws IOException {
+        // given
+        byte[] export = export(TestReports.daily(), true, 2);
+        byte[] followed = Arrays.copyOf(export, export.length + 1);
+        followed[export.length] = 42;
+        ByteArrayInputStream in = new ByteArrayInputStream(followed);
+
+        // when
+        ColumnarReportReader.read(in);
+
+        // then
+        assertTrue(in.available() <= 1);
+    }
+
+    @Test
+    void rejectsOtherData() {
+        assertRejected("WHAT\u0001\u0001".getBytes(StandardCharsets.US_ASCII));
+        assertRejected(new byte[0]);
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] export = export(TestReports.single(), true, 1);
+        export[4] = 2;
+        assertRejected(export);
+    }
+
+    @Test
+    void rejectsUnknownDataType() {
+        assertRejected(bytes('W', 'H', 'C', 'R', 1, 0, 1, 9, 0, 0));
+    }
+
+    @Test
+    void rejectsCorruptBlocksByChecksum() {
+        byte[] export = export(dates(), true, 100);
+        for (int i = 40; i < export.length - 1; i += 97) {
+            byte[] corrupt = export.clone();
+            corrupt[i] ^= 0x10;
+            assertRejected(corrupt);
+        }
+    }
+
+    @Test
+    void rejectsTruncatedExports() {
+        byte[] export = export(TestReports.daily(), false, 2);
+        for (int length = 0; length < export.length; length++) {
+            assertRejected(Arrays.copyOf(export, length));
+        }
+    }
+
+    // INFO: a block length of 2^30 - 1, with only a few bytes after it.
+    @Test
+    void rejectsBlockLongerThanExport() {
+        assertRejected(concat(header(ColumnarExporter.TYPE_NUMBER), bytes(0xff, 0xff, 0xff, 0x03, 1, 2, 0)));
+    }
+
+    @Test
+    void rejectsBlockOverLengthLimit() {
+        assertRejected(concat(header(ColumnarExporter.TYPE_NUMBER), bytes(0x81, 0x80, 0x80, 0x80, 0x04, 1, 2, 0)));
+        assertRejected(concat(header(ColumnarExporter.TYPE_NUMBER), bytes(0xff, 0xff, 0xff, 0xff, 0x0f)));
+    }
+
+    @Test
+    void rejectsLabelOverLengthLimit() {
+        assertRejected(bytes('W', 'H', 'C', 'R', 1, 0, 1, ColumnarExporter.TYPE_NUMBER, 0x81, 0x80, 0x80, 0x80, 0x04, 'a'));
+    }
+
+    @Test
+    void rejectsColumnCountLargerThanExport() {
+        assertRejected(bytes('W', 'H', 'C', 'R', 1, 0, 0xff, 0xff, 0xff, 0xff, 0x07, ColumnarExporter.TYPE_NUMBER, 0));
+    }
+
+    @Test
+    void rejectsMoreRecordsThanBlockHolds() {
+        assertRejected(concat(header(ColumnarExporter.TYPE_NUMBER), bytes(3, 0xff, 0xff, 0x7f, 0)));
+    }
+
+    @Test
+    void rejectsMoreDictionaryEntriesThanBlockHolds() {
+        assertRejected(concat(header(ColumnarExporter.TYPE_STRING), bytes(3, 1, 0xff, 0x7f, 0)));
+    }
+
+    @Test
+    void rejectsMissingDictionaryEntry() {
+        assertRejected(concat(header(ColumnarExporter.TYPE_STRING), bytes(5, 1, 1, 1, 'a', 1, 0)));
+    }
+
+    @Test
+    void rejectsBlockLongerThanItsRecords() {
+        assertRejected(concat(header(ColumnarExporter.TYPE_NUMBER), bytes(3, 1, 2, 2, 0)));
+    }
+
+    private static void assertRejected(byte[] export) {
+        assertThrows(IOException.class, () -> ColumnarReportReader.read(new ByteArrayInputStream(export)));
+    }
+
+    private static void assertSameReport(Report expected, Report actual) {
+        assertEquals(expected.getLabels(), actual.getLabels());
+        assertEquals(expected.getRecordCount(), actual.getRecordCount());
+        for (int i = 0; i < expected.getRecordCount(); i++) {
+            for (int j = 0; j < expected.getColumnCount(); j++) {
+                Report.Field expectedField = expected.getRecords().get(i).get(j);
+                Report.Field actualField = actual.getRecords().get(i).get(j);
+                assertEquals(expectedField.getDataType(), actualField.getDataType());
+                assertEquals(expectedField.getAsString(), actualField.getAsString());
+            }
+        }
+    }
+
+    private static byte[] export(Report report, boolean checksums, int blockSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ColumnarExporter(report, out, checksums, blockSize).export();
+        return out.toByteArray();
+    }
+
+    // INFO: a single column labeled "a", blocks without checksums.
+    private static byte[] header(int type) {
+        return bytes('W', 'H', 'C', 'R', 1, 0, 1, type, 1, 'a');
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+    private static Report dates() {
+        Random random = new Random(42);
+        LocalDate[] dates = new LocalDate[1000];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.ofEpochDay(random.nextInt(2_000_000) - 1_000_000);
+        }
+        return TestReports.dates("Date", "Epoch day", dates);
+    }
+
+    private static Report strings() {
+        Random random = new Random(42);
+        String[] strings = new String[1000];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = random.nextInt(10) == 0 ? "" : "product \u00e9\ud83d\udce6 " + random.nextInt(50);
+        }
+        return TestReports.strings("Product", "Row", strings);
+    }
+}
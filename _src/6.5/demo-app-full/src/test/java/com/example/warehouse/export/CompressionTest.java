@@ -0,0 +1,151 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.TestReports;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionTest {
+
+    // INFO: remembers being closed and fails writes after that.
+    private static final class TrackingOutputStream extends FilterOutputStream {
+
+        boolean closed;
+
+        TrackingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed.");
+            }
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed.");
+            }
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    void gzipExportsDecompressToPlainExports() throws IOException {
+        assertDecompressesToPlainExports(Compression.GZIP);
+    }
+
+    @Test
+    void deflateExportsDecompressToPlainExports() throws IOException {
+        assertDecompressesToPlainExports(Compression.DEFLATE);
+    }
+
+    @Test
+    void noCompressionWritesPlainExports() throws IOException {
+        assertDecompressesToPlainExports(Compression.NONE);
+    }
+
+    @Test
+    void leavesUnderlyingStreamOpen() throws IOException {
+        for (Compression compression : Compression.values()) {
+            // given
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            TrackingOutputStream out = new TrackingOutputStream(bytes);
+
+            // when
+            try (OutputStream compressed = compression.compress(out)) {
+                compressed.write(new byte[]{1, 2, 3});
+            }
+            out.write(42);
+
+            // then
+            assertFalse(out.closed);
+            byte[] written = bytes.toByteArray();
+            assertEquals(42, written[written.length - 1]);
+            byte[] compressed = new byte[written.length - 1];
+            System.arraycopy(written, 0, compressed, 0, compressed.length);
+            assertArrayEquals(new byte[]{1, 2, 3}, decompress(compression, compressed));
+        }
+    }
+
+    @Test
+    void namesCompressedExports() {
+        assertEquals("csv", Compression.NONE.getFileExtension(ExportType.CSV));
+        assertEquals("csv.gz", Compression.GZIP.getFileExtension(ExportType.CSV));
+        assertEquals("json.deflate", Compression.DEFLATE.getFileExtension(ExportType.JSON));
+        assertEquals(ExportType.CSV.getMimeType(), Compression.NONE.getMimeType(ExportType.CSV));
+        assertEquals("application/gzip", Compression.GZIP.getMimeType(ExportType.CSV));
+    }
+
+    private static void assertDecompressesToPlainExports(Compression compression) throws IOException {
+        for (Report report : new Report[]{TestReports.empty(), TestReports.daily(), dates()}) {
+            for (ExportType type : ExportType.values()) {
+                // given
+                ByteArrayOutputStream plain = new ByteArrayOutputStream();
+                new FullExporterFactory().newExporter(report, type, plain).export();
+
+                // when
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (OutputStream compressed = compression.compress(bytes)) {
+                    new FullExporterFactory().newExporter(report, type, compressed).export();
+                }
+
+                // then
+                assertArrayEquals(plain.toByteArray(), decompress(compression, bytes.toByteArray()));
+                if (compression != Compression.NONE && plain.size() > 10_000) {
+                    assertTrue(bytes.size() < plain.size());
+                }
+            }
+        }
+    }
+
+    private static byte[] decompress(Compression compression, byte[] bytes) throws IOException {
+        InputStream in = new ByteArrayInputStream(bytes);
+        switch (compression) {
+            case GZIP:
+                in = new GZIPInputStream(in);
+                break;
+            case DEFLATE:
+                in = new InflaterInputStream(in, new Inflater(true));
+                break;
+            default:
+        }
+        try (InputStream decompressed = in) {
+            return decompressed.readAllBytes();
+        }
+    }
+
+    // INFO: large enough for several compression buffers.
+    private static Report dates() {
+        Random random = new Random(42);
+        LocalDate[] dates = new LocalDate[20_000];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.ofEpochDay(random.nextInt(20_000));
+        }
+        return TestReports.dates("Date", "Epoch day", dates);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.TestReports;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class FanOutExporterTest {
+
+    // INFO: around the batches of 1024 records the exporters take turns on.
+    private static final int[] RECORD_COUNTS = {0, 1, 2, 1023, 1024, 1025, 2047, 2048, 2049, 5000};
+
+    private final ExporterFactory exporterFactory = new FullExporterFactory();
+
+    @Test
+    void writesSameAsExportingEveryTypeAlone() {
+        for (int recordCount : RECORD_COUNTS) {
+            assertSameAsExportingAlone(dates(recordCount), exporterFactory);
+            assertSameAsExportingAlone(strings(recordCount), exporterFactory);
+        }
+    }
+
+    @Test
+    void writesSameForSampleReports() {
+        for (Report report : new Report[]{TestReports.empty(), TestReports.single(), TestReports.daily(), TestReports.ranking()}) {
+            assertSameAsExportingAlone(report, exporterFactory);
+        }
+    }
+
+    // INFO: exporters that aren't sinks export the report on their own.
+    @Test
+    void writesSameWithExportersThatAreNoSinks() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ExporterFactory parallelCsvFactory = (report, type, out) -> {
+                if (type != ExportType.CSV) {
+                    return exporterFactory.newExporter(report, type, out);
+                }
+                ExportOutput output = new ExportOutput(out);
+                return new ParallelExporter(report, output, new CsvExporter(report, output, true), pool, 100);
+            };
+            for (int recordCount : RECORD_COUNTS) {
+                assertSameAsExportingAlone(strings(recordCount), parallelCsvFactory);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assertSameAsExportingAlone(Report report, ExporterFactory exporterFactory) {
+        // given
+        Map<ExportType, ByteArrayOutputStream> alone = new EnumMap<>(ExportType.class);
+        for (ExportType type : ExportType.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            exporterFactory.newExporter(report, type, out).export();
+            alone.put(type, out);
+        }
+
+        // when
+        Map<ExportType, ByteArrayOutputStream> fannedOut = new EnumMap<>(ExportType.class);
+        Map<ExportType, OutputStream> outs = new EnumMap<>(ExportType.class);
+        for (ExportType type : ExportType.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            fannedOut.put(type, out);
+            outs.put(type, out);
+        }
+        new FanOutExporter(report, outs, exporterFactory).export();
+
+        // then
+        for (ExportType type : ExportType.values()) {
+            assertArrayEquals(alone.get(type).toByteArray(), fannedOut.get(type).toByteArray());
+        }
+    }
+
+    private static Report dates(int count) {
+        Random random = new Random(42);
+        LocalDate[] dates = new LocalDate[count];
+        for (int i = 0; i < count; i++) {
+            dates[i] = LocalDate.ofEpochDay(random.nextInt(20_000));
+        }
+        return TestReports.dates("Date", "Epoch day", dates);
+    }
+
+    // INFO: repeated and escaped values, and values longer than others.
+    private static Report strings(int count) {
+        Random random = new Random(42);
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = random.nextInt(5) == 0 ? "a \"quoted\", <escaped> & long product " + i : "product " + random.nextInt(20);
+        }
+        return TestReports.strings("Product", "Row", strings);
+    }
+}
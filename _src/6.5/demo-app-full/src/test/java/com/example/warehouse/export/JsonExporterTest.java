@@ -0,0 +1,170 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.TestReports;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonExporterTest {
+
+    private static final Gson GSON = new Gson();
+
+    private static final String CONTROL_CHARACTERS;
+
+    static {
+        StringBuilder sb = new StringBuilder();
+        for (char c = 0; c < 0x20; c++) {
+            sb.append(c);
+        }
+        CONTROL_CHARACTERS = sb.toString();
+    }
+
+    @Test
+    void prettyExportsParse() throws IOException {
+        for (Report report : reports()) {
+            assertEquals(expected(report), parse(export(report, JsonExporter.Layout.PRETTY)));
+        }
+    }
+
+    @Test
+    void compactExportsParse() throws IOException {
+        for (Report report : reports()) {
+            // when
+            String json = export(report, JsonExporter.Layout.COMPACT);
+
+            // then
+            assertEquals(expected(report), parse(json));
+            assertNoControlCharacters(json, "");
+        }
+    }
+
+    @Test
+    void everyLineOfLinesExportsParsesOnItsOwn() throws IOException {
+        for (Report report : reports()) {
+            // when
+            String json = export(report, JsonExporter.Layout.LINES);
+
+            // then
+            JsonArray records = new JsonArray();
+            for (String line : json.split("\n")) {
+                if (!line.isEmpty()) {
+                    records.add(parse(line));
+                }
+            }
+            assertEquals(expected(report), records);
+            assertTrue(json.isEmpty() || json.endsWith("\n"));
+            assertNoControlCharacters(json, "\n");
+        }
+    }
+
+    // INFO: the labels need escaping as much as the values.
+    private static List<Report> reports() {
+        List<Report> reports = new ArrayList<>();
+        reports.add(TestReports.daily());
+        reports.add(TestReports.single());
+        reports.add(TestReports.empty());
+        reports.add(TestReports.ranking());
+        reports.add(TestReports.strings("Name \"quoted\"", "Back\\slash\n",
+            "",
+            "plain",
+            "\"",
+            "\\",
+            "\\\"",
+            "\"\\u0041\\\"",
+            "tab\tnew line\ncarriage return\rback space\bform feed\f",
+            "\u0000\u0001\u001f",
+            "\u2028 and \u2029",
+            "\ud83d\ude00 grinning",
+            "\ud834\udd1e clef \ud83d\udce6\ud83d\udce6",
+            "caf\u00e9 \u20ac\u4e2d\u6587",
+            "</script>"));
+        reports.add(TestReports.strings(CONTROL_CHARACTERS, "\u007f", new StringBuilder(CONTROL_CHARACTERS).reverse().toString()));
+        reports.add(TestReports.strings("\ud83d\udce6 product", "\u0007", randomStrings(new Random(42), 500)));
+        return reports;
+    }
+
+    private static String[] randomStrings(Random random, int count) {
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                switch (random.nextInt(5)) {
+                    case 0:
+                        sb.append((char) random.nextInt(0x20));
+                        break;
+                    case 1:
+                        sb.append("\"\\/".charAt(random.nextInt(3)));
+                        break;
+                    case 2:
+                        sb.appendCodePoint(0x10000 + random.nextInt(0x100000 - 0x10000));
+                        break;
+                    case 3:
+                        sb.append((char) (0x80 + random.nextInt(0xd800 - 0x80)));
+                        break;
+                    default:
+                        sb.append((char) (0x20 + random.nextInt(0x60)));
+                }
+            }
+            strings[i] = sb.toString();
+        }
+        return strings;
+    }
+
+    private static String export(Report report, JsonExporter.Layout layout) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JsonExporter(report, new ExportOutput(out), layout).export();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // INFO: strict, unlike `Gson.fromJson`, and the whole input has to be
+    // a single value.
+    private static JsonElement parse(String json) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(json));
+        reader.setLenient(false);
+        JsonElement element = GSON.getAdapter(JsonElement.class).read(reader);
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+        return element;
+    }
+
+    private static JsonArray expected(Report report) {
+        JsonArray records = new JsonArray();
+        for (List<Report.Field> fields : report.getRecords()) {
+            JsonObject record = new JsonObject();
+            for (int i = 0; i < fields.size(); i++) {
+                Report.Field field = fields.get(i);
+                if (field.getDataType() == Report.DataType.NUMBER) {
+                    record.addProperty(report.getLabels().get(i), field.getAsNumber());
+                } else {
+                    record.addProperty(report.getLabels().get(i), field.getAsString());
+                }
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    // INFO: the line and paragraph separators are escaped as well.
+    private static void assertNoControlCharacters(String json, String allowed) {
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            boolean escaped = c >= 0x20 && c != '\u2028' && c != '\u2029';
+            assertTrue(escaped || allowed.indexOf(c) >= 0, String.format("Unescaped U+%04X at %s.", (int) c, i));
+        }
+    }
+}
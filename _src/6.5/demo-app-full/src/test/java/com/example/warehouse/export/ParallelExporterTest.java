@@ -0,0 +1,104 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.TestReports;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelExporterTest {
+
+    private static final int[] CHUNK_SIZES = {1, 2, 7, 100, 999, 1000, 1001, 5000};
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void beforeAll() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        pool.shutdown();
+    }
+
+    @Test
+    void csvExportsMatchSequentialExports() {
+        assertMatchesSequentialExports((report, out) -> new CsvExporter(report, out, true));
+    }
+
+    @Test
+    void txtExportsMatchSequentialExports() {
+        assertMatchesSequentialExports(TxtExporter::new);
+    }
+
+    @Test
+    void htmlExportsMatchSequentialExports() {
+        assertMatchesSequentialExports(HtmlExporter::new);
+    }
+
+    @Test
+    void jsonExportsMatchSequentialExports() {
+        for (JsonExporter.Layout layout : JsonExporter.Layout.values()) {
+            assertMatchesSequentialExports((report, out) -> new JsonExporter(report, out, layout));
+        }
+    }
+
+    @Test
+    void cantUseEmptyChunks() {
+        Report report = TestReports.single();
+        assertThrows(IllegalArgumentException.class, () -> new ParallelExporter(
+            report, new ExportOutput(new ByteArrayOutputStream()), new CsvExporter(report, null, true), pool, 0));
+    }
+
+    // INFO: 0 and 1 records, then a thousand records for the chunk sizes
+    // around it.
+    private static void assertMatchesSequentialExports(BiFunction<Report, ExportOutput, ChunkedExporter> newExporter) {
+        for (Report report : new Report[]{TestReports.empty(), TestReports.single(), TestReports.daily(), TestReports.ranking(), dates(), strings()}) {
+            ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+            newExporter.apply(report, new ExportOutput(sequential)).export();
+
+            for (int chunkSize : CHUNK_SIZES) {
+                // when
+                ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+                ExportOutput out = new ExportOutput(parallel);
+                new ParallelExporter(report, out, newExporter.apply(report, out), pool, chunkSize).export();
+
+                // then
+                assertArrayEquals(sequential.toByteArray(), parallel.toByteArray());
+            }
+        }
+    }
+
+    private static Report dates() {
+        Random random = new Random(42);
+        LocalDate[] dates = new LocalDate[1000];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.ofEpochDay(random.nextInt(20_000));
+        }
+        return TestReports.dates("Date", "Epoch day", dates);
+    }
+
+    // INFO: with everything CSV, HTML and JSON escape.
+    private static Report strings() {
+        Random random = new Random(42);
+        String[] strings = new String[1000];
+        for (int i = 0; i < strings.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(15); j > 0; j--) {
+                sb.append("ab ,;\"'\\<>&\n\t\u00e9\u20ac\ud83d\udce6".charAt(random.nextInt(17)));
+            }
+            strings[i] = sb.toString();
+        }
+        return TestReports.strings("Product", "Row", strings);
+    }
+}
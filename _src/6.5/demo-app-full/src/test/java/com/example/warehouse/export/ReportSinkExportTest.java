@@ -0,0 +1,60 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportSink;
+import com.example.warehouse.TestReports;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ReportSinkExportTest {
+
+    private static final Report[] REPORTS = {
+        TestReports.daily(), TestReports.single(), TestReports.empty(), TestReports.ranking()
+    };
+
+    private final ExporterFactory exporterFactory = new FullExporterFactory();
+
+    @Test
+    void streamingSinksWriteSameAsExporters() {
+        for (ExportType type : new ExportType[]{ExportType.CSV, ExportType.HTML, ExportType.JSON, ExportType.NDJSON, ExportType.COLUMNAR}) {
+            for (Report report : REPORTS) {
+                assertSinkMatchesExporter(exporterFactory, type, report);
+            }
+        }
+    }
+
+    @Test
+    void bufferedSinksWriteSameAsExporters() {
+        for (Report report : REPORTS) {
+            assertSinkMatchesExporter(exporterFactory, ExportType.TXT, report);
+        }
+    }
+
+    // INFO: a factory without sinks of its own gets the buffered ones for every type.
+    @Test
+    void defaultSinksWriteSameAsExporters() {
+        ExporterFactory bufferingFactory = exporterFactory::newExporter;
+        for (ExportType type : new ExportType[]{ExportType.CSV, ExportType.TXT, ExportType.HTML, ExportType.JSON}) {
+            for (Report report : REPORTS) {
+                assertSinkMatchesExporter(bufferingFactory, type, report);
+            }
+        }
+    }
+
+    private static void assertSinkMatchesExporter(ExporterFactory exporterFactory, ExportType type, Report report) {
+        // when
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        exporterFactory.newExporter(report, type, exported).export();
+
+        // and
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        ReportSink sink = exporterFactory.newSink(type, streamed);
+        report.writeTo(sink);
+
+        // then
+        assertArrayEquals(exported.toByteArray(), streamed.toByteArray());
+    }
+}
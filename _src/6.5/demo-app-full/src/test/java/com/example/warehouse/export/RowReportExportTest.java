@@ -0,0 +1,57 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.TestReports;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// INFO: the expected exports under `exports/` were made by the exporters
+// going over the row-based report, before values were stored by column.
+class RowReportExportTest {
+
+    private static final ExportType[] TYPES = {ExportType.CSV, ExportType.TXT, ExportType.HTML, ExportType.JSON};
+
+    @Test
+    void dailyReportExportsMatchRowBasedExports() throws Exception {
+        assertMatchesRowBasedExports("daily", TestReports.daily());
+    }
+
+    @Test
+    void singleRecordExportsMatchRowBasedExports() throws Exception {
+        assertMatchesRowBasedExports("single", TestReports.single());
+    }
+
+    @Test
+    void emptyReportExportsMatchRowBasedExports() throws Exception {
+        assertMatchesRowBasedExports("empty", TestReports.empty());
+    }
+
+    @Test
+    void rankingExportsMatchRowBasedExports() throws Exception {
+        assertMatchesRowBasedExports("ranking", TestReports.ranking());
+    }
+
+    private static void assertMatchesRowBasedExports(String name, Report report) throws IOException {
+        for (ExportType type : TYPES) {
+            // when
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new FullExporterFactory().newExporter(report, type, out).export();
+
+            // then
+            assertEquals(readExpected(name + "." + type.name().toLowerCase()), out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    // INFO: they were made with `\n` line endings.
+    private static String readExpected(String file) throws IOException {
+        try (InputStream in = RowReportExportTest.class.getResourceAsStream("/exports/" + file)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\n", System.lineSeparator());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.TestReports;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TxtExporterTest {
+
+    @Test
+    void formatsDatesAroundLeapDays() {
+        // given
+        List<LocalDate> dates = new ArrayList<>();
+        for (int year : new int[]{1600, 1700, 1899, 1900, 1970, 1999, 2000, 2019, 2020, 2100, 2400}) {
+            LocalDate firstOfMarch = LocalDate.of(year, 3, 1);
+            for (LocalDate date = firstOfMarch.minusDays(3); date.isBefore(firstOfMarch.plusDays(2)); date = date.plusDays(1)) {
+                dates.add(date);
+            }
+            dates.add(LocalDate.of(year, 12, 31));
+            dates.add(LocalDate.of(year + 1, 1, 1));
+        }
+
+        // when/then
+        assertMatchesBaseline(TestReports.dates("Date", "Epoch day", dates.toArray(new LocalDate[0])));
+    }
+
+    @Test
+    void formatsEveryDayOfFourYears() {
+        // given
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = LocalDate.of(2019, 1, 1); date.getYear() < 2023; date = date.plusDays(1)) {
+            dates.add(date);
+        }
+
+        // when/then
+        assertMatchesBaseline(TestReports.dates("Date", "Epoch day", dates.toArray(new LocalDate[0])));
+    }
+
+    @Test
+    void formatsDatesAtEdgesOfFourDigitYears() {
+        assertMatchesBaseline(TestReports.dates("Date", "Epoch day",
+            LocalDate.of(0, 1, 1),
+            LocalDate.of(-1, 12, 31),
+            LocalDate.of(9999, 12, 31),
+            LocalDate.of(10000, 1, 1),
+            LocalDate.of(-12345, 6, 7),
+            LocalDate.of(1, 2, 3)));
+    }
+
+    @Test
+    void padsDatesInWideCells() {
+        assertMatchesBaseline(TestReports.dates("Day the orders were placed on", "Day",
+            LocalDate.of(2020, 2, 29),
+            LocalDate.of(1970, 1, 1),
+            LocalDate.of(1969, 12, 31)));
+    }
+
+    @Test
+    void formatsWideNumbersAndStrings() {
+        assertMatchesBaseline(TestReports.daily());
+        assertMatchesBaseline(TestReports.ranking());
+        assertMatchesBaseline(TestReports.empty());
+    }
+
+    private static void assertMatchesBaseline(Report report) {
+        // when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TxtExporter(report, new ExportOutput(out)).export();
+
+        // then
+        assertEquals(baseline(report), out.toString(StandardCharsets.UTF_8));
+    }
+
+    // INFO: the way the table was formatted before cells were written into a
+    // line buffer, every value right aligned with `String.format`.
+    private static String baseline(Report report) {
+        List<String> labels = report.getLabels();
+        List<List<Report.Field>> records = report.getRecords();
+        int[] widths = new int[labels.size()];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = labels.get(i).length();
+            for (List<Report.Field> record : records) {
+                widths[i] = Math.max(widths[i], record.get(i).getAsString().length());
+            }
+        }
+        List<List<String>> lines = new ArrayList<>();
+        lines.add(labels);
+        for (List<Report.Field> record : records) {
+            List<String> line = new ArrayList<>();
+            record.forEach(field -> line.add(field.getAsString()));
+            lines.add(line);
+        }
+        StringBuilder border = new StringBuilder();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            StringBuilder line = new StringBuilder("* ");
+            for (int j = 0; j < widths.length; j++) {
+                if (j != 0) {
+                    line.append(" | ");
+                }
+                line.append(String.format("%" + widths[j] + "s", lines.get(i).get(j)));
+            }
+            line.append(" *");
+            if (i == 0) {
+                border.append("*".repeat(line.length())).append(System.lineSeparator());
+                sb.append(border);
+            }
+            sb.append(line).append(System.lineSeparator());
+            if (i == 0) {
+                sb.append(border);
+            }
+        }
+        return sb.append(border).toString();
+    }
+}
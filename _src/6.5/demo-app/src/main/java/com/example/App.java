@@ -4,6 +4,7 @@ import com.example.warehouse.*;
 import com.example.warehouse.delivery.DirectoryReportDelivery;
 import com.example.warehouse.delivery.EmailReportDelivery;
 import com.example.warehouse.delivery.NoReportDelivery;
+import com.example.warehouse.delivery.QueuedReportDelivery;
 import com.example.warehouse.delivery.ReportDelivery;
 import io.github.resilience4j.cache.Cache;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
@@ -14,6 +15,7 @@ import io.github.resilience4j.decorators.Decorators;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.mail.internet.AddressException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -29,6 +31,32 @@ public abstract class App implements Runnable {
     private static final String DESTINATION_DIRECTORY = getenv()
         .getOrDefault("DESTINATION_DIRECTORY", ".");
 
+    // INFO: when on, email and directory deliveries are made by background
+    // workers, every channel with its own queue. Callers wait for room in a
+    // full queue for the offer timeout, then the delivery is rejected. Workers
+    // don't keep the process alive, queued jobs are kept in the queue directory
+    // and delivered by the next run instead. A queue directory can only be used
+    // by one process at a time, so each app and client ID has its own below
+    // the configured one, e.g. `delivery-queue/backend-1`. A blank directory
+    // keeps jobs in memory only, they're lost when the process stops.
+    private static final boolean ASYNC_REPORT_DELIVERY = Boolean.parseBoolean(getenv()
+        .getOrDefault("ASYNC_REPORT_DELIVERY", "false"));
+
+    private static final int REPORT_DELIVERY_QUEUE_CAPACITY = Integer.parseInt(getenv()
+        .getOrDefault("REPORT_DELIVERY_QUEUE_CAPACITY", "100"));
+
+    private static final int REPORT_DELIVERY_WORKERS = Integer.parseInt(getenv()
+        .getOrDefault("REPORT_DELIVERY_WORKERS", "2"));
+
+    private static final long REPORT_DELIVERY_OFFER_MILLIS = Long.parseLong(getenv()
+        .getOrDefault("REPORT_DELIVERY_OFFER_MILLIS", "1000"));
+
+    private static final int REPORT_DELIVERY_MAX_ATTEMPTS = Integer.parseInt(getenv()
+        .getOrDefault("REPORT_DELIVERY_MAX_ATTEMPTS", "3"));
+
+    private static final String REPORT_DELIVERY_QUEUE_DIR = getenv()
+        .getOrDefault("REPORT_DELIVERY_QUEUE_DIR", "delivery-queue");
+
     private static final CircuitBreakerConfig CBC = CircuitBreakerConfig.custom()
         .ringBufferSizeInClosedState(3)
         .ringBufferSizeInHalfOpenState(3)
@@ -55,7 +83,7 @@ public abstract class App implements Runnable {
         warehouse = getWarehouse(clientId);
 
         try {
-            reportDeliveries = createReportDeliveries(clientId);
+            reportDeliveries = createReportDeliveries(clientId, getReportDeliveryQueueDirectory(clientId));
         } catch (AddressException ex) {
             err.println("Wrong email address:" + ex.getMessage());
             exit(1);
@@ -80,18 +108,40 @@ public abstract class App implements Runnable {
         }
     }
 
-    private static List<ReportDelivery> createReportDeliveries(int clientId) throws AddressException {
+    private Path getReportDeliveryQueueDirectory(int clientId) {
+        if (REPORT_DELIVERY_QUEUE_DIR.isBlank()) {
+            return null;
+        }
+        return Path.of(REPORT_DELIVERY_QUEUE_DIR)
+            .resolve(String.format("%s-%s", getClass().getSimpleName().toLowerCase(), clientId));
+    }
+
+    private static List<ReportDelivery> createReportDeliveries(int clientId, Path queueDirectory) throws AddressException {
         List<ReportDelivery> result = new ArrayList<>();
         result.add(new NoReportDelivery());
         if (clientId == 1) {
-            result.add(new EmailReportDelivery(DESTINATION_ADDRESS));
-            result.add(new DirectoryReportDelivery(DESTINATION_DIRECTORY));
+            result.add(withQueue(new EmailReportDelivery(DESTINATION_ADDRESS), "email", queueDirectory));
+            result.add(withQueue(new DirectoryReportDelivery(DESTINATION_DIRECTORY), "directory", queueDirectory));
         } else {
-            result.add(new DirectoryReportDelivery(DESTINATION_DIRECTORY));
+            result.add(withQueue(new DirectoryReportDelivery(DESTINATION_DIRECTORY), "directory", queueDirectory));
         }
         return result;
     }
 
+    private static ReportDelivery withQueue(ReportDelivery reportDelivery, String channel, Path queueDirectory) {
+        if (!ASYNC_REPORT_DELIVERY) {
+            return reportDelivery;
+        }
+        return new QueuedReportDelivery(
+            reportDelivery,
+            channel,
+            REPORT_DELIVERY_QUEUE_CAPACITY,
+            REPORT_DELIVERY_WORKERS,
+            REPORT_DELIVERY_OFFER_MILLIS,
+            REPORT_DELIVERY_MAX_ATTEMPTS,
+            queueDirectory);
+    }
+
     private static int getClientId() {
         String value = getenv("CLIENT_ID");
         if (value == null || value.isBlank()) {
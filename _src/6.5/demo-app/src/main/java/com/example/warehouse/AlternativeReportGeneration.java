@@ -1,20 +1,26 @@
 package com.example.warehouse;
 
+import com.example.warehouse.dal.NoOrderArchive;
+import com.example.warehouse.dal.OrderArchive;
 import com.example.warehouse.dal.OrderDao;
+import com.example.warehouse.dal.OrderSnapshot;
 
-import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.time.LocalDate;
 import java.util.Map;
-
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
+import java.util.TreeMap;
 
 public class AlternativeReportGeneration implements ReportGeneration {
 
     private final OrderDao orderDao;
+    private final OrderArchive orderArchive;
 
     public AlternativeReportGeneration(OrderDao orderDao) {
+        this(orderDao, new NoOrderArchive());
+    }
+
+    public AlternativeReportGeneration(OrderDao orderDao, OrderArchive orderArchive) {
         this.orderDao = orderDao;
+        this.orderArchive = orderArchive;
     }
 
     @Override
@@ -24,25 +30,21 @@ public class AlternativeReportGeneration implements ReportGeneration {
         report.addLabel("Date");
         report.addLabel("Total products");
         report.addLabel("Total revenue");
-        orderDao.getOrders()
-            .stream()
-            .sorted()
-            .collect(groupingBy(Order::getDate, LinkedHashMap::new, toList()))
-            .forEach((date, orders) -> report.addRecord(
-                new Report.Field(Report.DataType.DATE, date),
-                new Report.Field(Report.DataType.NUMBER, orders
-                    .stream()
-                    .sorted()
-                    .map(Order::getQuantities)
-                    .map(Map::values)
-                    .flatMap(Collection::stream)
-                    .mapToInt(Integer::intValue)
-                    .sum()),
-                new Report.Field(Report.DataType.NUMBER, orders
-                    .stream()
-                    .sorted()
-                    .mapToInt(Order::getTotalPrice)
-                    .sum())));
+        // INFO: per day the total products at index 0 and total revenue at index 1.
+        Deadline deadline = Deadline.current();
+        Map<LocalDate, long[]> totals = new TreeMap<>();
+        OrderSnapshot snapshot = orderArchive.getSnapshot(orderDao);
+        snapshot.getDailyTotals()
+            .forEach((date, archived) -> totals.put(date, new long[]{archived.getTotalProducts(), archived.getTotalRevenue()}));
+        for (Order order : snapshot.getOrders()) {
+            deadline.check();
+            long[] total = totals.computeIfAbsent(order.getDate(), d -> new long[2]);
+            for (int quantity : order.getQuantities().values()) {
+                total[0] += quantity;
+            }
+            total[1] += order.getTotalPrice();
+        }
+        totals.forEach((date, total) -> report.addRecord(date, total[0], total[1]));
         return report;
     }
 
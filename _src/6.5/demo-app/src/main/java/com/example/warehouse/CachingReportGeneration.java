@@ -0,0 +1,69 @@
+package com.example.warehouse;
+
+// INFO: every order or product added through the warehouse moves the data
+// to a new version, so cached reports are only reused while nothing changed.
+// Like incremental reports, it doesn't notice changes made by other processes.
+public class CachingReportGeneration implements ReportGeneration, OrderListener, ProductListener {
+
+    private final ReportGeneration reportGeneration;
+    private final ReportCache reportCache;
+    private final int clientId;
+
+    private volatile long dataVersion;
+
+    public CachingReportGeneration(ReportGeneration reportGeneration, ReportCache reportCache, int clientId) {
+        this.reportGeneration = reportGeneration;
+        this.reportCache = reportCache;
+        this.clientId = clientId;
+        this.dataVersion = reportCache.newVersion();
+    }
+
+    @Override
+    public Report generateReport(Report.Type type) throws WarehouseException {
+        return reportCache.get(type, clientId, dataVersion, () -> reportGeneration.generateReport(type));
+    }
+
+    // INFO: only reports with the default parameters are cached.
+    @Override
+    public Report generateReport(Report.Type type, ReportParameters parameters) throws WarehouseException {
+        if (parameters.isDefault()) {
+            return generateReport(type);
+        }
+        return reportGeneration.generateReport(type, parameters);
+    }
+
+    @Override
+    public void generateReport(Report.Type type, ReportParameters parameters, ReportSink sink) throws WarehouseException {
+        if (parameters.isDefault()) {
+            generateReport(type).writeTo(sink);
+        } else {
+            reportGeneration.generateReport(type, parameters, sink);
+        }
+    }
+
+    // INFO: the wrapped report generation is notified first, so a report
+    // generated for the new version already includes the change.
+    @Override
+    public void orderAdded(Order order) {
+        if (reportGeneration instanceof OrderListener) {
+            ((OrderListener) reportGeneration).orderAdded(order);
+        }
+        dataVersion = reportCache.newVersion();
+    }
+
+    @Override
+    public void orderFulfilled(Order order) {
+        if (reportGeneration instanceof OrderListener) {
+            ((OrderListener) reportGeneration).orderFulfilled(order);
+        }
+        dataVersion = reportCache.newVersion();
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        if (reportGeneration instanceof ProductListener) {
+            ((ProductListener) reportGeneration).productAdded(product);
+        }
+        dataVersion = reportCache.newVersion();
+    }
+}
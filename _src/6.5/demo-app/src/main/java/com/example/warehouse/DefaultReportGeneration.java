@@ -1,18 +1,26 @@
 package com.example.warehouse;
 
+import com.example.warehouse.dal.NoOrderArchive;
+import com.example.warehouse.dal.OrderArchive;
 import com.example.warehouse.dal.OrderDao;
+import com.example.warehouse.dal.OrderSnapshot;
 
-import java.util.LinkedHashMap;
-
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.summingInt;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class DefaultReportGeneration implements ReportGeneration {
 
     private final OrderDao orderDao;
+    private final OrderArchive orderArchive;
 
     public DefaultReportGeneration(OrderDao orderDao) {
+        this(orderDao, new NoOrderArchive());
+    }
+
+    public DefaultReportGeneration(OrderDao orderDao, OrderArchive orderArchive) {
         this.orderDao = orderDao;
+        this.orderArchive = orderArchive;
     }
 
     @Override
@@ -21,14 +29,17 @@ public class DefaultReportGeneration implements ReportGeneration {
         Report report = new Report();
         report.addLabel("Date");
         report.addLabel("Total revenue");
-        orderDao.getOrders()
+        Deadline deadline = Deadline.current();
+        Map<LocalDate, Long> revenues = new TreeMap<>();
+        OrderSnapshot snapshot = orderArchive.getSnapshot(orderDao);
+        snapshot.getDailyTotals()
+            .forEach((date, totals) -> revenues.put(date, totals.getTotalRevenue()));
+        snapshot.getOrders()
             .stream()
             .filter(o -> !o.isPending())
-            .sorted()
-            .collect(groupingBy(Order::getDate, LinkedHashMap::new, summingInt(Order::getTotalPrice)))
-            .forEach((date, totalRevenue) -> report.addRecord(
-                new Report.Field(Report.DataType.DATE, date),
-                new Report.Field(Report.DataType.NUMBER, totalRevenue)));
+            .peek(o -> deadline.check())
+            .forEach(o -> revenues.merge(o.getDate(), (long) o.getTotalPrice(), Long::sum));
+        revenues.forEach((date, totalRevenue) -> report.addRecord(date, totalRevenue));
         return report;
     }
 
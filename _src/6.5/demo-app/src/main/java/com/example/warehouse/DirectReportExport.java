@@ -0,0 +1,14 @@
+package com.example.warehouse;
+
+import com.example.warehouse.export.ExportType;
+
+import java.io.OutputStream;
+
+// INFO: exports a report without generating it as a `Report` first, when the
+// underlying storage can produce the report's records on its own.
+public interface DirectReportExport {
+
+    boolean isSupported(Report.Type reportType, ExportType exportType);
+
+    void export(Report.Type reportType, ExportType exportType, OutputStream out) throws WarehouseException;
+}
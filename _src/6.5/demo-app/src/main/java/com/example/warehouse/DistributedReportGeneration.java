@@ -0,0 +1,142 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.OrderArchive;
+import com.example.warehouse.dal.OrderDao;
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// INFO: keeps the orders in a Hazelcast `IMap`, which spreads them across
+// the partitions of every member of the cluster. Reports are aggregated by
+// each member over its own partitions and only the per day totals are sent
+// back and merged by the caller, so adding members adds aggregation capacity.
+// Members share the map, so unlike the incremental reports these see orders
+// placed through any of them. Orders archived after the map was loaded stay
+// in the map, so archiving isn't meant to run alongside this mode.
+public class DistributedReportGeneration implements ReportGeneration, OrderListener {
+
+    // INFO: per day the total products at index 0 and total revenue at index 1.
+    // Sent to the members, so it must only hold serializable state.
+    private static final class DailyTotalsAggregator
+        extends Aggregator<Map.Entry<Integer, Order>, Map<LocalDate, long[]>> {
+
+        private final boolean includePending;
+        private final HashMap<LocalDate, long[]> totals = new HashMap<>();
+
+        DailyTotalsAggregator(boolean includePending) {
+            this.includePending = includePending;
+        }
+
+        @Override
+        public void accumulate(Map.Entry<Integer, Order> entry) {
+            Order order = entry.getValue();
+            if (!includePending && order.isPending()) {
+                return;
+            }
+            long[] total = totals.computeIfAbsent(order.getDate(), d -> new long[2]);
+            for (var quantity : order.getQuantities().entrySet()) {
+                total[0] += quantity.getValue();
+                total[1] += (long) quantity.getKey().getPrice() * quantity.getValue();
+            }
+        }
+
+        // INFO: Hazelcast declares the parameter raw, an `Aggregator<?, ?>`
+        // wouldn't override it. It's only ever called with aggregators of
+        // this type, cloned on the members.
+        @Override
+        @SuppressWarnings("rawtypes")
+        public void combine(Aggregator aggregator) {
+            DailyTotalsAggregator other = (DailyTotalsAggregator) aggregator;
+            merge(totals, other.totals);
+        }
+
+        @Override
+        public Map<LocalDate, long[]> aggregate() {
+            return totals;
+        }
+    }
+
+    private final IMap<Integer, Order> orders;
+    private final OrderArchive orderArchive;
+    private final boolean includePending;
+    private final boolean includeTotalProducts;
+
+    // INFO: every member loads the orders it knows about, loading the same
+    // orders more than once leaves the map as it was.
+    public DistributedReportGeneration(
+        HazelcastInstance hazelcastInstance,
+        String mapName,
+        OrderDao orderDao,
+        OrderArchive orderArchive,
+        boolean includePending,
+        boolean includeTotalProducts) throws WarehouseException {
+        this.orders = hazelcastInstance.getMap(mapName);
+        this.orderArchive = orderArchive;
+        this.includePending = includePending;
+        this.includeTotalProducts = includeTotalProducts;
+        Map<Integer, Order> loaded = new HashMap<>();
+        for (Order order : orderDao.getOrders()) {
+            loaded.put(order.getId(), order);
+        }
+        orders.putAll(loaded);
+    }
+
+    @Override
+    public void orderAdded(Order order) {
+        orders.set(order.getId(), order);
+    }
+
+    @Override
+    public void orderFulfilled(Order order) {
+        orders.set(order.getId(), new Order(order.getId(), order.getCustomer(), order.getDate(), order.getQuantities(), false));
+    }
+
+    @Override
+    public Report generateReport(Report.Type type) throws WarehouseException {
+        checkReportType(type);
+        Report report = new Report();
+        report.addLabel("Date");
+        if (includeTotalProducts) {
+            report.addLabel("Total products");
+        }
+        report.addLabel("Total revenue");
+        Map<LocalDate, long[]> totals = new TreeMap<>();
+        orderArchive.getDailyTotals()
+            .forEach((date, archived) -> totals.put(date, new long[]{archived.getTotalProducts(), archived.getTotalRevenue()}));
+        Deadline.current().check();
+        merge(totals, orders.aggregate(new DailyTotalsAggregator(includePending)));
+        totals.forEach((date, total) -> {
+            if (includeTotalProducts) {
+                report.addRecord(date, total[0], total[1]);
+            } else {
+                report.addRecord(date, total[1]);
+            }
+        });
+        return report;
+    }
+
+    private static void merge(Map<LocalDate, long[]> into, Map<LocalDate, long[]> from) {
+        for (var entry : from.entrySet()) {
+            long[] partial = entry.getValue();
+            long[] total = into.putIfAbsent(entry.getKey(), partial);
+            if (total != null) {
+                total[0] += partial[0];
+                total[1] += partial[1];
+            }
+        }
+    }
+
+    private void checkReportType(Report.Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Report type cannot be null.");
+        }
+        if (type != Report.Type.DAILY_REVENUE) {
+            throw new UnsupportedOperationException(String.format("Report type: %s not yet implemented.", type));
+        }
+    }
+}
@@ -37,6 +37,16 @@ public class DynamicDependencyFactory implements DependencyFactory {
         return dependencyFactory.newExporter(report, type, out);
     }
 
+    @Override
+    public boolean isSupported(ExportType type) {
+        return dependencyFactory.isSupported(type);
+    }
+
+    @Override
+    public ReportSink newSink(ExportType type, OutputStream out) {
+        return dependencyFactory.newSink(type, out);
+    }
+
     @Override
     public ChartPlotter newPlotter(Report.Type reportType, ChartType chartType) {
         return dependencyFactory.newPlotter(reportType, chartType);
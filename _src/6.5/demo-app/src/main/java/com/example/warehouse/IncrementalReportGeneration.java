@@ -0,0 +1,200 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.OrderArchive;
+import com.example.warehouse.dal.OrderDao;
+import com.example.warehouse.dal.OrderSnapshot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// INFO: keeps the daily totals up to date as orders are added and fulfilled,
+// so generating a report only reads the current totals, its cost depends on
+// the number of days and not on the number of orders. It only sees orders
+// placed via the `Warehouse` it listens to, so it must be the only writer of
+// the orders it reads initially (e.g. the backend or an in-memory warehouse).
+// Totals are kept per day, week, month and year too, so coarse reports only
+// read the buckets they show, apart from buckets cut in two by the range.
+public class IncrementalReportGeneration implements ReportGeneration, OrderListener {
+
+    private static final class Totals {
+        final LongAdder totalProducts = new LongAdder();
+        final LongAdder totalRevenue = new LongAdder();
+        final LongAdder fulfilledOrders = new LongAdder();
+        final LongAdder fulfilledProducts = new LongAdder();
+        final LongAdder fulfilledRevenue = new LongAdder();
+    }
+
+    // INFO: plain sums of `Totals`, for reading buckets cut by the range.
+    private static final class Sums {
+        boolean empty = true;
+        long totalProducts;
+        long totalRevenue;
+        long fulfilledOrders;
+        long fulfilledProducts;
+        long fulfilledRevenue;
+
+        Sums add(Totals totals) {
+            empty = false;
+            totalProducts += totals.totalProducts.sum();
+            totalRevenue += totals.totalRevenue.sum();
+            fulfilledOrders += totals.fulfilledOrders.sum();
+            fulfilledProducts += totals.fulfilledProducts.sum();
+            fulfilledRevenue += totals.fulfilledRevenue.sum();
+            return this;
+        }
+    }
+
+    private final boolean includePending;
+    private final boolean includeTotalProducts;
+
+    private final Map<Report.Granularity, ConcurrentNavigableMap<LocalDate, Totals>> rollups =
+        new EnumMap<>(Report.Granularity.class);
+
+    // INFO: `includePending` and `includeTotalProducts` both false give the same
+    // report as `DefaultReportGeneration`, both true as `AlternativeReportGeneration`.
+    public IncrementalReportGeneration(
+        OrderDao orderDao,
+        OrderArchive orderArchive,
+        boolean includePending,
+        boolean includeTotalProducts) throws WarehouseException {
+        this.includePending = includePending;
+        this.includeTotalProducts = includeTotalProducts;
+        for (Report.Granularity granularity : Report.Granularity.values()) {
+            rollups.put(granularity, new ConcurrentSkipListMap<>());
+        }
+        OrderSnapshot snapshot = orderArchive.getSnapshot(orderDao);
+        snapshot.getDailyTotals().forEach((date, archived) -> {
+            // INFO: only fulfilled orders get archived.
+            for (Totals totals : getTotals(date)) {
+                totals.totalProducts.add(archived.getTotalProducts());
+                totals.totalRevenue.add(archived.getTotalRevenue());
+                totals.fulfilledOrders.increment();
+                totals.fulfilledProducts.add(archived.getTotalProducts());
+                totals.fulfilledRevenue.add(archived.getTotalRevenue());
+            }
+        });
+        for (Order order : snapshot.getOrders()) {
+            orderAdded(order);
+        }
+    }
+
+    @Override
+    public void orderAdded(Order order) {
+        long totalProducts = getTotalProducts(order);
+        for (Totals totals : getTotals(order.getDate())) {
+            totals.totalProducts.add(totalProducts);
+            totals.totalRevenue.add(order.getTotalPrice());
+        }
+        if (!order.isPending()) {
+            orderFulfilled(order);
+        }
+    }
+
+    @Override
+    public void orderFulfilled(Order order) {
+        long totalProducts = getTotalProducts(order);
+        for (Totals totals : getTotals(order.getDate())) {
+            totals.fulfilledOrders.increment();
+            totals.fulfilledProducts.add(totalProducts);
+            totals.fulfilledRevenue.add(order.getTotalPrice());
+        }
+    }
+
+    @Override
+    public Report generateReport(Report.Type type) {
+        return generateReport(type, ReportParameters.all());
+    }
+
+    @Override
+    public Report generateReport(Report.Type type, ReportParameters parameters) {
+        checkReportType(type);
+        Report report = new Report();
+        report.addLabel("Date");
+        if (includeTotalProducts) {
+            report.addLabel("Total products");
+        }
+        report.addLabel("Total revenue");
+        Report.Granularity granularity = parameters.getGranularity();
+        LocalDate from = parameters.getFrom();
+        LocalDate to = parameters.getTo();
+        ConcurrentNavigableMap<LocalDate, Totals> buckets = rollups.get(granularity);
+        if (from != null) {
+            buckets = buckets.tailMap(granularity.getBucket(from), true);
+        }
+        if (to != null) {
+            buckets = buckets.headMap(to, true);
+        }
+        for (Map.Entry<LocalDate, Totals> entry : buckets.entrySet()) {
+            LocalDate bucket = entry.getKey();
+            LocalDate last = granularity.getNextBucket(bucket).minusDays(1);
+            Sums sums;
+            if ((from == null || !bucket.isBefore(from)) && (to == null || !last.isAfter(to))) {
+                sums = new Sums().add(entry.getValue());
+            } else {
+                sums = sumDays(
+                    from != null && from.isAfter(bucket) ? from : bucket,
+                    to != null && to.isBefore(last) ? to : last);
+            }
+            if (sums.empty) {
+                continue;
+            }
+            if (includePending) {
+                addRecord(report, bucket, sums.totalProducts, sums.totalRevenue);
+            } else if (sums.fulfilledOrders != 0) {
+                addRecord(report, bucket, sums.fulfilledProducts, sums.fulfilledRevenue);
+            }
+        }
+        return report;
+    }
+
+    @Override
+    public void generateReport(Report.Type type, ReportParameters parameters, ReportSink sink) {
+        generateReport(type, parameters).writeTo(sink);
+    }
+
+    private Sums sumDays(LocalDate from, LocalDate to) {
+        Sums sums = new Sums();
+        for (Totals totals : rollups.get(Report.Granularity.DAY).subMap(from, true, to, true).values()) {
+            sums.add(totals);
+        }
+        return sums;
+    }
+
+    private void addRecord(Report report, LocalDate date, long totalProducts, long totalRevenue) {
+        if (includeTotalProducts) {
+            report.addRecord(date, totalProducts, totalRevenue);
+        } else {
+            report.addRecord(date, totalRevenue);
+        }
+    }
+
+    private static long getTotalProducts(Order order) {
+        long totalProducts = 0;
+        for (int quantity : order.getQuantities().values()) {
+            totalProducts += quantity;
+        }
+        return totalProducts;
+    }
+
+    private List<Totals> getTotals(LocalDate date) {
+        List<Totals> totals = new ArrayList<>(rollups.size());
+        rollups.forEach((granularity, buckets) -> totals.add(
+            buckets.computeIfAbsent(granularity.getBucket(date), d -> new Totals())));
+        return totals;
+    }
+
+    private void checkReportType(Report.Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Report type cannot be null.");
+        }
+        if (type != Report.Type.DAILY_REVENUE) {
+            throw new UnsupportedOperationException(String.format("Report type: %s not yet implemented.", type));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.warehouse;
+
+import com.example.warehouse.export.ExportType;
+
+import java.io.OutputStream;
+
+public final class NoDirectReportExport implements DirectReportExport {
+
+    @Override
+    public boolean isSupported(Report.Type reportType, ExportType exportType) {
+        return false;
+    }
+
+    @Override
+    public void export(Report.Type reportType, ExportType exportType, OutputStream out) {
+        throw new UnsupportedOperationException("Direct report export not available.");
+    }
+}
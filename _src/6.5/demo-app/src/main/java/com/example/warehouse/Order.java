@@ -1,10 +1,11 @@
 package com.example.warehouse;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-public final class Order implements Comparable<Order> {
+public final class Order implements Comparable<Order>, Serializable {
 
     private int id;
     private final Customer customer;
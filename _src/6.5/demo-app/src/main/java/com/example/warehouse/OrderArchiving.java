@@ -0,0 +1,47 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.OrderArchive;
+
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// INFO: archives orders placed more than `horizonDays` before today.
+public final class OrderArchiving implements Runnable {
+
+    private final OrderArchive orderArchive;
+    private final int horizonDays;
+
+    public OrderArchiving(OrderArchive orderArchive, int horizonDays) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("The archiving horizon must be at least a day.");
+        }
+        this.orderArchive = orderArchive;
+        this.horizonDays = horizonDays;
+    }
+
+    public ScheduledExecutorService schedule(long periodHours) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "order-archiving");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this, 0, periodHours, TimeUnit.HOURS);
+        return executor;
+    }
+
+    @Override
+    public void run() {
+        try {
+            archive();
+        } catch (WarehouseException ex) {
+            System.err.println(ex.getMessage());
+        }
+    }
+
+    // INFO: returns how many orders were archived.
+    public int archive() throws WarehouseException {
+        return orderArchive.archiveOrders(LocalDate.now().minusDays(horizonDays));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.warehouse;
+
+public interface OrderListener {
+
+    void orderAdded(Order order);
+
+    void orderFulfilled(Order order);
+}
@@ -0,0 +1,148 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.OrderArchive;
+import com.example.warehouse.dal.OrderDao;
+import com.example.warehouse.dal.OrderSnapshot;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// INFO: splits the orders into chunks, sums every chunk into its own
+// per-day partial totals on a fork/join pool, then merges the partials.
+// A chunk only touches its own maps, so there's no locking involved.
+public class ParallelReportGeneration implements ReportGeneration {
+
+    private static final int DEFAULT_CHUNK_SIZE = 2048;
+
+    // INFO: per day the total products at index 0 and total revenue at index 1.
+    // Chunks run on the pool's threads, so the caller's deadline is passed along.
+    private final class Aggregation extends RecursiveTask<Map<LocalDate, long[]>> {
+
+        private final Order[] orders;
+        private final int from;
+        private final int to;
+        private final Deadline deadline;
+
+        Aggregation(Order[] orders, int from, int to, Deadline deadline) {
+            this.orders = orders;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Map<LocalDate, long[]> compute() {
+            deadline.check();
+            if (to - from <= chunkSize) {
+                return aggregate(orders, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            Aggregation left = new Aggregation(orders, from, middle, deadline);
+            left.fork();
+            Map<LocalDate, long[]> right = new Aggregation(orders, middle, to, deadline).compute();
+            return merge(left.join(), right);
+        }
+    }
+
+    private final OrderDao orderDao;
+    private final OrderArchive orderArchive;
+    private final boolean includePending;
+    private final boolean includeTotalProducts;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    // INFO: `includePending` and `includeTotalProducts` both false give the same
+    // report as `DefaultReportGeneration`, both true as `AlternativeReportGeneration`.
+    public ParallelReportGeneration(
+        OrderDao orderDao,
+        OrderArchive orderArchive,
+        boolean includePending,
+        boolean includeTotalProducts) {
+        this(orderDao, orderArchive, includePending, includeTotalProducts, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelReportGeneration(
+        OrderDao orderDao,
+        OrderArchive orderArchive,
+        boolean includePending,
+        boolean includeTotalProducts,
+        ForkJoinPool pool,
+        int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be greater than 0.");
+        }
+        this.orderDao = orderDao;
+        this.orderArchive = orderArchive;
+        this.includePending = includePending;
+        this.includeTotalProducts = includeTotalProducts;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Report generateReport(Report.Type type) throws WarehouseException {
+        checkReportType(type);
+        Report report = new Report();
+        report.addLabel("Date");
+        if (includeTotalProducts) {
+            report.addLabel("Total products");
+        }
+        report.addLabel("Total revenue");
+        Map<LocalDate, long[]> totals = new TreeMap<>();
+        OrderSnapshot snapshot = orderArchive.getSnapshot(orderDao);
+        snapshot.getDailyTotals()
+            .forEach((date, archived) -> totals.put(date, new long[]{archived.getTotalProducts(), archived.getTotalRevenue()}));
+        Order[] orders = snapshot.getOrders().toArray(new Order[0]);
+        merge(totals, pool.invoke(new Aggregation(orders, 0, orders.length, Deadline.current())));
+        totals.forEach((date, total) -> {
+            if (includeTotalProducts) {
+                report.addRecord(date, total[0], total[1]);
+            } else {
+                report.addRecord(date, total[1]);
+            }
+        });
+        return report;
+    }
+
+    private Map<LocalDate, long[]> aggregate(Order[] orders, int from, int to) {
+        Map<LocalDate, long[]> totals = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            Order order = orders[i];
+            if (!includePending && order.isPending()) {
+                continue;
+            }
+            long[] total = totals.computeIfAbsent(order.getDate(), d -> new long[2]);
+            for (var entry : order.getQuantities().entrySet()) {
+                int quantity = entry.getValue();
+                total[0] += quantity;
+                total[1] += (long) entry.getKey().getPrice() * quantity;
+            }
+        }
+        return totals;
+    }
+
+    private static Map<LocalDate, long[]> merge(Map<LocalDate, long[]> into, Map<LocalDate, long[]> from) {
+        for (var entry : from.entrySet()) {
+            long[] partial = entry.getValue();
+            long[] total = into.putIfAbsent(entry.getKey(), partial);
+            if (total != null) {
+                total[0] += partial[0];
+                total[1] += partial[1];
+            }
+        }
+        return into;
+    }
+
+    private void checkReportType(Report.Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Report type cannot be null.");
+        }
+        if (type != Report.Type.DAILY_REVENUE) {
+            throw new UnsupportedOperationException(String.format("Report type: %s not yet implemented.", type));
+        }
+    }
+}
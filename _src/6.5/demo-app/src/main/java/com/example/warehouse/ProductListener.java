@@ -0,0 +1,6 @@
+package com.example.warehouse;
+
+public interface ProductListener {
+
+    void productAdded(Product product);
+}
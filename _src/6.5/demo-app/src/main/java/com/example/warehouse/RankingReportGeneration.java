@@ -0,0 +1,114 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.OrderDao;
+
+// INFO: handles the top products and customers reports in a single pass
+// over the orders and leaves every other report to the wrapped report
+// generation. Memory use depends on the distinct products or customers
+// ordered and the size of the top list, not on the number of orders.
+// Archived orders only have daily totals left, so they aren't ranked.
+public class RankingReportGeneration implements ReportGeneration, OrderListener, ProductListener {
+
+    private final ReportGeneration reportGeneration;
+    private final OrderDao orderDao;
+    private final boolean includePending;
+
+    public RankingReportGeneration(ReportGeneration reportGeneration, OrderDao orderDao, boolean includePending) {
+        this.reportGeneration = reportGeneration;
+        this.orderDao = orderDao;
+        this.includePending = includePending;
+    }
+
+    @Override
+    public Report generateReport(Report.Type type) throws WarehouseException {
+        return generateReport(type, ReportParameters.all());
+    }
+
+    @Override
+    public void generateReport(Report.Type type, ReportSink sink) throws WarehouseException {
+        generateReport(type, ReportParameters.all(), sink);
+    }
+
+    @Override
+    public Report generateReport(Report.Type type, ReportParameters parameters) throws WarehouseException {
+        if (type == Report.Type.TOP_PRODUCTS || type == Report.Type.TOP_CUSTOMERS) {
+            return generateTopReport(type, parameters);
+        } else if (parameters.isAll()) {
+            return reportGeneration.generateReport(type);
+        }
+        return reportGeneration.generateReport(type, parameters);
+    }
+
+    @Override
+    public void generateReport(Report.Type type, ReportParameters parameters, ReportSink sink) throws WarehouseException {
+        if (type == Report.Type.TOP_PRODUCTS || type == Report.Type.TOP_CUSTOMERS) {
+            generateTopReport(type, parameters).writeTo(sink);
+        } else if (parameters.isAll()) {
+            reportGeneration.generateReport(type, sink);
+        } else {
+            reportGeneration.generateReport(type, parameters, sink);
+        }
+    }
+
+    @Override
+    public void orderAdded(Order order) {
+        if (reportGeneration instanceof OrderListener) {
+            ((OrderListener) reportGeneration).orderAdded(order);
+        }
+    }
+
+    @Override
+    public void orderFulfilled(Order order) {
+        if (reportGeneration instanceof OrderListener) {
+            ((OrderListener) reportGeneration).orderFulfilled(order);
+        }
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        if (reportGeneration instanceof ProductListener) {
+            ((ProductListener) reportGeneration).productAdded(product);
+        }
+    }
+
+    private Report generateTopReport(Report.Type type, ReportParameters parameters) throws WarehouseException {
+        boolean byProduct = type == Report.Type.TOP_PRODUCTS;
+        TopKAggregation aggregation = new TopKAggregation();
+        Deadline deadline = Deadline.current();
+        for (Order order : orderDao.getOrders()) {
+            deadline.check();
+            if ((!includePending && order.isPending()) || !parameters.contains(order.getDate())) {
+                continue;
+            }
+            if (byProduct) {
+                for (var entry : order.getQuantities().entrySet()) {
+                    Product product = entry.getKey();
+                    int quantity = entry.getValue();
+                    aggregation.add(product.getId(), product.getName(), quantity, (long) product.getPrice() * quantity);
+                }
+            } else {
+                long quantity = 0;
+                long revenue = 0;
+                for (var entry : order.getQuantities().entrySet()) {
+                    quantity += entry.getValue();
+                    revenue += (long) entry.getKey().getPrice() * entry.getValue();
+                }
+                Customer customer = order.getCustomer();
+                aggregation.add(customer.getId(), customer.getName(), quantity, revenue);
+            }
+        }
+        Report report = new Report();
+        report.addLabel(byProduct ? "Product ID" : "Customer ID");
+        report.addLabel(byProduct ? "Product" : "Customer");
+        report.addLabel("Total products");
+        report.addLabel("Total revenue");
+        for (int index : aggregation.top(parameters.getLimit(), parameters.getRanking())) {
+            report.addRecord(
+                new Report.Field(Report.DataType.NUMBER, aggregation.getKey(index)),
+                new Report.Field(Report.DataType.STRING, aggregation.getName(index)),
+                new Report.Field(Report.DataType.NUMBER, aggregation.getQuantity(index)),
+                new Report.Field(Report.DataType.NUMBER, aggregation.getRevenue(index)));
+        }
+        return report;
+    }
+}
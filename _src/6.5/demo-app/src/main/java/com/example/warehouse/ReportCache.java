@@ -0,0 +1,134 @@
+package com.example.warehouse;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.example.warehouse.dal.DaoExecutors.join;
+
+// INFO: reports are cached per report type, client ID and data version. A
+// new version makes the older entries for the same type and client useless,
+// so they're dropped as soon as the first report for a new version is asked
+// for. Concurrent requests for the same missing report wait for the one that
+// is already being generated instead of generating it again.
+public final class ReportCache {
+
+    @FunctionalInterface
+    public interface Computation {
+
+        Report compute() throws WarehouseException;
+    }
+
+    private static final class Key {
+        final Report.Type type;
+        final int clientId;
+        final long version;
+
+        Key(Report.Type type, int clientId, long version) {
+            this.type = type;
+            this.clientId = clientId;
+            this.version = version;
+        }
+
+        boolean isOlderThan(Key other) {
+            return type == other.type && clientId == other.clientId && version < other.version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return clientId == key.clientId && version == key.version && type == key.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, clientId, version);
+        }
+    }
+
+    private final ConcurrentMap<Key, CompletableFuture<Report>> entries = new ConcurrentHashMap<>();
+
+    // INFO: versions are handed out from a single sequence, so two sources of
+    // data for the same client never end up with the same version.
+    private final AtomicLong versions = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder computeNanos = new LongAdder();
+
+    public long newVersion() {
+        return versions.incrementAndGet();
+    }
+
+    public Report get(Report.Type type, int clientId, long version, Computation computation) throws WarehouseException {
+        Key key = new Key(type, clientId, version);
+        CompletableFuture<Report> created = new CompletableFuture<>();
+        CompletableFuture<Report> existing = entries.putIfAbsent(key, created);
+        if (existing != null) {
+            hits.increment();
+            if (!existing.isDone()) {
+                coalesced.increment();
+            }
+            return join(existing, Deadline.current());
+        }
+        misses.increment();
+        entries.keySet().removeIf(k -> k.isOlderThan(key));
+        long start = System.nanoTime();
+        try {
+            Report report = computation.compute();
+            created.complete(report);
+            return report;
+        } catch (Throwable t) {
+            // INFO: failures aren't cached, the next request tries again.
+            entries.remove(key, created);
+            created.completeExceptionally(t);
+            throw t;
+        } finally {
+            computeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0d : (double) hitCount / total;
+    }
+
+    public long getComputeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(computeNanos.sum());
+    }
+
+    public double getAverageComputeMillis() {
+        long count = misses.sum();
+        return count == 0 ? 0d : (double) computeNanos.sum() / count / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%s, coalesced=%s, misses=%s, hit ratio=%.3f, compute time=%sms, average compute time=%.3fms",
+            getHits(), getCoalesced(), getMisses(), getHitRatio(), getComputeMillis(), getAverageComputeMillis());
+    }
+}
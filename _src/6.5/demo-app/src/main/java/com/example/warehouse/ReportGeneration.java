@@ -3,4 +3,23 @@ package com.example.warehouse;
 public interface ReportGeneration {
 
     Report generateReport(Report.Type type) throws WarehouseException;
+
+    // INFO: implementations able to produce records one at a time should
+    // override this, by default the whole report is generated up front.
+    default void generateReport(Report.Type type, ReportSink sink) throws WarehouseException {
+        generateReport(type).writeTo(sink);
+    }
+
+    default Report generateReport(Report.Type type, ReportParameters parameters) throws WarehouseException {
+        ReportCollector collector = new ReportCollector();
+        generateReport(type, parameters, collector);
+        return collector.getReport();
+    }
+
+    // INFO: by default the daily report is generated and the parameters are
+    // applied afterwards, implementations keeping coarser totals or able to
+    // skip records out of range should override this.
+    default void generateReport(Report.Type type, ReportParameters parameters, ReportSink sink) throws WarehouseException {
+        generateReport(type, new BucketingReportSink(parameters, sink));
+    }
 }
@@ -0,0 +1,247 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.OrderDao;
+import com.example.warehouse.sketch.CountMinSketch;
+import com.example.warehouse.sketch.HyperLogLog;
+import com.example.warehouse.sketch.QuantileSketch;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// INFO: answers the approximate reports from sketches updated as orders come
+// in, so their cost doesn't depend on the number of orders:
+// - distinct customers per day from a HyperLogLog per day, merged for
+//   coarser buckets,
+// - product popularity from a Count-Min sketch of ordered quantities, with
+//   a bounded list of the most popular products seen as candidates,
+// - order value distribution from a quantile sketch.
+// Every other report is left to the wrapped report generation. Like the
+// incremental reports it only sees orders placed via the same `Warehouse`,
+// and archived orders only have daily totals left, so they're not included.
+public class SketchReportGeneration implements ReportGeneration, OrderListener, ProductListener {
+
+    private static final double[] PERCENTILES = {0, 10, 25, 50, 75, 90, 95, 99, 100};
+
+    private final ReportGeneration reportGeneration;
+    private final boolean includePending;
+    private final double distinctError;
+    private final int popularCandidates;
+
+    private final ConcurrentNavigableMap<LocalDate, HyperLogLog> dailyCustomers = new ConcurrentSkipListMap<>();
+    private final CountMinSketch productQuantities;
+    private final QuantileSketch orderValues;
+
+    // INFO: product ID to name of the most popular products, guarded by itself.
+    private final Map<Integer, String> candidates = new HashMap<>();
+
+    public SketchReportGeneration(
+        ReportGeneration reportGeneration,
+        OrderDao orderDao,
+        boolean includePending,
+        double distinctError,
+        double popularityError,
+        double popularityConfidence,
+        double quantileAccuracy,
+        int popularCandidates) throws WarehouseException {
+        if (popularCandidates < 1) {
+            throw new IllegalArgumentException("The number of popular product candidates must be greater than 0.");
+        }
+        this.reportGeneration = reportGeneration;
+        this.includePending = includePending;
+        this.distinctError = distinctError;
+        this.popularCandidates = popularCandidates;
+        this.productQuantities = new CountMinSketch(popularityError, 1 - popularityConfidence);
+        this.orderValues = new QuantileSketch(quantileAccuracy);
+        // INFO: fails early on invalid error bounds, not on the first order.
+        HyperLogLog.withRelativeError(distinctError);
+        for (Order order : orderDao.getOrders()) {
+            if (includePending || !order.isPending()) {
+                addToSketches(order);
+            }
+        }
+    }
+
+    @Override
+    public Report generateReport(Report.Type type) throws WarehouseException {
+        return generateReport(type, ReportParameters.all());
+    }
+
+    @Override
+    public void generateReport(Report.Type type, ReportSink sink) throws WarehouseException {
+        generateReport(type, ReportParameters.all(), sink);
+    }
+
+    @Override
+    public Report generateReport(Report.Type type, ReportParameters parameters) throws WarehouseException {
+        switch (type) {
+            case APPROXIMATE_DAILY_CUSTOMERS:
+                return generateDailyCustomersReport(parameters);
+            case APPROXIMATE_POPULAR_PRODUCTS:
+                checkWholeHistory(type, parameters);
+                return generatePopularProductsReport(parameters.getLimit());
+            case APPROXIMATE_ORDER_VALUES:
+                checkWholeHistory(type, parameters);
+                return generateOrderValuesReport();
+            default:
+                // INFO: always with the parameters, `isAll` ignores the ranking and limit of top reports.
+                return reportGeneration.generateReport(type, parameters);
+        }
+    }
+
+    @Override
+    public void generateReport(Report.Type type, ReportParameters parameters, ReportSink sink) throws WarehouseException {
+        switch (type) {
+            case APPROXIMATE_DAILY_CUSTOMERS:
+            case APPROXIMATE_POPULAR_PRODUCTS:
+            case APPROXIMATE_ORDER_VALUES:
+                generateReport(type, parameters).writeTo(sink);
+                break;
+            default:
+                reportGeneration.generateReport(type, parameters, sink);
+        }
+    }
+
+    @Override
+    public void orderAdded(Order order) {
+        if (reportGeneration instanceof OrderListener) {
+            ((OrderListener) reportGeneration).orderAdded(order);
+        }
+        if (includePending || !order.isPending()) {
+            addToSketches(order);
+        }
+    }
+
+    @Override
+    public void orderFulfilled(Order order) {
+        if (reportGeneration instanceof OrderListener) {
+            ((OrderListener) reportGeneration).orderFulfilled(order);
+        }
+        if (!includePending) {
+            addToSketches(order);
+        }
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        if (reportGeneration instanceof ProductListener) {
+            ((ProductListener) reportGeneration).productAdded(product);
+        }
+    }
+
+    private void addToSketches(Order order) {
+        dailyCustomers
+            .computeIfAbsent(order.getDate(), d -> HyperLogLog.withRelativeError(distinctError))
+            .add(order.getCustomer().getId());
+        for (var entry : order.getQuantities().entrySet()) {
+            Product product = entry.getKey();
+            productQuantities.add(product.getId(), entry.getValue());
+            updateCandidates(product);
+        }
+        orderValues.add(order.getTotalPrice());
+    }
+
+    // INFO: a product becomes a candidate when there's room or when its
+    // estimate beats the least popular candidate, which is then dropped.
+    private void updateCandidates(Product product) {
+        synchronized (candidates) {
+            if (candidates.containsKey(product.getId())) {
+                return;
+            }
+            if (candidates.size() < popularCandidates) {
+                candidates.put(product.getId(), product.getName());
+                return;
+            }
+            int leastPopular = -1;
+            long leastEstimate = Long.MAX_VALUE;
+            for (int productId : candidates.keySet()) {
+                long estimate = productQuantities.estimate(productId);
+                if (estimate < leastEstimate) {
+                    leastPopular = productId;
+                    leastEstimate = estimate;
+                }
+            }
+            if (productQuantities.estimate(product.getId()) > leastEstimate) {
+                candidates.remove(leastPopular);
+                candidates.put(product.getId(), product.getName());
+            }
+        }
+    }
+
+    private Report generateDailyCustomersReport(ReportParameters parameters) {
+        Report report = new Report();
+        report.addLabel("Date");
+        report.addLabel("Distinct customers");
+        Report.Granularity granularity = parameters.getGranularity();
+        LocalDate bucket = null;
+        HyperLogLog merged = null;
+        for (Map.Entry<LocalDate, HyperLogLog> entry : dailyCustomers.entrySet()) {
+            if (!parameters.contains(entry.getKey())) {
+                continue;
+            }
+            LocalDate entryBucket = granularity.getBucket(entry.getKey());
+            if (!entryBucket.equals(bucket)) {
+                if (merged != null) {
+                    report.addRecord(bucket, merged.estimate());
+                }
+                bucket = entryBucket;
+                merged = entry.getValue().copy();
+            } else {
+                merged.merge(entry.getValue());
+            }
+        }
+        if (merged != null) {
+            report.addRecord(bucket, merged.estimate());
+        }
+        return report;
+    }
+
+    private Report generatePopularProductsReport(int limit) {
+        List<Map.Entry<Integer, String>> popular;
+        synchronized (candidates) {
+            popular = new ArrayList<>(candidates.entrySet());
+        }
+        Map<Integer, Long> estimates = new HashMap<>();
+        popular.forEach(e -> estimates.put(e.getKey(), productQuantities.estimate(e.getKey())));
+        popular.sort((a, b) -> {
+            int byEstimate = Long.compare(estimates.get(b.getKey()), estimates.get(a.getKey()));
+            return byEstimate != 0 ? byEstimate : Integer.compare(a.getKey(), b.getKey());
+        });
+        Report report = new Report();
+        report.addLabel("Product ID");
+        report.addLabel("Product");
+        report.addLabel("Estimated products");
+        for (Map.Entry<Integer, String> entry : popular.subList(0, Math.min(limit, popular.size()))) {
+            report.addRecord(
+                new Report.Field(Report.DataType.NUMBER, entry.getKey()),
+                new Report.Field(Report.DataType.STRING, entry.getValue()),
+                new Report.Field(Report.DataType.NUMBER, estimates.get(entry.getKey())));
+        }
+        return report;
+    }
+
+    private Report generateOrderValuesReport() {
+        Report report = new Report();
+        report.addLabel("Percentile");
+        report.addLabel("Order value");
+        if (orderValues.getCount() != 0) {
+            for (double percentile : PERCENTILES) {
+                report.addRecord(
+                    new Report.Field(Report.DataType.NUMBER, (long) percentile),
+                    new Report.Field(Report.DataType.NUMBER, orderValues.quantile(percentile / 100)));
+            }
+        }
+        return report;
+    }
+
+    private static void checkWholeHistory(Report.Type type, ReportParameters parameters) {
+        if (parameters.getFrom() != null || parameters.getTo() != null) {
+            throw new IllegalArgumentException(String.format(
+                "Report type: %s only covers all orders, it cannot be limited to dates.", type));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.warehouse;
+
+import java.util.Arrays;
+
+// INFO: sums quantities and revenue per integer key in parallel primitive
+// arrays, the keys are looked up in an open addressing hash table holding
+// indices into those arrays, so there's no boxing per order line. The top
+// entries are picked with a min-heap of at most `k` indices, the smallest
+// of the best entries so far is on top and gets replaced by better ones.
+final class TopKAggregation {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int EMPTY = -1;
+
+    private int[] table = newTable(INITIAL_CAPACITY * 2);
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private long[] quantities = new long[INITIAL_CAPACITY];
+    private long[] revenues = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(int key, String name, long quantity, long revenue) {
+        int index = indexOf(key, name);
+        quantities[index] += quantity;
+        revenues[index] += revenue;
+    }
+
+    int getKey(int index) {
+        return keys[index];
+    }
+
+    String getName(int index) {
+        return names[index];
+    }
+
+    long getQuantity(int index) {
+        return quantities[index];
+    }
+
+    long getRevenue(int index) {
+        return revenues[index];
+    }
+
+    // INFO: indices of the best `k` entries, best first.
+    int[] top(int k, Report.Ranking ranking) {
+        long[] metric = ranking == Report.Ranking.REVENUE ? revenues : quantities;
+        int[] heap = new int[Math.min(k, size)];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, metric);
+            } else if (isBetter(i, heap[0], metric)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, metric);
+            }
+        }
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, metric);
+        }
+        return result;
+    }
+
+    // INFO: ties go to the smaller key, so rankings are stable between runs.
+    private boolean isBetter(int a, int b, long[] metric) {
+        if (metric[a] != metric[b]) {
+            return metric[a] > metric[b];
+        }
+        return keys[a] < keys[b];
+    }
+
+    private void siftUp(int[] heap, int position, long[] metric) {
+        int index = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!isBetter(heap[parent], index, metric)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = index;
+    }
+
+    private void siftDown(int[] heap, int heapSize, long[] metric) {
+        if (heapSize == 0) {
+            return;
+        }
+        int position = 0;
+        int index = heap[0];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && isBetter(heap[child], heap[child + 1], metric)) {
+                child++;
+            }
+            if (!isBetter(index, heap[child], metric)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = index;
+    }
+
+    private int indexOf(int key, String name) {
+        int mask = table.length - 1;
+        int slot = mix(key) & mask;
+        while (table[slot] != EMPTY) {
+            if (keys[table[slot]] == key) {
+                return table[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == keys.length) {
+            grow();
+            return indexOf(key, name);
+        }
+        int index = size++;
+        keys[index] = key;
+        names[index] = name;
+        table[slot] = index;
+        return index;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        names = Arrays.copyOf(names, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        revenues = Arrays.copyOf(revenues, capacity);
+        table = newTable(capacity * 2);
+        int mask = table.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = mix(keys[i]) & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i;
+        }
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
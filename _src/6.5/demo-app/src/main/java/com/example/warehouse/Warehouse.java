@@ -1,15 +1,31 @@
 package com.example.warehouse;
 
+import com.example.warehouse.dal.AsyncCustomerDao;
+import com.example.warehouse.dal.AsyncOrderDao;
+import com.example.warehouse.dal.AsyncProductDao;
 import com.example.warehouse.dal.CustomerDao;
+import com.example.warehouse.dal.DaoExecutors;
+import com.example.warehouse.dal.DataVersionDao;
+import com.example.warehouse.dal.ExecutorAsyncCustomerDao;
+import com.example.warehouse.dal.ExecutorAsyncOrderDao;
+import com.example.warehouse.dal.ExecutorAsyncProductDao;
 import com.example.warehouse.dal.InventoryDao;
+import com.example.warehouse.dal.NoDataVersionDao;
 import com.example.warehouse.dal.OrderDao;
 import com.example.warehouse.dal.ProductDao;
+import com.example.warehouse.export.ExportType;
 
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.example.warehouse.dal.DaoExecutors.join;
 import static java.util.stream.Collectors.toUnmodifiableList;
 
 public final class Warehouse {
@@ -18,8 +34,21 @@ public final class Warehouse {
     private final CustomerDao customerDao;
     private final InventoryDao inventoryDao;
     private final OrderDao orderDao;
+    private final DataVersionDao dataVersionDao;
+
+    private final AsyncProductDao asyncProductDao;
+    private final AsyncCustomerDao asyncCustomerDao;
+    private final AsyncOrderDao asyncOrderDao;
 
     private final ReportGeneration reportGeneration;
+    private final DirectReportExport directReportExport;
+
+    private final List<OrderListener> orderListeners = new CopyOnWriteArrayList<>();
+    private final List<ProductListener> productListeners = new CopyOnWriteArrayList<>();
+
+    // INFO: bumped by every change made through this warehouse, including
+    // changes to data the `DataVersionDao` doesn't cover, e.g. customers.
+    private final AtomicLong dataVersion = new AtomicLong();
 
     public Warehouse(
         ProductDao productDao,
@@ -27,11 +56,56 @@ public final class Warehouse {
         InventoryDao inventoryDao,
         OrderDao orderDao,
         ReportGeneration reportGeneration) {
+        this(productDao,
+            customerDao,
+            inventoryDao,
+            orderDao,
+            new NoDataVersionDao(),
+            new ExecutorAsyncProductDao(productDao, DaoExecutors.DIRECT),
+            new ExecutorAsyncCustomerDao(customerDao, DaoExecutors.DIRECT),
+            new ExecutorAsyncOrderDao(orderDao, DaoExecutors.DIRECT),
+            reportGeneration,
+            new NoDirectReportExport());
+    }
+
+    public Warehouse(
+        ProductDao productDao,
+        CustomerDao customerDao,
+        InventoryDao inventoryDao,
+        OrderDao orderDao,
+        DataVersionDao dataVersionDao,
+        AsyncProductDao asyncProductDao,
+        AsyncCustomerDao asyncCustomerDao,
+        AsyncOrderDao asyncOrderDao,
+        ReportGeneration reportGeneration,
+        DirectReportExport directReportExport) {
         this.productDao = productDao;
         this.customerDao = customerDao;
         this.inventoryDao = inventoryDao;
         this.orderDao = orderDao;
+        this.dataVersionDao = dataVersionDao;
+        this.asyncProductDao = asyncProductDao;
+        this.asyncCustomerDao = asyncCustomerDao;
+        this.asyncOrderDao = asyncOrderDao;
         this.reportGeneration = reportGeneration;
+        this.directReportExport = directReportExport;
+    }
+
+    public void addOrderListener(OrderListener listener) {
+        orderListeners.add(listener);
+    }
+
+    public void addProductListener(ProductListener listener) {
+        productListeners.add(listener);
+    }
+
+    // INFO: anything derived from the data made at an older version is stale.
+    // The stored version covers changes to orders made by every process
+    // sharing the database, this warehouse's own covers the rest of its
+    // changes. Both only ever grow, so their sum changes with every change
+    // and never comes back to an earlier value.
+    public long getDataVersion() throws WarehouseException {
+        return dataVersionDao.getDataVersion() + dataVersion.get();
     }
 
     public Collection<Product> getProducts() throws WarehouseException {
@@ -41,6 +115,14 @@ public final class Warehouse {
             .collect(toUnmodifiableList());
     }
 
+    public CompletableFuture<Collection<Product>> getProductsAsync() {
+        return asyncProductDao.getProducts()
+            .thenApply(products -> products
+                .stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .collect(toUnmodifiableList()));
+    }
+
     public Product getProduct(int id) throws WarehouseException {
         return productDao.getProduct(id);
     }
@@ -52,6 +134,14 @@ public final class Warehouse {
             .collect(toUnmodifiableList());
     }
 
+    public CompletableFuture<Collection<Customer>> getCustomersAsync() {
+        return asyncCustomerDao.getCustomers()
+            .thenApply(customers -> customers
+                .stream()
+                .sorted(Comparator.comparing(Customer::getId))
+                .collect(toUnmodifiableList()));
+    }
+
     public Customer getCustomer(int id) throws WarehouseException {
         return customerDao.getCustomer(id);
     }
@@ -63,6 +153,14 @@ public final class Warehouse {
             .collect(toUnmodifiableList());
     }
 
+    public CompletableFuture<Collection<Order>> getOrdersAsync() {
+        return asyncOrderDao.getOrders()
+            .thenApply(orders -> orders
+                .stream()
+                .sorted(Comparator.comparing(Order::getId))
+                .collect(toUnmodifiableList()));
+    }
+
     public Order getOrder(int id) throws WarehouseException {
         return orderDao.getOrder(id);
     }
@@ -73,23 +171,35 @@ public final class Warehouse {
         }
         Product product = new Product(name, price);
         productDao.addProduct(product);
+        dataVersion.incrementAndGet();
+        for (ProductListener listener : productListeners) {
+            listener.productAdded(product);
+        }
     }
 
     public void deleteCustomer(int customerId) throws WarehouseException {
         customerDao.deleteCustomer(customerId);
+        dataVersion.incrementAndGet();
     }
 
     public void addOrder(int customerId, Map<Integer, Integer> quantities) throws WarehouseException {
         if (quantities.isEmpty()) {
             throw new IllegalArgumentException("There has to items in the order, it cannot be empty.");
         }
-        Customer customer = customerDao.getCustomer(customerId);
+        // INFO: the customer and product lookups are independent of each other,
+        // so they're all started up front and only waited for afterwards.
+        CompletableFuture<Customer> customerFuture = asyncCustomerDao.getCustomer(customerId);
+        Map<Integer, CompletableFuture<Product>> productFutures = new HashMap<>();
+        for (int productId : quantities.keySet()) {
+            productFutures.put(productId, asyncProductDao.getProduct(productId));
+        }
+        Customer customer = join(customerFuture);
         if (customer == null) {
             throw new IllegalArgumentException("Unknown customer ID: " + customerId);
         }
         Map<Product, Integer> mappedQuantities = new HashMap<>();
         for (var entry : quantities.entrySet()) {
-            Product product = productDao.getProduct(entry.getKey());
+            Product product = join(productFutures.get(entry.getKey()));
             if (product == null) {
                 throw new IllegalArgumentException("Unknown product ID: " + entry.getKey());
             }
@@ -103,9 +213,48 @@ public final class Warehouse {
         Order order = new Order(customer, mappedQuantities);
         // TODO: updating stock and adding order should be atomic.
         orderDao.addOrder(order);
+        dataVersion.incrementAndGet();
+        for (OrderListener listener : orderListeners) {
+            listener.orderAdded(order);
+        }
+    }
+
+    public void fulfillOrder(int orderId) throws WarehouseException {
+        Order order = orderDao.getOrder(orderId);
+        if (order == null) {
+            throw new IllegalArgumentException("Unknown order ID: " + orderId);
+        }
+        // INFO: only the call that actually flips the pending flag notifies,
+        // so listeners see every transition exactly once.
+        if (orderDao.fulfillOrder(orderId)) {
+            dataVersion.incrementAndGet();
+            for (OrderListener listener : orderListeners) {
+                listener.orderFulfilled(order);
+            }
+        }
     }
 
     public Report generateReport(Report.Type type) throws WarehouseException {
         return reportGeneration.generateReport(type);
     }
+
+    public void generateReport(Report.Type type, ReportSink sink) throws WarehouseException {
+        reportGeneration.generateReport(type, sink);
+    }
+
+    public Report generateReport(Report.Type type, ReportParameters parameters) throws WarehouseException {
+        return reportGeneration.generateReport(type, parameters);
+    }
+
+    public void generateReport(Report.Type type, ReportParameters parameters, ReportSink sink) throws WarehouseException {
+        reportGeneration.generateReport(type, parameters, sink);
+    }
+
+    public boolean isDirectExportSupported(Report.Type reportType, ExportType exportType) {
+        return directReportExport.isSupported(reportType, exportType);
+    }
+
+    public void exportReport(Report.Type reportType, ExportType exportType, OutputStream out) throws WarehouseException {
+        directReportExport.export(reportType, exportType, out);
+    }
 }
@@ -1,23 +1,101 @@
 package com.example.warehouse;
 
 import com.example.warehouse.dal.*;
+import com.hazelcast.config.ClasspathXmlConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import java.util.concurrent.ExecutorService;
+
+import static java.lang.System.getenv;
 
 public final class Warehouses {
 
+    // INFO: created on first use only, so in-memory warehouses don't start
+    // the threads used to run blocking JDBC calls for the async DAOs.
+    private static final class JdbcExecutorHolder {
+
+        private static final int THREADS = Integer.parseInt(getenv()
+            .getOrDefault("JDBC_EXECUTOR_THREADS", "8"));
+
+        private static final int QUEUE_CAPACITY = Integer.parseInt(getenv()
+            .getOrDefault("JDBC_EXECUTOR_QUEUE_CAPACITY", "256"));
+
+        private static final ExecutorService INSTANCE = DaoExecutors.newBoundedExecutor("jdbc", THREADS, QUEUE_CAPACITY);
+    }
+
+    // INFO: created on first use only, so the cluster member is only started
+    // for distributed reports. The member's configuration is in `hazelcast.xml`,
+    // it's the same member the JCache customer cache runs on.
+    private static final class HazelcastHolder {
+
+        private static final HazelcastInstance INSTANCE = Hazelcast.getOrCreateHazelcastInstance(
+            new ClasspathXmlConfig("hazelcast.xml"));
+    }
+
+    // INFO: archiving is off unless a horizon is given, in days.
+    private static final String ORDER_ARCHIVE_HORIZON_DAYS = getenv("ORDER_ARCHIVE_HORIZON_DAYS");
+
+    private static final long ORDER_ARCHIVE_PERIOD_HOURS = Long.parseLong(getenv()
+        .getOrDefault("ORDER_ARCHIVE_PERIOD_HOURS", "24"));
+
+    // INFO: either `sequential`, `parallel`, `incremental`, `database` or
+    // `distributed`. Incremental reports only see orders placed through the
+    // same warehouse instance, so they're only suitable for single writer
+    // deployments. Database reports are aggregated by the database and
+    // streamed from it. Distributed reports are aggregated by the members of
+    // the Hazelcast cluster the orders are spread across.
+    private static final String REPORT_GENERATION = getenv()
+        .getOrDefault("REPORT_GENERATION", "sequential");
+
+    private static final boolean REPORT_CACHE_ENABLED = Boolean.parseBoolean(getenv()
+        .getOrDefault("REPORT_CACHE", "false"));
+
+    // INFO: the approximate reports keep sketches of every order in memory,
+    // their error bounds are traded against that memory.
+    private static final boolean APPROXIMATE_REPORTS = Boolean.parseBoolean(getenv()
+        .getOrDefault("APPROXIMATE_REPORTS", "false"));
+
+    private static final double SKETCH_DISTINCT_ERROR = Double.parseDouble(getenv()
+        .getOrDefault("SKETCH_DISTINCT_ERROR", "0.02"));
+
+    private static final double SKETCH_POPULARITY_ERROR = Double.parseDouble(getenv()
+        .getOrDefault("SKETCH_POPULARITY_ERROR", "0.001"));
+
+    private static final double SKETCH_POPULARITY_CONFIDENCE = Double.parseDouble(getenv()
+        .getOrDefault("SKETCH_POPULARITY_CONFIDENCE", "0.99"));
+
+    private static final double SKETCH_QUANTILE_ACCURACY = Double.parseDouble(getenv()
+        .getOrDefault("SKETCH_QUANTILE_ACCURACY", "0.01"));
+
+    private static final int SKETCH_POPULAR_CANDIDATES = Integer.parseInt(getenv()
+        .getOrDefault("SKETCH_POPULAR_CANDIDATES", "100"));
+
+    // INFO: shared by all warehouses, entries are keyed by client ID too.
+    private static final ReportCache REPORT_CACHE = new ReportCache();
+
+    public static ReportCache getReportCache() {
+        return REPORT_CACHE;
+    }
+
+    public static boolean isApproximateReportsEnabled() {
+        return APPROXIMATE_REPORTS;
+    }
+
     public static Warehouse newInMemoryWarehouse(int clientId) {
         ProductDao productDao = new MemoryProductDao();
         CustomerDao customerDao = new MemoryCustomerDao();
         InventoryDao inventoryDao = new MemoryInventoryDao(productDao);
         OrderDao orderDao = new MemoryOrderDao(productDao, customerDao);
 
-        ReportGeneration reportGeneration = createReportGeneration(clientId, orderDao);
+        ReportGeneration reportGeneration = createReportGeneration(clientId, orderDao, new NoOrderArchive());
 
-        return new Warehouse(
+        return withListeners(new Warehouse(
             productDao,
             customerDao,
             inventoryDao,
             orderDao,
-            reportGeneration);
+            reportGeneration), reportGeneration);
     }
 
     public static Warehouse newFrontendWarehouse(int clientId) {
@@ -25,15 +103,21 @@ public final class Warehouses {
         CustomerDao customerDao = new RestCustomerDao();
         InventoryDao inventoryDao = new DbInventoryDao();
         OrderDao orderDao = new DbOrderDao(customerDao);
+        OrderArchive orderArchive = new DbOrderArchive();
 
-        ReportGeneration reportGeneration = createReportGeneration(clientId, orderDao);
+        ReportGeneration reportGeneration = createReportGeneration(clientId, orderDao, orderArchive);
 
-        return new Warehouse(
+        return withListeners(new Warehouse(
             productDao,
             customerDao,
             inventoryDao,
             orderDao,
-            reportGeneration);
+            new DbDataVersionDao(),
+            new RestAsyncProductDao(),
+            new RestAsyncCustomerDao(),
+            new ExecutorAsyncOrderDao(orderDao, JdbcExecutorHolder.INSTANCE),
+            reportGeneration,
+            createDirectReportExport(clientId)), reportGeneration);
     }
 
     public static Warehouse newBackendWarehouse(int clientId) {
@@ -41,22 +125,146 @@ public final class Warehouses {
         CustomerDao customerDao = new RestCustomerDao();
         InventoryDao inventoryDao = new DbInventoryDao();
         OrderDao orderDao = new DbOrderDao(customerDao);
+        OrderArchive orderArchive = new DbOrderArchive();
+        // INFO: only the backend writes orders, so it's the one archiving them.
+        if (ORDER_ARCHIVE_HORIZON_DAYS != null && !ORDER_ARCHIVE_HORIZON_DAYS.isBlank()) {
+            new OrderArchiving(orderArchive, Integer.parseInt(ORDER_ARCHIVE_HORIZON_DAYS))
+                .schedule(ORDER_ARCHIVE_PERIOD_HOURS);
+        }
 
-        ReportGeneration reportGeneration = createReportGeneration(clientId, orderDao);
+        ReportGeneration reportGeneration = createReportGeneration(clientId, orderDao, orderArchive);
 
-        return new Warehouse(
+        return withListeners(new Warehouse(
             productDao,
             customerDao,
             inventoryDao,
             orderDao,
-            reportGeneration);
+            new DbDataVersionDao(),
+            new ExecutorAsyncProductDao(productDao, JdbcExecutorHolder.INSTANCE),
+            new RestAsyncCustomerDao(),
+            new ExecutorAsyncOrderDao(orderDao, JdbcExecutorHolder.INSTANCE),
+            reportGeneration,
+            createDirectReportExport(clientId)), reportGeneration);
+    }
+
+    private static ReportGeneration createReportGeneration(int clientId, OrderDao orderDao, OrderArchive orderArchive) {
+        // INFO: like its daily revenue report, client 2 ranks pending orders too.
+        ReportGeneration reportGeneration = new RankingReportGeneration(
+            createDailyReportGeneration(clientId, orderDao, orderArchive), orderDao, clientId == 2);
+        if (APPROXIMATE_REPORTS) {
+            reportGeneration = createSketchReportGeneration(clientId, orderDao, reportGeneration);
+        }
+        if (REPORT_CACHE_ENABLED) {
+            return new CachingReportGeneration(reportGeneration, REPORT_CACHE, clientId);
+        }
+        return reportGeneration;
+    }
+
+    private static ReportGeneration createSketchReportGeneration(int clientId, OrderDao orderDao, ReportGeneration reportGeneration) {
+        try {
+            return new SketchReportGeneration(
+                reportGeneration,
+                orderDao,
+                clientId == 2,
+                SKETCH_DISTINCT_ERROR,
+                SKETCH_POPULARITY_ERROR,
+                SKETCH_POPULARITY_CONFIDENCE,
+                SKETCH_QUANTILE_ACCURACY,
+                SKETCH_POPULAR_CANDIDATES);
+        } catch (WarehouseException ex) {
+            throw new IllegalStateException("Failed to load the orders for approximate reports.", ex);
+        }
+    }
+
+    private static ReportGeneration createDailyReportGeneration(int clientId, OrderDao orderDao, OrderArchive orderArchive) {
+        switch (REPORT_GENERATION) {
+            case "sequential":
+                return createSequentialReportGeneration(clientId, orderDao, orderArchive);
+            case "parallel":
+                return createParallelReportGeneration(clientId, orderDao, orderArchive);
+            case "incremental":
+                return createIncrementalReportGeneration(clientId, orderDao, orderArchive);
+            case "database":
+                if (!(orderDao instanceof DbOrderDao)) {
+                    throw new IllegalStateException("Database report generation needs orders stored in a database.");
+                }
+                return createDbReportGeneration(clientId);
+            case "distributed":
+                return createDistributedReportGeneration(clientId, orderDao, orderArchive);
+            default:
+                throw new IllegalStateException("Unknown report generation: " + REPORT_GENERATION);
+        }
+    }
+
+    private static ReportGeneration createSequentialReportGeneration(int clientId, OrderDao orderDao, OrderArchive orderArchive) {
+        if (clientId == 1) {
+            return new DefaultReportGeneration(orderDao, orderArchive);
+        } else if (clientId == 2) {
+            return new AlternativeReportGeneration(orderDao, orderArchive);
+        }
+        throw new IllegalStateException("Unknown client ID: " + clientId);
+    }
+
+    private static ReportGeneration createParallelReportGeneration(int clientId, OrderDao orderDao, OrderArchive orderArchive) {
+        if (clientId == 1) {
+            return new ParallelReportGeneration(orderDao, orderArchive, false, false);
+        } else if (clientId == 2) {
+            return new ParallelReportGeneration(orderDao, orderArchive, true, true);
+        }
+        throw new IllegalStateException("Unknown client ID: " + clientId);
+    }
+
+    private static ReportGeneration createDbReportGeneration(int clientId) {
+        if (clientId == 1) {
+            return new DbReportGeneration(false, false);
+        } else if (clientId == 2) {
+            return new DbReportGeneration(true, true);
+        }
+        throw new IllegalStateException("Unknown client ID: " + clientId);
+    }
+
+    private static ReportGeneration createIncrementalReportGeneration(int clientId, OrderDao orderDao, OrderArchive orderArchive) {
+        try {
+            if (clientId == 1) {
+                return new IncrementalReportGeneration(orderDao, orderArchive, false, false);
+            } else if (clientId == 2) {
+                return new IncrementalReportGeneration(orderDao, orderArchive, true, true);
+            }
+        } catch (WarehouseException ex) {
+            throw new IllegalStateException("Failed to load the orders for incremental reports.", ex);
+        }
+        throw new IllegalStateException("Unknown client ID: " + clientId);
+    }
+
+    private static ReportGeneration createDistributedReportGeneration(int clientId, OrderDao orderDao, OrderArchive orderArchive) {
+        String mapName = "orders-" + clientId;
+        try {
+            if (clientId == 1) {
+                return new DistributedReportGeneration(HazelcastHolder.INSTANCE, mapName, orderDao, orderArchive, false, false);
+            } else if (clientId == 2) {
+                return new DistributedReportGeneration(HazelcastHolder.INSTANCE, mapName, orderDao, orderArchive, true, true);
+            }
+        } catch (WarehouseException ex) {
+            throw new IllegalStateException("Failed to load the orders for distributed reports.", ex);
+        }
+        throw new IllegalStateException("Unknown client ID: " + clientId);
+    }
+
+    private static Warehouse withListeners(Warehouse warehouse, ReportGeneration reportGeneration) {
+        if (reportGeneration instanceof OrderListener) {
+            warehouse.addOrderListener((OrderListener) reportGeneration);
+        }
+        if (reportGeneration instanceof ProductListener) {
+            warehouse.addProductListener((ProductListener) reportGeneration);
+        }
+        return warehouse;
     }
 
-    private static ReportGeneration createReportGeneration(int clientId, OrderDao orderDao) {
+    private static DirectReportExport createDirectReportExport(int clientId) {
         if (clientId == 1) {
-            return new DefaultReportGeneration(orderDao);
+            return new DbDirectReportExport(false, false);
         } else if (clientId == 2) {
-            return new AlternativeReportGeneration(orderDao);
+            return new DbDirectReportExport(true, true);
         }
         throw new IllegalStateException("Unknown client ID: " + clientId);
     }
@@ -0,0 +1,15 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Order;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncOrderDao {
+
+    CompletableFuture<Collection<Order>> getOrders();
+
+    CompletableFuture<Order> getOrder(int id);
+
+    CompletableFuture<Void> addOrder(Order order);
+}
@@ -0,0 +1,52 @@
+package com.example.warehouse.dal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// INFO: counters describing how often optimistic stock updates collide
+// with each other, used to tune the retry limit and backoff of DAOs.
+public final class ContentionMetrics {
+
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder aborts = new LongAdder();
+
+    void recordOrder() {
+        orders.increment();
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    void recordAbort() {
+        aborts.increment();
+    }
+
+    public long getOrders() {
+        return orders.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getAborts() {
+        return aborts.sum();
+    }
+
+    public double getRetriesPerOrder() {
+        long count = orders.sum();
+        return count == 0 ? 0d : (double) retries.sum() / count;
+    }
+
+    public double getAbortRate() {
+        long count = orders.sum();
+        return count == 0 ? 0d : (double) aborts.sum() / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("orders=%s, retries=%s, aborts=%s, retries/order=%.3f, abort rate=%.3f",
+            getOrders(), getRetries(), getAborts(), getRetriesPerOrder(), getAbortRate());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.warehouse.dal;
+
+import java.time.LocalDate;
+
+public final class DailyOrderTotals {
+
+    private final LocalDate date;
+    private final long totalProducts;
+    private final long totalRevenue;
+
+    public DailyOrderTotals(LocalDate date, long totalProducts, long totalRevenue) {
+        this.date = date;
+        this.totalProducts = totalProducts;
+        this.totalRevenue = totalRevenue;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getTotalProducts() {
+        return totalProducts;
+    }
+
+    public long getTotalRevenue() {
+        return totalRevenue;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.ReportParameters;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+// INFO: the daily revenue report aggregated by the database, mirrors what
+// `DefaultReportGeneration` (fulfilled orders, revenue only) and
+// `AlternativeReportGeneration` (all orders, product count and revenue) do.
+final class DailyRevenueQuery {
+
+    private final boolean includePending;
+    private final boolean includeTotalProducts;
+
+    DailyRevenueQuery(boolean includePending, boolean includeTotalProducts) {
+        this.includePending = includePending;
+        this.includeTotalProducts = includeTotalProducts;
+    }
+
+    List<String> getLabels() {
+        if (includeTotalProducts) {
+            return List.of("Date", "Total products", "Total revenue");
+        }
+        return List.of("Date", "Total revenue");
+    }
+
+    // INFO: rollups are added to the live orders' totals of the same day.
+    String getSql() {
+        return getSql(ReportParameters.all());
+    }
+
+    // INFO: only the date range is applied by the database, records are
+    // always daily, the caller groups them into coarser buckets.
+    String getSql(ReportParameters parameters) {
+        return "SELECT "
+            + "order_date, "
+            + (includeTotalProducts ? "SUM(total_products) AS total_products, " : "")
+            + "SUM(total_revenue) AS total_revenue " +
+            "FROM (" +
+            "SELECT "
+            + "o.order_date, "
+            + "od.quantity AS total_products, "
+            + "p.price * od.quantity AS total_revenue " +
+            "FROM orders AS o " +
+            "JOIN order_details AS od ON o.id = od.order_id " +
+            "JOIN products AS p ON p.id = od.product_id " +
+            (includePending ? "" : "WHERE o.pending = 0 ") +
+            "UNION ALL " +
+            "SELECT order_date, total_products, total_revenue FROM order_rollups" +
+            ") AS t " +
+            (parameters.getFrom() == null && parameters.getTo() == null ? "" : "WHERE ") +
+            (parameters.getFrom() == null ? "" : "order_date >= ? ") +
+            (parameters.getFrom() == null || parameters.getTo() == null ? "" : "AND ") +
+            (parameters.getTo() == null ? "" : "order_date <= ? ") +
+            "GROUP BY order_date " +
+            "ORDER BY order_date";
+    }
+
+    void setParameters(PreparedStatement statement, ReportParameters parameters) throws SQLException {
+        int index = 1;
+        if (parameters.getFrom() != null) {
+            statement.setDate(index++, Date.valueOf(parameters.getFrom()));
+        }
+        if (parameters.getTo() != null) {
+            statement.setDate(index, Date.valueOf(parameters.getTo()));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.WarehouseException;
+
+// INFO: a version of the stored orders that changes with every change made
+// to them, by any process sharing the store, so anything derived from the
+// orders can be told apart from what was derived from older ones.
+public interface DataVersionDao {
+
+    long getDataVersion() throws WarehouseException;
+}
@@ -0,0 +1,45 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.WarehouseException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// INFO: the version is kept in the single row of `data_version`, every DAO
+// changing orders bumps it in the same transaction as the change, so it's
+// bumped exactly when the change becomes visible to other connections.
+public final class DbDataVersionDao extends AbstractDbDao implements DataVersionDao {
+
+    public DbDataVersionDao() {
+        this(ENV_PRIMARY, ENV_READ_REPLICA);
+    }
+
+    DbDataVersionDao(JdbcSource primary, JdbcSource readReplica) {
+        super(primary, readReplica);
+    }
+
+    // INFO: read from the same database reports are read from, a version
+    // read from the primary could be newer than the replicated orders.
+    @Override
+    public long getDataVersion() throws WarehouseException {
+        try (Connection connection = getReadConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT version FROM data_version");
+             ResultSet rs = statement.executeQuery()) {
+            if (!rs.next()) {
+                throw new WarehouseException("Missing data version.");
+            }
+            return rs.getLong("version");
+        } catch (SQLException ex) {
+            throw new WarehouseException("Trouble while reading data version.", ex);
+        }
+    }
+
+    static void bumpDataVersion(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "UPDATE data_version SET version = version + 1")) {
+            statement.executeUpdate();
+        }
+    }
+}
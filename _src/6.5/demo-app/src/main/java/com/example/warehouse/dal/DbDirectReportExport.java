@@ -0,0 +1,55 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.DirectReportExport;
+import com.example.warehouse.Report;
+import com.example.warehouse.WarehouseException;
+import com.example.warehouse.export.ExportType;
+import com.example.warehouse.export.ResultSetExporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public final class DbDirectReportExport extends AbstractDbDao implements DirectReportExport {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final DailyRevenueQuery dailyRevenueQuery;
+
+    public DbDirectReportExport(boolean includePending, boolean includeTotalProducts) {
+        this(ENV_PRIMARY, ENV_READ_REPLICA, includePending, includeTotalProducts);
+    }
+
+    DbDirectReportExport(JdbcSource primary, JdbcSource readReplica, boolean includePending, boolean includeTotalProducts) {
+        super(primary, readReplica);
+        this.dailyRevenueQuery = new DailyRevenueQuery(includePending, includeTotalProducts);
+    }
+
+    @Override
+    public boolean isSupported(Report.Type reportType, ExportType exportType) {
+        return reportType == Report.Type.DAILY_REVENUE && ResultSetExporter.isSupported(exportType);
+    }
+
+    @Override
+    public void export(Report.Type reportType, ExportType exportType, OutputStream out) throws WarehouseException {
+        if (!isSupported(reportType, exportType)) {
+            throw new UnsupportedOperationException(String.format(
+                "Direct export of %s report to %s not supported.", reportType, exportType));
+        }
+        try (Connection connection = getReadConnection();
+             Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(FETCH_SIZE);
+            applyDeadline(statement);
+            try (ResultSet rs = statement.executeQuery(dailyRevenueQuery.getSql())) {
+                new ResultSetExporter(exportType, out).export(dailyRevenueQuery.getLabels(), rs);
+            }
+        } catch (SQLException ex) {
+            throw new WarehouseException("Trouble while exporting report.", ex);
+        } catch (IOException ex) {
+            throw new WarehouseException("Trouble while writing report export.", ex);
+        }
+    }
+}
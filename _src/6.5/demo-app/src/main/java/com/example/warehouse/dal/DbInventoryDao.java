@@ -7,27 +7,71 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.System.getenv;
 
 public final class DbInventoryDao extends AbstractDbDao implements InventoryDao {
 
+    private static final boolean OPTIMISTIC_LOCKING = Boolean.parseBoolean(getenv()
+        .getOrDefault("INVENTORY_OPTIMISTIC_LOCKING", "false"));
+
+    private static final int MAX_RETRIES = Integer.parseInt(getenv()
+        .getOrDefault("INVENTORY_MAX_RETRIES", "5"));
+
+    private static final long BASE_BACKOFF_MILLIS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    private static final class StockRecord {
+        final int quantity;
+        final int version;
+
+        StockRecord(int quantity, int version) {
+            this.quantity = quantity;
+            this.version = version;
+        }
+    }
+
+    private final boolean optimisticLocking;
+    private final int maxRetries;
+
+    private final ContentionMetrics contentionMetrics = new ContentionMetrics();
+
     public DbInventoryDao() {
+        this(OPTIMISTIC_LOCKING, MAX_RETRIES);
+    }
+
+    public DbInventoryDao(boolean optimisticLocking, int maxRetries) {
+        this(ENV_PRIMARY, ENV_READ_REPLICA, optimisticLocking, maxRetries);
+    }
+
+    DbInventoryDao(JdbcSource primary, JdbcSource readReplica, boolean optimisticLocking, int maxRetries) {
+        super(primary, readReplica);
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("The maximum number of retries cannot be negative.");
+        }
+        this.optimisticLocking = optimisticLocking;
+        this.maxRetries = maxRetries;
+    }
+
+    public ContentionMetrics getContentionMetrics() {
+        return contentionMetrics;
     }
 
     @Override
     public void updateStock(Map<Product, Integer> quantities) throws WarehouseException {
+        if (optimisticLocking) {
+            updateStockOptimistically(quantities);
+            return;
+        }
         try (Connection connection = getConnection()) {
             for (var entry : quantities.entrySet()) {
                 Product product = entry.getKey();
                 int quantity = entry.getValue();
                 int stock = getStockOrDefault(connection, product.getId(), 0);
-                if (stock == 0) {
-                    throw new IllegalArgumentException(String.format("Product (%s) not in stock.", product.getId()));
-                }
-                if (stock - quantity < 0) {
-                    throw new IllegalArgumentException(
-                        String.format("Not enough product (%s) in stock. Available %s. Ordered %s.", product.getId(), stock, quantity));
-                }
+                checkStock(product, stock, quantity);
             }
             for (var entry : quantities.entrySet()) {
                 Product product = entry.getKey();
@@ -40,6 +84,79 @@ public final class DbInventoryDao extends AbstractDbDao implements InventoryDao
         }
     }
 
+    private void updateStockOptimistically(Map<Product, Integer> quantities) throws WarehouseException {
+        contentionMetrics.recordOrder();
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                contentionMetrics.recordRetry();
+                backoff(attempt);
+            }
+            try (Connection connection = getConnection()) {
+                if (tryUpdateStock(connection, quantities)) {
+                    return;
+                }
+            } catch (SQLException ex) {
+                throw new WarehouseException("Trouble while updating inventory.", ex);
+            }
+        }
+        contentionMetrics.recordAbort();
+        throw new WarehouseException(String.format(
+            "Inventory changed concurrently, gave up updating stock after %s retries.", maxRetries));
+    }
+
+    // INFO: reads every row's version first, then only writes a row when its
+    // version is still the same, all inside one transaction. When any of the
+    // compare-and-set updates misses the whole order is rolled back and retried.
+    private boolean tryUpdateStock(Connection connection, Map<Product, Integer> quantities) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            Map<Integer, StockRecord> records = new HashMap<>();
+            for (var entry : quantities.entrySet()) {
+                Product product = entry.getKey();
+                StockRecord record = getStockRecord(connection, product.getId());
+                checkStock(product, record == null ? 0 : record.quantity, entry.getValue());
+                records.put(product.getId(), record);
+            }
+            for (var entry : quantities.entrySet()) {
+                int productId = entry.getKey().getId();
+                StockRecord record = records.get(productId);
+                if (!compareAndSetStock(connection, productId, record.quantity - entry.getValue(), record.version)) {
+                    connection.rollback();
+                    return false;
+                }
+            }
+            connection.commit();
+            return true;
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void backoff(int attempt) throws WarehouseException {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+        long millis = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WarehouseException("Interrupted while waiting to retry updating stock.", ex);
+        }
+    }
+
+    private static void checkStock(Product product, int stock, int quantity) {
+        if (stock == 0) {
+            throw new IllegalArgumentException(String.format("Product (%s) not in stock.", product.getId()));
+        }
+        if (stock - quantity < 0) {
+            throw new IllegalArgumentException(
+                String.format("Not enough product (%s) in stock. Available %s. Ordered %s.", product.getId(), stock, quantity));
+        }
+    }
+
     private int getStockOrDefault(Connection connection, int productId, int defaultQuantity) throws SQLException {
         try (PreparedStatement statement = connection.prepareStatement(
             "SELECT * FROM inventory WHERE product_id = ?")) {
@@ -53,12 +170,35 @@ public final class DbInventoryDao extends AbstractDbDao implements InventoryDao
         }
     }
 
+    private StockRecord getStockRecord(Connection connection, int productId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "SELECT quantity, version FROM inventory WHERE product_id = ?")) {
+            statement.setInt(1, productId);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return new StockRecord(rs.getInt("quantity"), rs.getInt("version"));
+                }
+                return null;
+            }
+        }
+    }
+
     private void setStock(Connection connection, int productId, int quantity) throws SQLException {
         try (PreparedStatement statement = connection.prepareStatement(
-            "UPDATE inventory SET quantity = ? WHERE product_id = ?")) {
+            "UPDATE inventory SET quantity = ?, version = version + 1 WHERE product_id = ?")) {
             statement.setInt(1, quantity);
             statement.setInt(2, productId);
             statement.executeUpdate();
         }
     }
+
+    private boolean compareAndSetStock(Connection connection, int productId, int quantity, int version) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "UPDATE inventory SET quantity = ?, version = version + 1 WHERE product_id = ? AND version = ?")) {
+            statement.setInt(1, quantity);
+            statement.setInt(2, productId);
+            statement.setInt(3, version);
+            return statement.executeUpdate() == 1;
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.WarehouseException;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public final class DbOrderArchive extends AbstractDbDao implements OrderArchive {
+
+    private static final String LINE_SEPARATOR = ";";
+
+    private static final class ArchivedOrder {
+        final int orderId;
+        final int customerId;
+        final LocalDate orderDate;
+        final StringBuilder lines = new StringBuilder();
+        long totalProducts;
+        long totalRevenue;
+
+        ArchivedOrder(int orderId, int customerId, LocalDate orderDate) {
+            this.orderId = orderId;
+            this.customerId = customerId;
+            this.orderDate = orderDate;
+        }
+    }
+
+    public DbOrderArchive() {
+        this(ENV_PRIMARY, ENV_READ_REPLICA);
+    }
+
+    DbOrderArchive(JdbcSource primary, JdbcSource readReplica) {
+        super(primary, readReplica);
+    }
+
+    @Override
+    public SortedMap<LocalDate, DailyOrderTotals> getDailyTotals() throws WarehouseException {
+        try (Connection connection = getReadConnection();
+             Statement statement = connection.createStatement()) {
+            applyDeadline(statement);
+            try (ResultSet rs = statement.executeQuery(
+                "SELECT order_date, total_products, total_revenue FROM order_rollups")) {
+                SortedMap<LocalDate, DailyOrderTotals> result = new TreeMap<>();
+                while (rs.next()) {
+                    LocalDate date = rs.getDate("order_date").toLocalDate();
+                    result.put(date, new DailyOrderTotals(date, rs.getLong("total_products"), rs.getLong("total_revenue")));
+                }
+                return result;
+            }
+        } catch (SQLException ex) {
+            throw new WarehouseException("Trouble while fetching archived order totals.", ex);
+        }
+    }
+
+    // INFO: a `DbOrderDao` reads the live orders and the rollups in one
+    // statement, so archiving can't happen in between.
+    @Override
+    public OrderSnapshot getSnapshot(OrderDao orderDao) throws WarehouseException {
+        if (orderDao instanceof DbOrderDao) {
+            return ((DbOrderDao) orderDao).getSnapshot();
+        }
+        return OrderArchive.super.getSnapshot(orderDao);
+    }
+
+    // INFO: in one transaction, a row per order partitioned by month.
+    @Override
+    public int archiveOrders(LocalDate horizon) throws WarehouseException {
+        try (Connection connection = getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                List<ArchivedOrder> orders = readOrders(connection, horizon);
+                if (!orders.isEmpty()) {
+                    updateRollups(connection, orders);
+                    insertArchivedOrders(connection, orders);
+                    deleteOrders(connection, orders);
+                    DbDataVersionDao.bumpDataVersion(connection);
+                }
+                connection.commit();
+                return orders.size();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new WarehouseException(String.format("Trouble while archiving orders before %s.", horizon), ex);
+        }
+    }
+
+    private List<ArchivedOrder> readOrders(Connection connection, LocalDate horizon) throws SQLException {
+        List<ArchivedOrder> orders = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+            "SELECT "
+                + "o.id AS order_id, "
+                + "o.customer_id, "
+                + "o.order_date, "
+                + "od.product_id, "
+                + "od.quantity, "
+                + "p.price " +
+                "FROM orders AS o " +
+                "JOIN order_details AS od ON o.id = od.order_id " +
+                "JOIN products AS p ON p.id = od.product_id " +
+                "WHERE o.pending = 0 AND o.order_date < ? " +
+                "ORDER BY o.id")) {
+            statement.setDate(1, Date.valueOf(horizon));
+            try (ResultSet rs = statement.executeQuery()) {
+                ArchivedOrder order = null;
+                while (rs.next()) {
+                    int orderId = rs.getInt("order_id");
+                    if (order == null || order.orderId != orderId) {
+                        order = new ArchivedOrder(orderId, rs.getInt("customer_id"), rs.getDate("order_date").toLocalDate());
+                        orders.add(order);
+                    }
+                    int productId = rs.getInt("product_id");
+                    int quantity = rs.getInt("quantity");
+                    int price = rs.getInt("price");
+                    if (order.lines.length() != 0) {
+                        order.lines.append(LINE_SEPARATOR);
+                    }
+                    // INFO: same `<product ID>x<quantity>` format as in `orders.csv`, plus the price at the time.
+                    order.lines.append(productId).append('x').append(quantity).append('@').append(price);
+                    order.totalProducts += quantity;
+                    order.totalRevenue += (long) price * quantity;
+                }
+            }
+        }
+        return orders;
+    }
+
+    private void updateRollups(Connection connection, List<ArchivedOrder> orders) throws SQLException {
+        SortedMap<LocalDate, long[]> totals = new TreeMap<>();
+        for (ArchivedOrder order : orders) {
+            long[] total = totals.computeIfAbsent(order.orderDate, d -> new long[2]);
+            total[0] += order.totalProducts;
+            total[1] += order.totalRevenue;
+        }
+        try (PreparedStatement update = connection.prepareStatement(
+            "UPDATE order_rollups SET total_products = total_products + ?, total_revenue = total_revenue + ? WHERE order_date = ?");
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO order_rollups(order_date, total_products, total_revenue) VALUES (?, ?, ?)")) {
+            for (var entry : totals.entrySet()) {
+                Date date = Date.valueOf(entry.getKey());
+                long[] total = entry.getValue();
+                update.setLong(1, total[0]);
+                update.setLong(2, total[1]);
+                update.setDate(3, date);
+                if (update.executeUpdate() == 0) {
+                    insert.setDate(1, date);
+                    insert.setLong(2, total[0]);
+                    insert.setLong(3, total[1]);
+                    insert.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private void insertArchivedOrders(Connection connection, List<ArchivedOrder> orders) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "INSERT INTO orders_archive(partition_month, order_id, customer_id, order_date, order_lines, total_products, total_revenue) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (ArchivedOrder order : orders) {
+                statement.setInt(1, order.orderDate.getYear() * 100 + order.orderDate.getMonthValue());
+                statement.setInt(2, order.orderId);
+                statement.setInt(3, order.customerId);
+                statement.setDate(4, Date.valueOf(order.orderDate));
+                statement.setString(5, order.lines.toString());
+                statement.setLong(6, order.totalProducts);
+                statement.setLong(7, order.totalRevenue);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void deleteOrders(Connection connection, List<ArchivedOrder> orders) throws SQLException {
+        try (PreparedStatement details = connection.prepareStatement("DELETE FROM order_details WHERE order_id = ?");
+             PreparedStatement order = connection.prepareStatement("DELETE FROM orders WHERE id = ?")) {
+            for (ArchivedOrder archivedOrder : orders) {
+                details.setInt(1, archivedOrder.orderId);
+                details.addBatch();
+                order.setInt(1, archivedOrder.orderId);
+                order.addBatch();
+            }
+            details.executeBatch();
+            order.executeBatch();
+        }
+    }
+}
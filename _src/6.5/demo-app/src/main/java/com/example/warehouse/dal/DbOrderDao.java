@@ -1,6 +1,7 @@
 package com.example.warehouse.dal;
 
 import com.example.warehouse.Customer;
+import com.example.warehouse.Deadline;
 import com.example.warehouse.Order;
 import com.example.warehouse.Product;
 import com.example.warehouse.WarehouseException;
@@ -11,6 +12,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public final class DbOrderDao extends AbstractDbDao implements OrderDao {
@@ -72,13 +75,19 @@ public final class DbOrderDao extends AbstractDbDao implements OrderDao {
     private final CustomerDao customerDao;
 
     public DbOrderDao(CustomerDao customerDao) {
+        this(ENV_PRIMARY, ENV_READ_REPLICA, customerDao);
+    }
+
+    DbOrderDao(JdbcSource primary, JdbcSource readReplica, CustomerDao customerDao) {
+        super(primary, readReplica);
         this.customerDao = customerDao;
     }
 
     @Override
     public Collection<Order> getOrders() throws WarehouseException {
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
              Statement statement = connection.createStatement()) {
+            applyDeadline(statement);
             try (ResultSet rs = statement.executeQuery(
                 "SELECT "
                     + "o.id AS order_id, "
@@ -100,6 +109,50 @@ public final class DbOrderDao extends AbstractDbDao implements OrderDao {
         }
     }
 
+    // INFO: the rollups come as rows without an order ID, mirrors the union
+    // in `DailyRevenueQuery`.
+    OrderSnapshot getSnapshot() throws WarehouseException {
+        try (Connection connection = getReadConnection();
+             Statement statement = connection.createStatement()) {
+            applyDeadline(statement);
+            try (ResultSet rs = statement.executeQuery(
+                "SELECT "
+                    + "o.id AS order_id, "
+                    + "o.order_date, "
+                    + "o.pending, "
+                    + "o.customer_id AS customer_id, "
+                    + "p.id AS product_id, "
+                    + "p.name AS product_name, "
+                    + "p.price, "
+                    + "od.quantity, "
+                    + "0 AS total_products, "
+                    + "0 AS total_revenue " +
+                    "FROM orders AS o " +
+                    "JOIN order_details AS od ON o.id = od.order_id " +
+                    "JOIN products AS p ON p.id = od.product_id " +
+                    "GROUP BY o.id, p.id " +
+                    "UNION ALL " +
+                    "SELECT NULL, order_date, NULL, NULL, NULL, NULL, NULL, NULL, total_products, total_revenue " +
+                    "FROM order_rollups")) {
+                Deadline deadline = Deadline.current();
+                SortedMap<LocalDate, DailyOrderTotals> dailyTotals = new TreeMap<>();
+                List<OrderRecord> records = new ArrayList<>();
+                while (rs.next()) {
+                    deadline.check();
+                    if (rs.getObject("order_id") == null) {
+                        LocalDate date = rs.getDate("order_date").toLocalDate();
+                        dailyTotals.put(date, new DailyOrderTotals(date, rs.getLong("total_products"), rs.getLong("total_revenue")));
+                    } else {
+                        records.add(readRecord(rs));
+                    }
+                }
+                return new OrderSnapshot(dailyTotals, makeOrders(records));
+            }
+        } catch (SQLException ex) {
+            throw new WarehouseException("Trouble while fetching orders.", ex);
+        }
+    }
+
     @Override
     public Order getOrder(int id) throws WarehouseException {
         try (Connection connection = getConnection();
@@ -116,9 +169,10 @@ public final class DbOrderDao extends AbstractDbDao implements OrderDao {
                      "FROM orders AS o " +
                      "JOIN order_details AS od ON o.id = od.order_id " +
                      "JOIN products AS p ON p.id = od.product_id " +
-                     "WHERE o.customer_id = ? " +
+                     "WHERE o.id = ? " +
                      "GROUP BY o.id, p.id"
              )) {
+            statement.setInt(1, id);
             try (ResultSet rs = statement.executeQuery()) {
                 return makeOrders(rs)
                     .stream()
@@ -131,21 +185,32 @@ public final class DbOrderDao extends AbstractDbDao implements OrderDao {
     }
 
     private List<Order> makeOrders(ResultSet rs) throws SQLException, WarehouseException {
+        Deadline deadline = Deadline.current();
         List<OrderRecord> results = new ArrayList<>();
         while (rs.next()) {
-            results.add(new OrderRecord(
-                rs.getInt("order_id"),
-                rs.getDate("order_date").toLocalDate(),
-                rs.getBoolean("pending"),
-                rs.getInt("customer_id"),
-                rs.getInt("product_id"),
-                rs.getString("product_name"),
-                rs.getInt("price"),
-                rs.getInt("quantity")
-            ));
+            deadline.check();
+            results.add(readRecord(rs));
         }
+        return makeOrders(results);
+    }
+
+    private static OrderRecord readRecord(ResultSet rs) throws SQLException {
+        return new OrderRecord(
+            rs.getInt("order_id"),
+            rs.getDate("order_date").toLocalDate(),
+            rs.getBoolean("pending"),
+            rs.getInt("customer_id"),
+            rs.getInt("product_id"),
+            rs.getString("product_name"),
+            rs.getInt("price"),
+            rs.getInt("quantity"));
+    }
+
+    private List<Order> makeOrders(List<OrderRecord> results) throws WarehouseException {
+        Deadline deadline = Deadline.current();
         List<Order> orders = new ArrayList<>();
         for (var group : results.stream().collect(Collectors.groupingBy(OrderRecord::getOrderId)).entrySet()) {
+            deadline.check();
             int orderId = group.getKey();
             List<OrderRecord> records = group.getValue();
             OrderRecord firstRecord = records.get(0);
@@ -195,6 +260,7 @@ public final class DbOrderDao extends AbstractDbDao implements OrderDao {
                         orderDetailStatement.executeUpdate();
                     }
                 }
+                DbDataVersionDao.bumpDataVersion(connection);
                 connection.commit();
             } catch (SQLException ex) {
                 connection.rollback();
@@ -206,4 +272,29 @@ public final class DbOrderDao extends AbstractDbDao implements OrderDao {
             throw new WarehouseException("Trouble while adding order.", ex);
         }
     }
+
+    @Override
+    public boolean fulfillOrder(int id) throws WarehouseException {
+        try (Connection connection = getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE orders SET pending = 0 WHERE id = ? AND pending = 1")) {
+                statement.setInt(1, id);
+                boolean fulfilled = statement.executeUpdate() == 1;
+                if (fulfilled) {
+                    DbDataVersionDao.bumpDataVersion(connection);
+                }
+                connection.commit();
+                return fulfilled;
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new WarehouseException("Trouble while fulfilling order.", ex);
+        }
+    }
 }
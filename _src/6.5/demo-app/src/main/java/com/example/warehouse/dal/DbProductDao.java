@@ -11,11 +11,16 @@ import java.util.List;
 public final class DbProductDao extends AbstractDbDao implements ProductDao {
 
     public DbProductDao() {
+        this(ENV_PRIMARY, ENV_READ_REPLICA);
+    }
+
+    DbProductDao(JdbcSource primary, JdbcSource readReplica) {
+        super(primary, readReplica);
     }
 
     @Override
     public Collection<Product> getProducts() throws WarehouseException {
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
              Statement statement = connection.createStatement()) {
             List<Product> products = new ArrayList<>();
             try (ResultSet rs = statement.executeQuery("SELECT * FROM products")) {
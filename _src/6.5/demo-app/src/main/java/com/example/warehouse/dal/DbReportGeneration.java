@@ -0,0 +1,134 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.BucketingReportSink;
+import com.example.warehouse.Deadline;
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportCollector;
+import com.example.warehouse.ReportGeneration;
+import com.example.warehouse.ReportParameters;
+import com.example.warehouse.ReportRecord;
+import com.example.warehouse.ReportSink;
+import com.example.warehouse.WarehouseException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// INFO: lets the database aggregate the report and hands the rows to the
+// sink as they're fetched, so the report is never held in memory as a whole.
+public final class DbReportGeneration extends AbstractDbDao implements ReportGeneration {
+
+    private static final int FETCH_SIZE = 1000;
+
+    // INFO: a view of the result set's current row, the date in the first
+    // column followed by numbers.
+    private static final class ResultSetRecord implements ReportRecord {
+
+        private final ResultSet rs;
+        private final int columnCount;
+
+        ResultSetRecord(ResultSet rs, int columnCount) {
+            this.rs = rs;
+            this.columnCount = columnCount;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnCount;
+        }
+
+        @Override
+        public Report.DataType getDataType(int column) {
+            return column == 0 ? Report.DataType.DATE : Report.DataType.NUMBER;
+        }
+
+        @Override
+        public int getEpochDay(int column) {
+            try {
+                return Math.toIntExact(rs.getDate(column + 1).toLocalDate().toEpochDay());
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Trouble while reading report record.", ex);
+            }
+        }
+
+        @Override
+        public long getNumber(int column) {
+            try {
+                return rs.getLong(column + 1);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Trouble while reading report record.", ex);
+            }
+        }
+
+        @Override
+        public String getString(int column) {
+            throw new IllegalStateException("Report has no string columns.");
+        }
+
+        @Override
+        public String getAsString(int column) {
+            if (column == 0) {
+                return getDate(column).toString();
+            }
+            return Long.toString(getNumber(column));
+        }
+    }
+
+    private final DailyRevenueQuery dailyRevenueQuery;
+
+    public DbReportGeneration(boolean includePending, boolean includeTotalProducts) {
+        this(ENV_PRIMARY, ENV_READ_REPLICA, includePending, includeTotalProducts);
+    }
+
+    DbReportGeneration(JdbcSource primary, JdbcSource readReplica, boolean includePending, boolean includeTotalProducts) {
+        super(primary, readReplica);
+        this.dailyRevenueQuery = new DailyRevenueQuery(includePending, includeTotalProducts);
+    }
+
+    @Override
+    public Report generateReport(Report.Type type) throws WarehouseException {
+        ReportCollector collector = new ReportCollector();
+        generateReport(type, collector);
+        return collector.getReport();
+    }
+
+    @Override
+    public void generateReport(Report.Type type, ReportSink sink) throws WarehouseException {
+        generateReport(type, ReportParameters.all(), sink);
+    }
+
+    @Override
+    public void generateReport(Report.Type type, ReportParameters parameters, ReportSink sink) throws WarehouseException {
+        checkReportType(type);
+        try (Connection connection = getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 dailyRevenueQuery.getSql(parameters), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            dailyRevenueQuery.setParameters(statement, parameters);
+            statement.setFetchSize(FETCH_SIZE);
+            applyDeadline(statement);
+            Deadline deadline = Deadline.current();
+            ReportSink bucketingSink = new BucketingReportSink(parameters, sink);
+            try (ResultSet rs = statement.executeQuery()) {
+                ResultSetRecord record = new ResultSetRecord(rs, dailyRevenueQuery.getLabels().size());
+                bucketingSink.start(dailyRevenueQuery.getLabels());
+                while (rs.next()) {
+                    deadline.check();
+                    bucketingSink.record(record);
+                }
+                bucketingSink.finish();
+            }
+        } catch (SQLException ex) {
+            throw new WarehouseException("Trouble while generating report.", ex);
+        }
+    }
+
+    private void checkReportType(Report.Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Report type cannot be null.");
+        }
+        if (type != Report.Type.DAILY_REVENUE) {
+            throw new UnsupportedOperationException(String.format("Report type: %s not yet implemented.", type));
+        }
+    }
+}
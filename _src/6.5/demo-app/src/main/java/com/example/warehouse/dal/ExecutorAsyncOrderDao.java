@@ -0,0 +1,38 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Order;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.example.warehouse.dal.DaoExecutors.supply;
+
+public final class ExecutorAsyncOrderDao implements AsyncOrderDao {
+
+    private final OrderDao orderDao;
+    private final Executor executor;
+
+    public ExecutorAsyncOrderDao(OrderDao orderDao, Executor executor) {
+        this.orderDao = orderDao;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Collection<Order>> getOrders() {
+        return supply(executor, orderDao::getOrders);
+    }
+
+    @Override
+    public CompletableFuture<Order> getOrder(int id) {
+        return supply(executor, () -> orderDao.getOrder(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> addOrder(Order order) {
+        return supply(executor, () -> {
+            orderDao.addOrder(order);
+            return null;
+        });
+    }
+}
@@ -38,15 +38,19 @@ public final class MemoryOrderDao implements OrderDao {
     }
 
     @Override
-    public Collection<Order> getOrders() {
+    public synchronized Collection<Order> getOrders() {
         return orders.stream()
             .map(Order::new)
             .collect(Collectors.toUnmodifiableList());
     }
 
     @Override
-    public Order getOrder(int id) {
-        return orders.get(id);
+    public synchronized Order getOrder(int id) {
+        return orders.stream()
+            .filter(o -> o.getId() == id)
+            .findFirst()
+            .map(Order::new)
+            .orElse(null);
     }
 
     @Override
@@ -60,6 +64,21 @@ public final class MemoryOrderDao implements OrderDao {
         orders.add(order);
     }
 
+    @Override
+    public synchronized boolean fulfillOrder(int id) {
+        for (ListIterator<Order> it = orders.listIterator(); it.hasNext(); ) {
+            Order order = it.next();
+            if (order.getId() == id) {
+                if (!order.isPending()) {
+                    return false;
+                }
+                it.set(new Order(id, order.getCustomer(), order.getDate(), order.getQuantities(), false));
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void readOrders() throws FileNotFoundException, WarehouseException {
         CsvReader reader = new CsvReader(new FileInputStream(DEFAULT_ORDERS_CSV_FILE));
         while (reader.hasNextRow()) {
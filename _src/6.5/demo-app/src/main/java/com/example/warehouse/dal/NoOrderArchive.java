@@ -0,0 +1,20 @@
+package com.example.warehouse.dal;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public final class NoOrderArchive implements OrderArchive {
+
+    @Override
+    public SortedMap<LocalDate, DailyOrderTotals> getDailyTotals() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>());
+    }
+
+    @Override
+    public int archiveOrders(LocalDate horizon) {
+        // INFO: intentionally left empty.
+        return 0;
+    }
+}
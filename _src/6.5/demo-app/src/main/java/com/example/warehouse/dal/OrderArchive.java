@@ -0,0 +1,23 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.WarehouseException;
+
+import java.time.LocalDate;
+import java.util.SortedMap;
+
+// INFO: old, fulfilled orders are moved out of the live order tables into
+// the archive, and are only available to reports in a pre-aggregated form.
+public interface OrderArchive {
+
+    SortedMap<LocalDate, DailyOrderTotals> getDailyTotals() throws WarehouseException;
+
+    // INFO: reports need both read together, orders archived in between two
+    // separate reads would be in neither. Archives that can't read the live
+    // orders along with their totals read one after the other.
+    default OrderSnapshot getSnapshot(OrderDao orderDao) throws WarehouseException {
+        SortedMap<LocalDate, DailyOrderTotals> dailyTotals = getDailyTotals();
+        return new OrderSnapshot(dailyTotals, orderDao.getOrders());
+    }
+
+    int archiveOrders(LocalDate horizon) throws WarehouseException;
+}
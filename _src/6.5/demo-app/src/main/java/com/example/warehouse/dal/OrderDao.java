@@ -12,4 +12,7 @@ public interface OrderDao {
     Order getOrder(int id) throws WarehouseException;
 
     void addOrder(Order order) throws WarehouseException;
+
+    // INFO: returns false when the order was already fulfilled or doesn't exist.
+    boolean fulfillOrder(int id) throws WarehouseException;
 }
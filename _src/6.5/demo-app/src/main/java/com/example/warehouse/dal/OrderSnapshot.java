@@ -0,0 +1,28 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Order;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.SortedMap;
+
+// INFO: the archived daily totals and the live orders as of the same moment,
+// every fulfilled order is in exactly one of them.
+public final class OrderSnapshot {
+
+    private final SortedMap<LocalDate, DailyOrderTotals> dailyTotals;
+    private final Collection<Order> orders;
+
+    public OrderSnapshot(SortedMap<LocalDate, DailyOrderTotals> dailyTotals, Collection<Order> orders) {
+        this.dailyTotals = dailyTotals;
+        this.orders = orders;
+    }
+
+    public SortedMap<LocalDate, DailyOrderTotals> getDailyTotals() {
+        return dailyTotals;
+    }
+
+    public Collection<Order> getOrders() {
+        return orders;
+    }
+}
@@ -1,13 +1,14 @@
 package com.example.warehouse.delivery;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.export.Compression;
 import com.example.warehouse.export.ExportType;
 
 public abstract class AbstractReportDelivery implements ReportDelivery {
 
     private final String name;
 
-    private long tempMillis;
+    private final ReportDeliveryMetrics metrics = new ReportDeliveryMetrics();
 
     protected AbstractReportDelivery(String name) {
         this.name = name;
@@ -19,20 +20,23 @@ public abstract class AbstractReportDelivery implements ReportDelivery {
     }
 
     @Override
-    public final void deliver(Report.Type reportType, ExportType exportType, byte[] bytes) throws ReportDeliveryException {
-        beforeDoDeliver();
-        doDeliver(reportType, exportType, bytes);
-        afterDoDeliver();
+    public final ReportDeliveryMetrics getMetrics() {
+        return metrics;
     }
 
-    protected void beforeDoDeliver() {
-        tempMillis = System.currentTimeMillis();
+    // INFO: deliveries may run on several queue workers at once, so the
+    // timing is kept on the stack and only the totals are shared.
+    @Override
+    public final void deliver(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) throws ReportDeliveryException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            doDeliver(reportType, exportType, compression, bytes);
+            success = true;
+        } finally {
+            metrics.recordDelivery(System.nanoTime() - start, success);
+        }
     }
 
-    protected abstract void doDeliver(Report.Type reportType, ExportType exportType, byte[] bytes) throws ReportDeliveryException;
-
-    protected void afterDoDeliver() {
-        long tookMillis = System.currentTimeMillis() - tempMillis;
-        System.out.printf("Report delivery took: %sms.%n", tookMillis);
-    }
+    protected abstract void doDeliver(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) throws ReportDeliveryException;
 }
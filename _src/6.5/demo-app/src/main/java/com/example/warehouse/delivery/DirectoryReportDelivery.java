@@ -1,6 +1,7 @@
 package com.example.warehouse.delivery;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.export.Compression;
 import com.example.warehouse.export.ExportType;
 
 import java.io.IOException;
@@ -22,10 +23,10 @@ public class DirectoryReportDelivery extends AbstractReportDelivery {
     }
 
     @Override
-    protected void doDeliver(Report.Type reportType, ExportType exportType, byte[] bytes) throws ReportDeliveryException {
+    protected void doDeliver(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) throws ReportDeliveryException {
         String timestamp = LocalDateTime.now().format(DATE_TIME_FORMATTER);
         String name = reportType.getDisplayName();
-        String extension = exportType.getFileExtension();
+        String extension = compression.getFileExtension(exportType);
         String filename = String.format("%s-%s.%s", timestamp, name, extension);
         try {
             Files.write(dir.resolve(filename), bytes);
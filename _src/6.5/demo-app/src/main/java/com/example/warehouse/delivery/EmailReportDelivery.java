@@ -1,6 +1,7 @@
 package com.example.warehouse.delivery;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.export.Compression;
 import com.example.warehouse.export.ExportType;
 
 import javax.activation.DataHandler;
@@ -35,14 +36,14 @@ public class EmailReportDelivery extends AbstractReportDelivery {
     }
 
     @Override
-    protected void doDeliver(Report.Type reportType, ExportType exportType, byte[] bytes) throws ReportDeliveryException {
+    protected void doDeliver(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) throws ReportDeliveryException {
         try {
             MimeBodyPart msgBodyPart = new MimeBodyPart();
             msgBodyPart.setContent(String.format("Please the attached %s report.", exportType), "text/plain");
 
             MimeBodyPart attachmentBodyPart = new MimeBodyPart();
-            attachmentBodyPart.setDataHandler(new DataHandler(new ByteArrayDataSource(bytes, exportType.getMimeType())));
-            attachmentBodyPart.setFileName(String.format("export.%s", exportType.getFileExtension()));
+            attachmentBodyPart.setDataHandler(new DataHandler(new ByteArrayDataSource(bytes, compression.getMimeType(exportType))));
+            attachmentBodyPart.setFileName(String.format("export.%s", compression.getFileExtension(exportType)));
 
             Multipart multipart = new MimeMultipart();
             multipart.addBodyPart(msgBodyPart);
@@ -1,6 +1,7 @@
 package com.example.warehouse.delivery;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.export.Compression;
 import com.example.warehouse.export.ExportType;
 
 public class NoReportDelivery extends AbstractReportDelivery {
@@ -10,17 +11,7 @@ public class NoReportDelivery extends AbstractReportDelivery {
     }
 
     @Override
-    protected void beforeDoDeliver() {
-        // INFO: no-op.
-    }
-
-    @Override
-    protected void doDeliver(Report.Type reportType, ExportType exportType, byte[] bytes) {
+    protected void doDeliver(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) {
         // INFO: intentionally left empty.
     }
-
-    @Override
-    protected void afterDoDeliver() {
-        // INFO: no-op.
-    }
 }
@@ -0,0 +1,292 @@
+package com.example.warehouse.delivery;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.export.Compression;
+import com.example.warehouse.export.ExportType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// INFO: hands deliveries to a channel's own workers instead of making them
+// in the caller's thread. The queue is bounded, when it's full callers wait
+// a while for room and are turned away after that. With a directory every
+// job is written to a file before it's queued and removed once it's done,
+// jobs left over by a previous run are queued again at startup, so jobs are
+// delivered at least once. The directory is locked for as long as the process
+// runs, a queue whose directory is locked by another one can't be created,
+// otherwise both would take each other's jobs for left-overs.
+public final class QueuedReportDelivery implements ReportDelivery {
+
+    private static final String JOB_SUFFIX = ".job";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String LOCK_FILE = "queue.lock";
+
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private static final class Job {
+
+        final Report.Type reportType;
+        final ExportType exportType;
+        final Compression compression;
+        final byte[] bytes;
+        final Path file;
+        final long queuedNanos = System.nanoTime();
+
+        Job(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes, Path file) {
+            this.reportType = reportType;
+            this.exportType = exportType;
+            this.compression = compression;
+            this.bytes = bytes;
+            this.file = file;
+        }
+    }
+
+    private final ReportDelivery delegate;
+    private final BlockingQueue<Job> queue;
+    private final int capacity;
+    private final int workers;
+    private final long offerMillis;
+    private final int maxAttempts;
+    private final Path directory;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    // INFO: kept so the lock isn't released before the process stops.
+    private FileLock lock;
+
+    // INFO: `directory` is optional, without it queued jobs are lost when
+    // the process stops. The workers start right away.
+    public QueuedReportDelivery(
+        ReportDelivery delegate,
+        String channel,
+        int capacity,
+        int workers,
+        long offerMillis,
+        int maxAttempts,
+        Path directory) {
+        if (capacity < 1 || workers < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("The queue capacity, workers and attempts must be greater than 0.");
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.workers = workers;
+        this.offerMillis = offerMillis;
+        this.maxAttempts = maxAttempts;
+        this.directory = directory == null ? null : directory.resolve(channel);
+
+        List<Path> leftOver = recover();
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, String.format("delivery-%s-%s", channel, i + 1));
+            thread.setDaemon(true);
+            thread.start();
+        }
+        if (!leftOver.isEmpty()) {
+            Thread thread = new Thread(() -> requeue(leftOver), String.format("delivery-%s-recovery", channel));
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public ReportDeliveryMetrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    // INFO: returns once the job is queued, failures of the delivery itself
+    // are only logged, the exception is about the job being turned away.
+    @Override
+    public void deliver(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) throws ReportDeliveryException {
+        Path file = directory == null ? null : persist(reportType, exportType, compression, bytes);
+        boolean queued;
+        try {
+            queued = queue.offer(new Job(reportType, exportType, compression, bytes, file), offerMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            delete(file);
+            getMetrics().recordRejected();
+            throw new ReportDeliveryException(String.format("%s is busy, try again later.", getName()));
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException ex) {
+                return;
+            }
+            getMetrics().recordQueueLatency(System.nanoTime() - job.queuedNanos);
+            if (!run(job)) {
+                return;
+            }
+            delete(job.file);
+        }
+    }
+
+    // INFO: returns false only when interrupted, the job then stays on disk.
+    private boolean run(Job job) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                delegate.deliver(job.reportType, job.exportType, job.compression, job.bytes);
+                return true;
+            } catch (ReportDeliveryException ex) {
+                if (attempt == maxAttempts) {
+                    System.err.println(String.format("Giving up on %s after %s attempts: %s", getName(), attempt, ex.getMessage()));
+                    return true;
+                }
+            } catch (RuntimeException ex) {
+                System.err.println(String.format("Dropping %s job: %s", getName(), ex.getMessage()));
+                return true;
+            }
+            try {
+                Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+            } catch (InterruptedException ex) {
+                return false;
+            }
+        }
+    }
+
+    // INFO: temporary files are jobs whose writing was cut short, they were
+    // never queued and are removed.
+    private List<Path> recover() {
+        if (directory == null) {
+            return List.of();
+        }
+        try {
+            Files.createDirectories(directory);
+            lock = lock(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files
+                    .filter(file -> file.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .forEach(QueuedReportDelivery::delete);
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                return files
+                    .filter(file -> file.getFileName().toString().endsWith(JOB_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Problem while opening report delivery queue: " + directory, ex);
+        }
+    }
+
+    private static FileLock lock(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Report delivery queue is already used by another process: " + directory);
+        }
+        return lock;
+    }
+
+    private void requeue(List<Path> files) {
+        for (Path file : files) {
+            try {
+                queue.put(read(file));
+            } catch (IOException ex) {
+                System.err.println(String.format("Dropping unreadable %s job %s: %s", getName(), file, ex.getMessage()));
+                delete(file);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    // INFO: jobs are written under a temporary name and renamed, so a file
+    // with the job suffix is always whole. Names sort in queue order.
+    private Path persist(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) throws ReportDeliveryException {
+        String name = String.format("%013d-%09d", System.currentTimeMillis(), sequence.incrementAndGet() % 1_000_000_000);
+        Path temp = directory.resolve(name + TEMP_SUFFIX);
+        Path file = directory.resolve(name + JOB_SUFFIX);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeUTF(reportType.name());
+                out.writeUTF(exportType.name());
+                out.writeUTF(compression.name());
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            return Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            delete(temp);
+            throw new ReportDeliveryException("Problem while queueing report delivery.", ex);
+        }
+    }
+
+    private static Job read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Report.Type reportType = Report.Type.valueOf(in.readUTF());
+            ExportType exportType = ExportType.valueOf(in.readUTF());
+            Compression compression = Compression.valueOf(in.readUTF());
+            // INFO: a corrupt length mustn't be allocated, it can't be longer than the file.
+            int length = in.readInt();
+            if (length < 0 || length > Files.size(file)) {
+                throw new IOException("Report delivery job has a length out of range: " + length);
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new Job(reportType, exportType, compression, bytes, file);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Unknown type in report delivery job: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void delete(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            System.err.println(String.format("Problem while removing report delivery job %s: %s", file, ex.getMessage()));
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.warehouse.delivery;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.export.Compression;
 import com.example.warehouse.export.ExportType;
 
 public interface ReportDelivery {
 
     String getName();
 
-    void deliver(Report.Type reportType, ExportType exportType, byte[] bytes) throws ReportDeliveryException;
+    ReportDeliveryMetrics getMetrics();
+
+    default void deliver(Report.Type reportType, ExportType exportType, byte[] bytes) throws ReportDeliveryException {
+        deliver(reportType, exportType, Compression.NONE, bytes);
+    }
+
+    // INFO: `bytes` are the export already compressed with `compression`.
+    void deliver(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) throws ReportDeliveryException;
 }
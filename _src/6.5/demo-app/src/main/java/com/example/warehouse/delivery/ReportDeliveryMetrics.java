@@ -0,0 +1,64 @@
+package com.example.warehouse.delivery;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// INFO: how long deliveries take and, when they're queued, how long they
+// wait for a worker. Updated by every worker at once, so it's lock-free.
+public final class ReportDeliveryMetrics {
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deliveryNanos = new LongAdder();
+
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    void recordDelivery(long nanos, boolean success) {
+        (success ? delivered : failed).increment();
+        deliveryNanos.add(nanos);
+    }
+
+    void recordQueueLatency(long nanos) {
+        dequeued.increment();
+        queueNanos.add(nanos);
+        maxQueueNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getAverageDeliveryMillis() {
+        long count = delivered.sum() + failed.sum();
+        return count == 0 ? 0 : toMillis(deliveryNanos.sum()) / count;
+    }
+
+    public double getAverageQueueMillis() {
+        long count = dequeued.sum();
+        return count == 0 ? 0 : toMillis(queueNanos.sum()) / count;
+    }
+
+    public double getMaxQueueMillis() {
+        return toMillis(maxQueueNanos.get());
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
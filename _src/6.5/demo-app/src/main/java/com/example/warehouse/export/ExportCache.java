@@ -0,0 +1,399 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportParameters;
+import com.example.warehouse.WarehouseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+// INFO: finished exports, keyed by what they were made from: report type,
+// export type, compression, report parameters and the version of the data.
+// A new data version makes every older entry useless, so they're dropped as
+// soon as it's first asked for. Exports are kept in memory up to a bound, the
+// least recently used ones beyond it are spilled to files when a directory is
+// given, otherwise they're dropped. Exports larger than the memory bound are
+// sent but not kept. ETags are worked out from the key alone, so requests
+// can be answered with a 304 before anything is exported.
+//
+// The data version has to change with every change to the data, whoever
+// makes it, e.g. `Warehouse.getDataVersion` reads it from the database
+// every order change bumps. It has to be read before the data the export is
+// made from, so an export is never older than its version. A restart makes
+// new ETags, as they include a value picked when the cache is created.
+public final class ExportCache {
+
+    @FunctionalInterface
+    public interface Export {
+
+        void writeTo(OutputStream out) throws WarehouseException;
+    }
+
+    private static final class Entry {
+
+        private final int size;
+
+        // INFO: exactly one of them is set, `file` once the entry is spilled.
+        // Both are only changed with the cache locked, the spilled file is
+        // deleted once the entry is dropped and no reader holds it anymore.
+        private volatile byte[] bytes;
+        private volatile Path file;
+        private int readers;
+        private boolean dropped;
+
+        private Entry(byte[] bytes) {
+            this.size = bytes.length;
+            this.bytes = bytes;
+        }
+
+        private void writeTo(OutputStream out) throws IOException {
+            byte[] current = bytes;
+            if (current != null) {
+                out.write(current);
+            } else {
+                Files.copy(file, out);
+            }
+        }
+    }
+
+    // INFO: passes everything on to `out` and keeps a copy, unless there's
+    // more than `limit` bytes.
+    private static final class CopyingOutputStream extends FilterOutputStream {
+
+        private final long limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CopyingOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            keep(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            keep(b, off, len);
+        }
+
+        // INFO: `out` isn't closed, it belongs to the caller.
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        byte[] getCopy() {
+            return copy == null ? null : copy.toByteArray();
+        }
+
+        private void keep(byte[] b, int off, int len) {
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + (long) len > limit) {
+                copy = null;
+            } else {
+                copy.write(b, off, len);
+            }
+        }
+    }
+
+    private static final class Key {
+        final Report.Type reportType;
+        final ExportType exportType;
+        final Compression compression;
+        final LocalDate from;
+        final LocalDate to;
+        final Report.Granularity granularity;
+        final Report.Ranking ranking;
+        final int limit;
+        final long version;
+
+        Key(Report.Type reportType, ExportType exportType, Compression compression, ReportParameters parameters, long version) {
+            this.reportType = reportType;
+            this.exportType = exportType;
+            this.compression = compression;
+            this.from = parameters.getFrom();
+            this.to = parameters.getTo();
+            this.granularity = parameters.getGranularity();
+            this.ranking = parameters.getRanking();
+            this.limit = parameters.getLimit();
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return limit == key.limit
+                && version == key.version
+                && reportType == key.reportType
+                && exportType == key.exportType
+                && compression == key.compression
+                && Objects.equals(from, key.from)
+                && Objects.equals(to, key.to)
+                && granularity == key.granularity
+                && ranking == key.ranking;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reportType, exportType, compression, from, to, granularity, ranking, limit, version);
+        }
+
+        String toETag(String instance) {
+            String key = String.join("/", instance, reportType.name(), exportType.name(), compression.name(),
+                String.valueOf(from), String.valueOf(to), String.valueOf(granularity), String.valueOf(ranking),
+                Integer.toString(limit), Long.toString(version));
+            return hash(key.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final String SPILL_PREFIX = "export-";
+    private static final String SPILL_SUFFIX = ".bin";
+
+    private final String instance = Long.toHexString(new SecureRandom().nextLong());
+    private final long maxMemoryBytes;
+    private final Path spillDirectory;
+    private final long maxDiskBytes;
+
+    // INFO: in access order, so the eldest entry is the least recently used.
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long version;
+    private long memoryBytes;
+    private long diskBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // INFO: nothing is spilled when `spillDirectory` is null, a memory bound
+    // of 0 keeps nothing, but ETags are still worked out. Files spilled by
+    // an earlier run can't be read anymore, they're deleted up front.
+    public ExportCache(long maxMemoryBytes, Path spillDirectory, long maxDiskBytes) {
+        if (maxMemoryBytes < 0 || maxDiskBytes < 0) {
+            throw new IllegalArgumentException("The export cache bounds cannot be negative.");
+        }
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.spillDirectory = spillDirectory;
+        this.maxDiskBytes = spillDirectory == null ? 0 : maxDiskBytes;
+        if (spillDirectory != null) {
+            deleteSpilledFiles();
+        }
+    }
+
+    // INFO: quoted, as it's sent in the `ETag` header.
+    public String getETag(
+        Report.Type reportType,
+        ExportType exportType,
+        Compression compression,
+        ReportParameters parameters,
+        long dataVersion) {
+        return new Key(reportType, exportType, compression, parameters, dataVersion).toETag(instance);
+    }
+
+    public static boolean matches(String eTag, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // INFO: writes the kept export to `out`, or makes it straight into `out`
+    // and keeps a copy. Concurrent requests for the same missing export each
+    // make it, only one of them is kept.
+    public void writeTo(
+        Report.Type reportType,
+        ExportType exportType,
+        Compression compression,
+        ReportParameters parameters,
+        long dataVersion,
+        Export export,
+        OutputStream out) throws WarehouseException, IOException {
+        Key key = new Key(reportType, exportType, compression, parameters, dataVersion);
+        Entry entry;
+        synchronized (this) {
+            if (dataVersion > version) {
+                version = dataVersion;
+                clear();
+            }
+            entry = entries.get(key);
+            if (entry != null) {
+                entry.readers++;
+            }
+        }
+        if (entry != null) {
+            hits.increment();
+            try {
+                entry.writeTo(out);
+            } finally {
+                release(entry);
+            }
+            return;
+        }
+        misses.increment();
+        CopyingOutputStream copying = new CopyingOutputStream(out, maxMemoryBytes);
+        export.writeTo(copying);
+        copying.flush();
+        byte[] bytes = copying.getCopy();
+        if (bytes == null) {
+            return;
+        }
+        synchronized (this) {
+            if (dataVersion < version || entries.containsKey(key)) {
+                return;
+            }
+            entries.put(key, new Entry(bytes));
+            memoryBytes += bytes.length;
+            evict();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    // INFO: spills the least recently used entries kept in memory while
+    // there's room on disk, then drops the least recently used ones.
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.bytes == null) {
+                continue;
+            }
+            if (diskBytes + entry.size <= maxDiskBytes && spill(entry)) {
+                memoryBytes -= entry.size;
+                diskBytes += entry.size;
+            } else {
+                iterator.remove();
+                drop(entry);
+            }
+        }
+        iterator = entries.values().iterator();
+        while (diskBytes > maxDiskBytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.file != null) {
+                iterator.remove();
+                drop(entry);
+            }
+        }
+    }
+
+    private boolean spill(Entry entry) {
+        try {
+            Path file = Files.createTempFile(spillDirectory, SPILL_PREFIX, SPILL_SUFFIX);
+            Files.write(file, entry.bytes);
+            entry.file = file;
+            entry.bytes = null;
+            return true;
+        } catch (IOException ex) {
+            System.err.println("Problem while spilling export to disk: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private void clear() {
+        entries.values().forEach(this::drop);
+        entries.clear();
+    }
+
+    private void drop(Entry entry) {
+        if (entry.bytes != null) {
+            memoryBytes -= entry.size;
+            return;
+        }
+        diskBytes -= entry.size;
+        entry.dropped = true;
+        if (entry.readers == 0) {
+            delete(entry.file);
+        }
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.readers--;
+        if (entry.readers == 0 && entry.dropped && entry.file != null) {
+            delete(entry.file);
+        }
+    }
+
+    // INFO: a file that can't be deleted is left behind, the cache goes on
+    // without it.
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            System.err.println("Problem while removing spilled export: " + ex.getMessage());
+        }
+    }
+
+    private void deleteSpilledFiles() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory, SPILL_PREFIX + "*" + SPILL_SUFFIX)) {
+            files.forEach(ExportCache::delete);
+        } catch (IOException ex) {
+            System.err.println("Problem while removing spilled exports: " + ex.getMessage());
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Every JVM supports SHA-256, this cannot happen.", ex);
+        }
+        char[] chars = new char[34];
+        chars[0] = '"';
+        for (int i = 0; i < 16; i++) {
+            chars[1 + i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+            chars[2 + i * 2] = HEX_DIGITS[digest[i] & 0xf];
+        }
+        chars[33] = '"';
+        return new String(chars);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Deadline;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+// INFO: writes rows of a forward-only result set straight to the output in
+// the same layout as the CSV and JSON exporters do, without creating a
+// `Report` for them first. Used for bulk exports of DB-backed warehouses.
+public final class ResultSetExporter {
+
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final String SEPARATOR = ",";
+
+    private enum ColumnType {
+        DATE,
+        NUMBER,
+        STRING
+    }
+
+    public static boolean isSupported(ExportType type) {
+        return type == ExportType.CSV || type == ExportType.JSON;
+    }
+
+    private final ExportType type;
+    private final OutputStream out;
+
+    public ResultSetExporter(ExportType type, OutputStream out) {
+        if (!isSupported(type)) {
+            throw new IllegalArgumentException(String.format("Export type %s not supported.", type));
+        }
+        this.type = type;
+        this.out = out;
+    }
+
+    public void export(List<String> labels, ResultSet rs) throws SQLException, IOException {
+        ColumnType[] columnTypes = getColumnTypes(rs.getMetaData(), labels.size());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (type == ExportType.CSV) {
+            exportCsv(writer, labels, columnTypes, rs);
+        } else {
+            exportJson(writer, labels, columnTypes, rs);
+        }
+        // INFO: flushed, not closed, the caller owns the underlying stream.
+        writer.flush();
+    }
+
+    private void exportCsv(Writer writer, List<String> labels, ColumnType[] columnTypes, ResultSet rs) throws SQLException, IOException {
+        writer.write(String.join(SEPARATOR, labels));
+        writer.write(NEW_LINE);
+        Deadline deadline = Deadline.current();
+        while (rs.next()) {
+            deadline.check();
+            for (int i = 0; i < columnTypes.length; i++) {
+                if (i != 0) {
+                    writer.write(SEPARATOR);
+                }
+                writeValue(writer, columnTypes[i], rs, i + 1);
+            }
+            writer.write(NEW_LINE);
+        }
+    }
+
+    private void exportJson(Writer writer, List<String> labels, ColumnType[] columnTypes, ResultSet rs) throws SQLException, IOException {
+        String[] keys = new String[labels.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "\t\t\"" + labels.get(i) + "\": ";
+        }
+        writer.write("[");
+        writer.write(NEW_LINE);
+        boolean first = true;
+        Deadline deadline = Deadline.current();
+        while (rs.next()) {
+            deadline.check();
+            if (!first) {
+                writer.write(",");
+                writer.write(NEW_LINE);
+            }
+            first = false;
+            writer.write("\t{");
+            writer.write(NEW_LINE);
+            for (int i = 0; i < columnTypes.length; i++) {
+                writer.write(keys[i]);
+                if (columnTypes[i] == ColumnType.NUMBER) {
+                    writeValue(writer, columnTypes[i], rs, i + 1);
+                } else {
+                    writer.write('"');
+                    writeValue(writer, columnTypes[i], rs, i + 1);
+                    writer.write('"');
+                }
+                if (i != columnTypes.length - 1) {
+                    writer.write(",");
+                }
+                writer.write(NEW_LINE);
+            }
+            writer.write("\t}");
+        }
+        if (!first) {
+            writer.write(NEW_LINE);
+        }
+        writer.write("]");
+        writer.write(NEW_LINE);
+    }
+
+    private static void writeValue(Writer writer, ColumnType columnType, ResultSet rs, int column) throws SQLException, IOException {
+        if (columnType == ColumnType.NUMBER) {
+            writer.write(Long.toString(rs.getLong(column)));
+        } else if (columnType == ColumnType.DATE) {
+            writer.write(rs.getDate(column).toLocalDate().toString());
+        } else {
+            writer.write(rs.getString(column));
+        }
+    }
+
+    private static ColumnType[] getColumnTypes(ResultSetMetaData metaData, int labelCount) throws SQLException {
+        if (metaData.getColumnCount() != labelCount) {
+            throw new IllegalArgumentException("There must be a label for every column.");
+        }
+        ColumnType[] columnTypes = new ColumnType[labelCount];
+        for (int i = 0; i < labelCount; i++) {
+            switch (metaData.getColumnType(i + 1)) {
+                case Types.DATE:
+                    columnTypes[i] = ColumnType.DATE;
+                    break;
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    columnTypes[i] = ColumnType.NUMBER;
+                    break;
+                default:
+                    columnTypes[i] = ColumnType.STRING;
+            }
+        }
+        return columnTypes;
+    }
+}
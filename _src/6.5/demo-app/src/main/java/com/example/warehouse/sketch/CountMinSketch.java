@@ -0,0 +1,69 @@
+package com.example.warehouse.sketch;
+
+// INFO: estimates how often each value was counted, never below the real
+// count and with probability 1 - delta at most epsilon * total above it.
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[][] counts;
+    private long total;
+
+    public CountMinSketch(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("Epsilon must be between 0 and 1.");
+        }
+        if (delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Delta must be between 0 and 1.");
+        }
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = (int) Math.ceil(Math.log(1 / delta));
+        this.counts = new long[depth][width];
+    }
+
+    public synchronized void add(long value, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative.");
+        }
+        long hash = Hashing.hash(value);
+        for (int row = 0; row < depth; row++) {
+            counts[row][index(hash, row)] += count;
+        }
+        total += count;
+    }
+
+    public synchronized long estimate(long value) {
+        long hash = Hashing.hash(value);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row][index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public synchronized void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions.");
+        }
+        synchronized (other) {
+            for (int row = 0; row < depth; row++) {
+                for (int column = 0; column < width; column++) {
+                    counts[row][column] += other.counts[row][column];
+                }
+            }
+            total += other.total;
+        }
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    // INFO: rows use different halves and multiples of the same 64 bit hash,
+    // the usual double hashing trick instead of `depth` hash functions.
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + row * h2, width);
+    }
+}
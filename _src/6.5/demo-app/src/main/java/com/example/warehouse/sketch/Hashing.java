@@ -0,0 +1,16 @@
+package com.example.warehouse.sketch;
+
+final class Hashing {
+
+    // INFO: the finalizer of SplitMix64, spreads consecutive IDs over all
+    // 64 bits, which the sketches rely on.
+    static long hash(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private Hashing() {
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.warehouse.sketch;
+
+import java.util.Arrays;
+
+// INFO: keeps counts of non-negative values in buckets growing
+// exponentially by gamma = (1 + a) / (1 - a), so every quantile is
+// estimated within relative accuracy `a`, with a number of buckets
+// logarithmic in the range of values.
+public final class QuantileSketch {
+
+    private final double accuracy;
+    private final double logGamma;
+
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public QuantileSketch(double accuracy) {
+        if (accuracy <= 0 || accuracy >= 1) {
+            throw new IllegalArgumentException("Accuracy must be between 0 and 1.");
+        }
+        this.accuracy = accuracy;
+        this.logGamma = Math.log((1 + accuracy) / (1 - accuracy));
+    }
+
+    public synchronized void add(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative.");
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (value == 0) {
+            zeroCount++;
+        } else {
+            increment(index(value), 1);
+        }
+    }
+
+    public synchronized void merge(QuantileSketch other) {
+        if (other.accuracy != accuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of different accuracy.");
+        }
+        synchronized (other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    increment(i + other.offset, other.counts[i]);
+                }
+            }
+            zeroCount += other.zeroCount;
+            count += other.count;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    // INFO: `quantile` between 0 and 1, estimates are kept within the
+    // smallest and largest value added, those two are exact.
+    public synchronized long quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Cannot estimate quantiles without values.");
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        if (rank == 0) {
+            return min;
+        } else if (rank == count - 1) {
+            return max;
+        } else if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                double estimate = 2 * Math.exp((i + offset) * logGamma) / (1 + Math.exp(logGamma));
+                return Math.max(min, Math.min(max, Math.round(estimate)));
+            }
+        }
+        return max;
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    private int index(long value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private void increment(int index, long by) {
+        if (counts.length == 0) {
+            counts = new long[1];
+            offset = index;
+        } else if (index < offset) {
+            long[] grown = new long[counts.length + offset - index];
+            System.arraycopy(counts, 0, grown, offset - index, counts.length);
+            counts = grown;
+            offset = index;
+        } else if (index >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, index - offset + 1);
+        }
+        counts[index - offset] += by;
+    }
+}
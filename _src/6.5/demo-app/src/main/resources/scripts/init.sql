@@ -7,6 +7,7 @@ CREATE TABLE products (
 CREATE TABLE inventory (
     product_id INT NOT NULL UNIQUE,
     quantity INT NOT NULL CHECK (quantity >= 0),
+    version INT NOT NULL DEFAULT 0,
     FOREIGN KEY (product_id) REFERENCES products(id)
 );
 
@@ -25,6 +26,31 @@ CREATE TABLE order_details (
     FOREIGN KEY (product_id) REFERENCES products(id)
 );
 
+CREATE TABLE orders_archive (
+    partition_month INT NOT NULL,
+    order_id INT NOT NULL,
+    customer_id INT NOT NULL,
+    order_date DATE NOT NULL,
+    order_lines TEXT NOT NULL,
+    total_products BIGINT NOT NULL,
+    total_revenue BIGINT NOT NULL,
+    PRIMARY KEY (partition_month, order_id)
+);
+
+CREATE TABLE order_rollups (
+    order_date DATE PRIMARY KEY,
+    total_products BIGINT NOT NULL,
+    total_revenue BIGINT NOT NULL
+);
+
+CREATE TABLE data_version (
+    version BIGINT NOT NULL
+);
+
+CREATE INDEX orders_order_date ON orders(order_date);
+
+INSERT INTO data_version VALUES (0);
+
 INSERT INTO products VALUES (2, 'computer', 1234);
 INSERT INTO products VALUES (4, 'sun glasses', 12);
 INSERT INTO products VALUES (6, 'toothbrush', 2);
@@ -47,23 +73,23 @@ INSERT INTO products VALUES (99, 'mobile phone', 159);
 INSERT INTO products VALUES (100, 'rubber duck', 4);
 INSERT INTO products VALUES (112, 'teddy bear', 10);
 
-INSERT INTO inventory VALUES (2, 2);
-INSERT INTO inventory VALUES (4, 10);
-INSERT INTO inventory VALUES (6, 100);
-INSERT INTO inventory VALUES (9, 1);
-INSERT INTO inventory VALUES (15, 49);
-INSERT INTO inventory VALUES (25, 33);
-INSERT INTO inventory VALUES (31, 999);
-INSERT INTO inventory VALUES (32, 10010);
-INSERT INTO inventory VALUES (38, 34);
-INSERT INTO inventory VALUES (61, 45);
-INSERT INTO inventory VALUES (65, 234);
-INSERT INTO inventory VALUES (77, 1234);
-INSERT INTO inventory VALUES (87, 5);
-INSERT INTO inventory VALUES (89, 22);
-INSERT INTO inventory VALUES (99, 124);
-INSERT INTO inventory VALUES (100, 224);
-INSERT INTO inventory VALUES (112, 47);
+INSERT INTO inventory VALUES (2, 2, 0);
+INSERT INTO inventory VALUES (4, 10, 0);
+INSERT INTO inventory VALUES (6, 100, 0);
+INSERT INTO inventory VALUES (9, 1, 0);
+INSERT INTO inventory VALUES (15, 49, 0);
+INSERT INTO inventory VALUES (25, 33, 0);
+INSERT INTO inventory VALUES (31, 999, 0);
+INSERT INTO inventory VALUES (32, 10010, 0);
+INSERT INTO inventory VALUES (38, 34, 0);
+INSERT INTO inventory VALUES (61, 45, 0);
+INSERT INTO inventory VALUES (65, 234, 0);
+INSERT INTO inventory VALUES (77, 1234, 0);
+INSERT INTO inventory VALUES (87, 5, 0);
+INSERT INTO inventory VALUES (89, 22, 0);
+INSERT INTO inventory VALUES (99, 124, 0);
+INSERT INTO inventory VALUES (100, 224, 0);
+INSERT INTO inventory VALUES (112, 47, 0);
 
 INSERT INTO orders VALUES (2, 12, '2019-01-05', 0);
 INSERT INTO orders VALUES (4, 33, '2019-01-11', 0);
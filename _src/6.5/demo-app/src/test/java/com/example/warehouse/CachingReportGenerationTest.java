@@ -0,0 +1,105 @@
+package com.example.warehouse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CachingReportGenerationTest {
+
+    private static final Order ORDER = new Order(
+        new Customer(1, "test"), LocalDate.of(2019, 1, 1), Map.of(new Product(1, "test", 10), 1));
+
+    private AtomicInteger generations;
+    private ReportCache reportCache;
+    private CachingReportGeneration reportGeneration;
+
+    @BeforeEach
+    void beforeEach() {
+        generations = new AtomicInteger();
+        reportCache = new ReportCache();
+        reportGeneration = new CachingReportGeneration(type -> {
+            generations.incrementAndGet();
+            Report report = new Report();
+            report.addLabel("Date");
+            report.addLabel("Total revenue");
+            report.addRecord(LocalDate.of(2019, 1, 1), 100);
+            report.addRecord(LocalDate.of(2019, 2, 1), 200);
+            return report;
+        }, reportCache, 1);
+    }
+
+    @Test
+    void reusesReportWhileNothingChanged() throws Exception {
+        // when
+        Report first = reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+        Report second = reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+        Report third = reportGeneration.generateReport(Report.Type.DAILY_REVENUE, ReportParameters.all());
+
+        // then
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(1, generations.get());
+        assertEquals(2, reportCache.getHits());
+        assertEquals(1, reportCache.getMisses());
+    }
+
+    @Test
+    void generatesReportAgainAfterWrites() throws Exception {
+        // given
+        Report before = reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+
+        // when
+        reportGeneration.orderAdded(ORDER);
+        Report afterOrder = reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+        reportGeneration.orderFulfilled(ORDER);
+        Report afterFulfilment = reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+        reportGeneration.productAdded(new Product(2, "test", 20));
+        Report afterProduct = reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+
+        // then
+        assertNotSame(before, afterOrder);
+        assertNotSame(afterOrder, afterFulfilment);
+        assertNotSame(afterFulfilment, afterProduct);
+        assertEquals(4, generations.get());
+    }
+
+    @Test
+    void doesntServeOtherParametersFromCache() throws Exception {
+        // given
+        reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+        ReportParameters january = new ReportParameters(LocalDate.of(2019, 1, 1), LocalDate.of(2019, 1, 31), Report.Granularity.DAY);
+        ReportParameters monthly = new ReportParameters(null, null, Report.Granularity.MONTH);
+
+        // when
+        Report januaryReport = reportGeneration.generateReport(Report.Type.DAILY_REVENUE, january);
+        Report monthlyReport = reportGeneration.generateReport(Report.Type.DAILY_REVENUE, monthly);
+
+        // then
+        assertEquals(1, januaryReport.getRecordCount());
+        assertEquals(2, monthlyReport.getRecordCount());
+        assertEquals(3, generations.get());
+        assertEquals(0, reportCache.getHits());
+    }
+
+    @Test
+    void keepsClientsApart() throws Exception {
+        // given
+        CachingReportGeneration otherClient = new CachingReportGeneration(
+            type -> new Report(), reportCache, 2);
+
+        // when
+        Report first = reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+        Report other = otherClient.generateReport(Report.Type.DAILY_REVENUE);
+
+        // then
+        assertNotSame(first, other);
+        assertSame(first, reportGeneration.generateReport(Report.Type.DAILY_REVENUE));
+    }
+}
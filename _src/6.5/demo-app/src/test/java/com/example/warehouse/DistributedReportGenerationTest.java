@@ -0,0 +1,100 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.MemoryCustomerDao;
+import com.example.warehouse.dal.MemoryOrderDao;
+import com.example.warehouse.dal.MemoryProductDao;
+import com.example.warehouse.dal.NoOrderArchive;
+import com.example.warehouse.dal.OrderDao;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.warehouse.ReportAssertions.assertSameRecords;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DistributedReportGenerationTest {
+
+    private static final int MEMBERS = 3;
+
+    private static final List<HazelcastInstance> INSTANCES = new ArrayList<>();
+
+    @BeforeAll
+    static void beforeAll() {
+        // INFO: a cluster of its own, formed over the loopback interface only.
+        Config config = new Config();
+        config.getGroupConfig().setName("distributed-report-test");
+        config.setProperty("hazelcast.logging.type", "none");
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getMapConfig("orders-*").setInMemoryFormat(InMemoryFormat.OBJECT);
+        for (int i = 0; i < MEMBERS; i++) {
+            INSTANCES.add(Hazelcast.newHazelcastInstance(config));
+        }
+    }
+
+    @AfterAll
+    static void afterAll() {
+        INSTANCES.forEach(HazelcastInstance::shutdown);
+    }
+
+    @Test
+    void givesSameReportsAsSequentialGeneration() throws Exception {
+        // given
+        OrderDao orderDao = newOrderDao();
+
+        // when
+        Report distributed = new DistributedReportGeneration(
+            INSTANCES.get(0), "orders-same", orderDao, new NoOrderArchive(), false, false)
+            .generateReport(Report.Type.DAILY_REVENUE);
+        Report distributedAlternative = new DistributedReportGeneration(
+            INSTANCES.get(1), "orders-same-alternative", orderDao, new NoOrderArchive(), true, true)
+            .generateReport(Report.Type.DAILY_REVENUE);
+
+        // then
+        assertSameRecords(
+            new DefaultReportGeneration(orderDao, new NoOrderArchive()).generateReport(Report.Type.DAILY_REVENUE),
+            distributed);
+        assertSameRecords(
+            new AlternativeReportGeneration(orderDao, new NoOrderArchive()).generateReport(Report.Type.DAILY_REVENUE),
+            distributedAlternative);
+    }
+
+    @Test
+    void seesOrdersAddedThroughOtherMembers() throws Exception {
+        // given
+        OrderDao orderDao = newOrderDao();
+        DistributedReportGeneration first = new DistributedReportGeneration(
+            INSTANCES.get(0), "orders-shared", orderDao, new NoOrderArchive(), true, true);
+        DistributedReportGeneration second = new DistributedReportGeneration(
+            INSTANCES.get(MEMBERS - 1), "orders-shared", orderDao, new NoOrderArchive(), true, true);
+        Product product = new Product(1000, "test", 25);
+        Order order = new Order(100000, new Customer(1, "test"), LocalDate.of(2000, 1, 1), Map.of(product, 4), true);
+
+        // when
+        second.orderAdded(order);
+
+        // then
+        Report report = first.generateReport(Report.Type.DAILY_REVENUE);
+        Report.Cursor record = report.cursor();
+        record.next();
+        assertEquals(LocalDate.of(2000, 1, 1), record.getDate(0));
+        assertEquals(4, record.getNumber(1));
+        assertEquals(100, record.getNumber(2));
+    }
+
+    private static OrderDao newOrderDao() {
+        MemoryProductDao productDao = new MemoryProductDao();
+        return new MemoryOrderDao(productDao, new MemoryCustomerDao());
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.DailyOrderTotals;
+import com.example.warehouse.dal.MemoryCustomerDao;
+import com.example.warehouse.dal.MemoryProductDao;
+import com.example.warehouse.dal.OrderArchive;
+import com.example.warehouse.dal.OrderDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.example.warehouse.ReportAssertions.assertSameRecords;
+
+class IncrementalReportGenerationTest {
+
+    private static final int ORDERS = 2000;
+
+    // INFO: live orders in a list and archived ones as daily totals, archiving
+    // moves fulfilled orders from one to the other like `DbOrderArchive` does.
+    private static final class ListOrderStore implements OrderDao, OrderArchive {
+
+        private final List<Order> orders = new ArrayList<>();
+        private final SortedMap<LocalDate, DailyOrderTotals> dailyTotals = new TreeMap<>();
+        private int lastId;
+
+        @Override
+        public Collection<Order> getOrders() {
+            return List.copyOf(orders);
+        }
+
+        @Override
+        public Order getOrder(int id) {
+            return orders.stream().filter(order -> order.getId() == id).findFirst().orElse(null);
+        }
+
+        @Override
+        public void addOrder(Order order) {
+            order.setId(++lastId);
+            orders.add(order);
+        }
+
+        @Override
+        public boolean fulfillOrder(int id) {
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                if (order.getId() == id && order.isPending()) {
+                    orders.set(i, new Order(id, order.getCustomer(), order.getDate(), order.getQuantities(), false));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public SortedMap<LocalDate, DailyOrderTotals> getDailyTotals() {
+            return new TreeMap<>(dailyTotals);
+        }
+
+        @Override
+        public int archiveOrders(LocalDate horizon) {
+            int archived = 0;
+            for (Iterator<Order> it = orders.iterator(); it.hasNext(); ) {
+                Order order = it.next();
+                if (order.isPending() || !order.getDate().isBefore(horizon)) {
+                    continue;
+                }
+                long totalProducts = order.getQuantities().values().stream().mapToLong(Integer::longValue).sum();
+                dailyTotals.merge(order.getDate(), new DailyOrderTotals(order.getDate(), totalProducts, order.getTotalPrice()),
+                    (a, b) -> new DailyOrderTotals(a.getDate(),
+                        a.getTotalProducts() + b.getTotalProducts(), a.getTotalRevenue() + b.getTotalRevenue()));
+                it.remove();
+                archived++;
+            }
+            return archived;
+        }
+    }
+
+    private List<Product> products;
+    private List<Customer> customers;
+    private Random random;
+
+    @BeforeEach
+    void beforeEach() throws WarehouseException {
+        products = new ArrayList<>(new MemoryProductDao().getProducts());
+        customers = new ArrayList<>(new MemoryCustomerDao().getCustomers());
+        random = new Random(42);
+    }
+
+    @Test
+    void givesSameReportAsDefaultGenerationAfterEvents() throws Exception {
+        // given
+        ListOrderStore store = newOrderStore();
+        IncrementalReportGeneration incremental = new IncrementalReportGeneration(store, store, false, false);
+
+        // when
+        sendEvents(store, incremental);
+
+        // then
+        assertSameRecords(
+            new DefaultReportGeneration(store, store).generateReport(Report.Type.DAILY_REVENUE),
+            incremental.generateReport(Report.Type.DAILY_REVENUE));
+    }
+
+    @Test
+    void givesSameReportAsAlternativeGenerationAfterEvents() throws Exception {
+        // given
+        ListOrderStore store = newOrderStore();
+        IncrementalReportGeneration incremental = new IncrementalReportGeneration(store, store, true, true);
+
+        // when
+        sendEvents(store, incremental);
+
+        // then
+        assertSameRecords(
+            new AlternativeReportGeneration(store, store).generateReport(Report.Type.DAILY_REVENUE),
+            incremental.generateReport(Report.Type.DAILY_REVENUE));
+    }
+
+    @Test
+    void keepsArchivedOrdersInReport() throws Exception {
+        // given
+        ListOrderStore store = newOrderStore();
+        IncrementalReportGeneration incremental = new IncrementalReportGeneration(store, store, true, true);
+
+        // when
+        store.archiveOrders(LocalDate.of(2020, 1, 1));
+
+        // then
+        assertSameRecords(
+            new AlternativeReportGeneration(store, store).generateReport(Report.Type.DAILY_REVENUE),
+            incremental.generateReport(Report.Type.DAILY_REVENUE));
+    }
+
+    @Test
+    void givesSameCoarseReportsAsBucketedDefaultGeneration() throws Exception {
+        // given
+        ListOrderStore store = newOrderStore();
+        IncrementalReportGeneration incremental = new IncrementalReportGeneration(store, store, false, false);
+        sendEvents(store, incremental);
+
+        // when/then
+        for (ReportParameters parameters : getCoarseParameters()) {
+            assertSameRecords(
+                new DefaultReportGeneration(store, store).generateReport(Report.Type.DAILY_REVENUE, parameters),
+                incremental.generateReport(Report.Type.DAILY_REVENUE, parameters));
+        }
+    }
+
+    @Test
+    void givesSameCoarseReportsAsBucketedAlternativeGeneration() throws Exception {
+        // given
+        ListOrderStore store = newOrderStore();
+        IncrementalReportGeneration incremental = new IncrementalReportGeneration(store, store, true, true);
+        sendEvents(store, incremental);
+
+        // when/then
+        for (ReportParameters parameters : getCoarseParameters()) {
+            assertSameRecords(
+                new AlternativeReportGeneration(store, store).generateReport(Report.Type.DAILY_REVENUE, parameters),
+                incremental.generateReport(Report.Type.DAILY_REVENUE, parameters));
+        }
+    }
+
+    // INFO: the sequential generations apply the parameters to their daily
+    // reports with `BucketingReportSink`. The range starts on a Wednesday in
+    // mid-February and ends on a Wednesday in mid-November, so it cuts the
+    // first and last week, month and year, the single-ended ranges cut one of them.
+    private static List<ReportParameters> getCoarseParameters() {
+        LocalDate from = LocalDate.of(2019, 2, 13);
+        LocalDate to = LocalDate.of(2019, 11, 20);
+        List<ReportParameters> parameters = new ArrayList<>();
+        for (Report.Granularity granularity : List.of(Report.Granularity.WEEK, Report.Granularity.MONTH, Report.Granularity.YEAR)) {
+            parameters.add(new ReportParameters(null, null, granularity));
+            parameters.add(new ReportParameters(from, to, granularity));
+            parameters.add(new ReportParameters(from, null, granularity));
+            parameters.add(new ReportParameters(null, to, granularity));
+        }
+        parameters.add(new ReportParameters(from, to, Report.Granularity.DAY));
+        return parameters;
+    }
+
+    // INFO: random orders over 2019, the fulfilled ones placed before July archived.
+    private ListOrderStore newOrderStore() {
+        ListOrderStore store = new ListOrderStore();
+        for (int i = 0; i < ORDERS; i++) {
+            store.addOrder(newOrder());
+        }
+        store.archiveOrders(LocalDate.of(2019, 7, 1));
+        return store;
+    }
+
+    // INFO: what `Warehouse` does when orders are added and fulfilled, with
+    // another round of archiving, which sends no events, in between.
+    private void sendEvents(ListOrderStore store, OrderListener listener) {
+        for (int i = 0; i < ORDERS / 4; i++) {
+            Order order = newOrder();
+            store.addOrder(order);
+            listener.orderAdded(order);
+        }
+        store.archiveOrders(LocalDate.of(2019, 10, 1));
+        for (Order order : store.getOrders()) {
+            if (order.isPending() && random.nextBoolean() && store.fulfillOrder(order.getId())) {
+                listener.orderFulfilled(order);
+            }
+        }
+    }
+
+    private Order newOrder() {
+        Map<Product, Integer> quantities = new HashMap<>();
+        for (int j = random.nextInt(3); j >= 0; j--) {
+            quantities.put(products.get(random.nextInt(products.size())), 1 + random.nextInt(5));
+        }
+        return new Order(
+            customers.get(random.nextInt(customers.size())),
+            LocalDate.of(2019, 1, 1).plusDays(random.nextInt(365)),
+            quantities,
+            random.nextBoolean());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.DailyOrderTotals;
+import com.example.warehouse.dal.OrderArchive;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderArchivingTest {
+
+    private static final class RecordingOrderArchive implements OrderArchive {
+
+        final List<LocalDate> horizons = new ArrayList<>();
+
+        @Override
+        public SortedMap<LocalDate, DailyOrderTotals> getDailyTotals() {
+            return new TreeMap<>();
+        }
+
+        @Override
+        public int archiveOrders(LocalDate horizon) {
+            horizons.add(horizon);
+            return 7;
+        }
+    }
+
+    @Test
+    void archivesOrdersBeforeHorizon() throws Exception {
+        // given
+        RecordingOrderArchive archive = new RecordingOrderArchive();
+        OrderArchiving archiving = new OrderArchiving(archive, 30);
+
+        // when
+        LocalDate today = LocalDate.now();
+        int archived = archiving.archive();
+
+        // then
+        assertEquals(7, archived);
+        assertEquals(List.of(today.minusDays(30)), archive.horizons);
+    }
+
+    @Test
+    void cantArchiveWithoutHorizon() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderArchiving(new RecordingOrderArchive(), 0));
+    }
+}
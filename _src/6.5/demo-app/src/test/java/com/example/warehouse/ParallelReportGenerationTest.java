@@ -0,0 +1,139 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.DailyOrderTotals;
+import com.example.warehouse.dal.MemoryCustomerDao;
+import com.example.warehouse.dal.MemoryOrderDao;
+import com.example.warehouse.dal.MemoryProductDao;
+import com.example.warehouse.dal.NoOrderArchive;
+import com.example.warehouse.dal.OrderArchive;
+import com.example.warehouse.dal.OrderDao;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.example.warehouse.ReportAssertions.assertSameRecords;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelReportGenerationTest {
+
+    private static final int ORDERS = 5000;
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void beforeAll() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        pool.shutdown();
+    }
+
+    @Test
+    void givesSameReportsAsSequentialGeneration() throws Exception {
+        // given
+        OrderDao orderDao = newOrderDao(ORDERS);
+        OrderArchive orderArchive = new NoOrderArchive();
+
+        // when/then
+        for (int chunkSize : new int[]{1, 7, 1000, ORDERS * 2}) {
+            assertSameRecords(
+                new DefaultReportGeneration(orderDao, orderArchive).generateReport(Report.Type.DAILY_REVENUE),
+                new ParallelReportGeneration(orderDao, orderArchive, false, false, pool, chunkSize)
+                    .generateReport(Report.Type.DAILY_REVENUE));
+            assertSameRecords(
+                new AlternativeReportGeneration(orderDao, orderArchive).generateReport(Report.Type.DAILY_REVENUE),
+                new ParallelReportGeneration(orderDao, orderArchive, true, true, pool, chunkSize)
+                    .generateReport(Report.Type.DAILY_REVENUE));
+        }
+    }
+
+    @Test
+    void addsArchivedTotalsLikeSequentialGeneration() throws Exception {
+        // given
+        OrderDao orderDao = newOrderDao(ORDERS);
+        OrderArchive orderArchive = newOrderArchive();
+
+        // when/then
+        assertSameRecords(
+            new DefaultReportGeneration(orderDao, orderArchive).generateReport(Report.Type.DAILY_REVENUE),
+            new ParallelReportGeneration(orderDao, orderArchive, false, false, pool, 64)
+                .generateReport(Report.Type.DAILY_REVENUE));
+        assertSameRecords(
+            new AlternativeReportGeneration(orderDao, orderArchive).generateReport(Report.Type.DAILY_REVENUE),
+            new ParallelReportGeneration(orderDao, orderArchive, true, true, pool, 64)
+                .generateReport(Report.Type.DAILY_REVENUE));
+    }
+
+    @Test
+    void givesSameReportWithoutOrders() throws Exception {
+        // given
+        OrderDao orderDao = newOrderDao(0);
+        OrderArchive orderArchive = new NoOrderArchive();
+
+        // when/then
+        assertSameRecords(
+            new AlternativeReportGeneration(orderDao, orderArchive).generateReport(Report.Type.DAILY_REVENUE),
+            new ParallelReportGeneration(orderDao, orderArchive, true, true, pool, 1)
+                .generateReport(Report.Type.DAILY_REVENUE));
+    }
+
+    @Test
+    void cantUseEmptyChunks() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelReportGeneration(
+            newOrderDao(0), new NoOrderArchive(), false, false, pool, 0));
+    }
+
+    // INFO: the sample orders plus `count` random ones spread over a year.
+    private static OrderDao newOrderDao(int count) throws WarehouseException {
+        MemoryProductDao productDao = new MemoryProductDao();
+        MemoryCustomerDao customerDao = new MemoryCustomerDao();
+        OrderDao orderDao = new MemoryOrderDao(productDao, customerDao);
+        List<Product> products = new ArrayList<>(productDao.getProducts());
+        List<Customer> customers = new ArrayList<>(customerDao.getCustomers());
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            Map<Product, Integer> quantities = new HashMap<>();
+            for (int j = random.nextInt(3); j >= 0; j--) {
+                quantities.put(products.get(random.nextInt(products.size())), 1 + random.nextInt(5));
+            }
+            orderDao.addOrder(new Order(
+                customers.get(random.nextInt(customers.size())),
+                LocalDate.of(2019, 1, 1).plusDays(random.nextInt(365)),
+                quantities,
+                random.nextBoolean()));
+        }
+        return orderDao;
+    }
+
+    // INFO: one day before every order and one day shared with them.
+    private static OrderArchive newOrderArchive() {
+        return new OrderArchive() {
+            @Override
+            public SortedMap<LocalDate, DailyOrderTotals> getDailyTotals() {
+                SortedMap<LocalDate, DailyOrderTotals> totals = new TreeMap<>();
+                LocalDate before = LocalDate.of(2018, 12, 1);
+                LocalDate shared = LocalDate.of(2019, 1, 1);
+                totals.put(before, new DailyOrderTotals(before, 3, 300));
+                totals.put(shared, new DailyOrderTotals(shared, 5, 12345));
+                return totals;
+            }
+
+            @Override
+            public int archiveOrders(LocalDate horizon) {
+                return 0;
+            }
+        };
+    }
+}
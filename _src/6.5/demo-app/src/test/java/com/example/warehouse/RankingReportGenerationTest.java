@@ -0,0 +1,148 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.MemoryCustomerDao;
+import com.example.warehouse.dal.MemoryOrderDao;
+import com.example.warehouse.dal.MemoryProductDao;
+import com.example.warehouse.dal.OrderDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankingReportGenerationTest {
+
+    private OrderDao orderDao;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        MemoryProductDao productDao = new MemoryProductDao();
+        MemoryCustomerDao customerDao = new MemoryCustomerDao();
+        orderDao = new MemoryOrderDao(productDao, customerDao);
+        List<Product> products = new ArrayList<>(productDao.getProducts());
+        List<Customer> customers = new ArrayList<>(customerDao.getCustomers());
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            Map<Product, Integer> quantities = new HashMap<>();
+            for (int j = random.nextInt(3); j >= 0; j--) {
+                quantities.put(products.get(random.nextInt(products.size())), 1 + random.nextInt(3));
+            }
+            orderDao.addOrder(new Order(
+                customers.get(random.nextInt(customers.size())),
+                LocalDate.of(2019, 1, 1).plusDays(random.nextInt(365)),
+                quantities,
+                random.nextBoolean()));
+        }
+    }
+
+    @Test
+    void topProductsAgreeWithFullSort() throws Exception {
+        for (boolean includePending : new boolean[]{false, true}) {
+            for (Report.Ranking ranking : Report.Ranking.values()) {
+                ReportParameters parameters = new ReportParameters(null, null, Report.Granularity.DAY, ranking, 5);
+                assertEquals(
+                    fullSort(Report.Type.TOP_PRODUCTS, parameters, includePending),
+                    records(new RankingReportGeneration(null, orderDao, includePending)
+                        .generateReport(Report.Type.TOP_PRODUCTS, parameters)));
+            }
+        }
+    }
+
+    @Test
+    void topCustomersAgreeWithFullSort() throws Exception {
+        for (boolean includePending : new boolean[]{false, true}) {
+            for (Report.Ranking ranking : Report.Ranking.values()) {
+                ReportParameters parameters = new ReportParameters(null, null, Report.Granularity.DAY, ranking, 3);
+                assertEquals(
+                    fullSort(Report.Type.TOP_CUSTOMERS, parameters, includePending),
+                    records(new RankingReportGeneration(null, orderDao, includePending)
+                        .generateReport(Report.Type.TOP_CUSTOMERS, parameters)));
+            }
+        }
+    }
+
+    @Test
+    void ranksOnlyOrdersInRange() throws Exception {
+        // given
+        ReportParameters parameters = new ReportParameters(
+            LocalDate.of(2019, 3, 1), LocalDate.of(2019, 3, 31), Report.Granularity.DAY, Report.Ranking.REVENUE, 4);
+
+        // when
+        Report report = new RankingReportGeneration(null, orderDao, true)
+            .generateReport(Report.Type.TOP_PRODUCTS, parameters);
+
+        // then
+        assertEquals(fullSort(Report.Type.TOP_PRODUCTS, parameters, true), records(report));
+    }
+
+    @Test
+    void givesEveryEntryWhenLimitIsLarger() throws Exception {
+        // given
+        ReportParameters parameters = new ReportParameters(null, null, Report.Granularity.DAY, Report.Ranking.QUANTITY, 10_000);
+
+        // when
+        Report report = new RankingReportGeneration(null, orderDao, true)
+            .generateReport(Report.Type.TOP_CUSTOMERS, parameters);
+
+        // then
+        List<String> expected = fullSort(Report.Type.TOP_CUSTOMERS, parameters, true);
+        assertEquals(expected, records(report));
+        assertTrue(expected.size() < parameters.getLimit());
+    }
+
+    @Test
+    void leavesOtherReportsToWrappedGeneration() throws Exception {
+        // given
+        Report daily = new Report();
+        RankingReportGeneration reportGeneration = new RankingReportGeneration(type -> daily, orderDao, true);
+
+        // when/then
+        assertSame(daily, reportGeneration.generateReport(Report.Type.DAILY_REVENUE));
+    }
+
+    // INFO: every ranked entry as `<ID> <name> <total products> <total revenue>`.
+    private List<String> fullSort(Report.Type type, ReportParameters parameters, boolean includePending) throws Exception {
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, long[]> totals = new HashMap<>();
+        for (Order order : orderDao.getOrders()) {
+            if ((!includePending && order.isPending()) || !parameters.contains(order.getDate())) {
+                continue;
+            }
+            for (var entry : order.getQuantities().entrySet()) {
+                Product product = entry.getKey();
+                int id = type == Report.Type.TOP_PRODUCTS ? product.getId() : order.getCustomer().getId();
+                names.put(id, type == Report.Type.TOP_PRODUCTS ? product.getName() : order.getCustomer().getName());
+                long[] total = totals.computeIfAbsent(id, k -> new long[2]);
+                total[0] += entry.getValue();
+                total[1] += (long) product.getPrice() * entry.getValue();
+            }
+        }
+        int metric = parameters.getRanking() == Report.Ranking.QUANTITY ? 0 : 1;
+        List<Integer> ids = new ArrayList<>(totals.keySet());
+        ids.sort(Comparator.<Integer>comparingLong(id -> -totals.get(id)[metric]).thenComparing(id -> id));
+        List<String> result = new ArrayList<>();
+        for (int id : ids.subList(0, Math.min(parameters.getLimit(), ids.size()))) {
+            result.add(String.format("%s %s %s %s", id, names.get(id), totals.get(id)[0], totals.get(id)[1]));
+        }
+        return result;
+    }
+
+    private static List<String> records(Report report) {
+        List<String> result = new ArrayList<>();
+        Report.Cursor record = report.cursor();
+        while (record.next()) {
+            result.add(String.format("%s %s %s %s",
+                record.getAsString(0), record.getAsString(1), record.getAsString(2), record.getAsString(3)));
+        }
+        return result;
+    }
+}
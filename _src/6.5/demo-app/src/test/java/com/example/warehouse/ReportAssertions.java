@@ -0,0 +1,22 @@
+package com.example.warehouse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// INFO: reports have no `equals`, they're compared label by label and cell by cell.
+final class ReportAssertions {
+
+    private ReportAssertions() {
+    }
+
+    static void assertSameRecords(Report expected, Report actual) {
+        assertEquals(expected.getLabels(), actual.getLabels());
+        assertEquals(expected.getRecordCount(), actual.getRecordCount());
+        Report.Cursor expectedRecord = expected.cursor();
+        Report.Cursor actualRecord = actual.cursor();
+        while (expectedRecord.next() && actualRecord.next()) {
+            for (int i = 0; i < expected.getColumnCount(); i++) {
+                assertEquals(expectedRecord.getAsString(i), actualRecord.getAsString(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.warehouse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReportCacheTest {
+
+    private ReportCache cache;
+    private AtomicInteger computations;
+
+    @BeforeEach
+    void beforeEach() {
+        cache = new ReportCache();
+        computations = new AtomicInteger();
+    }
+
+    @Test
+    void reusesReportOfSameVersion() throws Exception {
+        // given
+        long version = cache.newVersion();
+
+        // when
+        Report first = cache.get(Report.Type.DAILY_REVENUE, 1, version, this::compute);
+        Report second = cache.get(Report.Type.DAILY_REVENUE, 1, version, this::compute);
+
+        // then
+        assertSame(first, second);
+        assertEquals(1, computations.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio(), 0.0);
+    }
+
+    @Test
+    void computesReportAgainForNewVersion() throws Exception {
+        // given
+        long oldVersion = cache.newVersion();
+        Report old = cache.get(Report.Type.DAILY_REVENUE, 1, oldVersion, this::compute);
+
+        // when
+        long newVersion = cache.newVersion();
+        Report current = cache.get(Report.Type.DAILY_REVENUE, 1, newVersion, this::compute);
+
+        // then
+        assertNotSame(old, current);
+        assertEquals(2, computations.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void dropsOlderVersionsOnceNewOneIsAskedFor() throws Exception {
+        // given
+        long oldVersion = cache.newVersion();
+        cache.get(Report.Type.DAILY_REVENUE, 1, oldVersion, this::compute);
+        cache.get(Report.Type.DAILY_REVENUE, 1, cache.newVersion(), this::compute);
+
+        // when
+        cache.get(Report.Type.DAILY_REVENUE, 1, oldVersion, this::compute);
+
+        // then
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    void keepsReportTypesAndClientsApart() throws Exception {
+        // given
+        long version = cache.newVersion();
+
+        // when
+        Report daily = cache.get(Report.Type.DAILY_REVENUE, 1, version, this::compute);
+        Report topProducts = cache.get(Report.Type.TOP_PRODUCTS, 1, version, this::compute);
+        Report otherClient = cache.get(Report.Type.DAILY_REVENUE, 2, version, this::compute);
+
+        // then
+        assertEquals(3, computations.get());
+        assertSame(daily, cache.get(Report.Type.DAILY_REVENUE, 1, version, this::compute));
+        assertSame(topProducts, cache.get(Report.Type.TOP_PRODUCTS, 1, version, this::compute));
+        assertSame(otherClient, cache.get(Report.Type.DAILY_REVENUE, 2, version, this::compute));
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    void doesntCacheFailures() throws Exception {
+        // given
+        long version = cache.newVersion();
+
+        // when
+        assertThrows(WarehouseException.class, () -> cache.get(Report.Type.DAILY_REVENUE, 1, version, () -> {
+            throw new WarehouseException("Broken.");
+        }));
+        cache.get(Report.Type.DAILY_REVENUE, 1, version, this::compute);
+
+        // then
+        assertEquals(1, computations.get());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void concurrentRequestsWaitForSameComputation() throws Exception {
+        // given
+        long version = cache.newVersion();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Report> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.get(Report.Type.DAILY_REVENUE, 1, version, () -> {
+                    started.countDown();
+                    await(release);
+                    return compute();
+                });
+            } catch (WarehouseException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        started.await();
+
+        // when
+        CompletableFuture<Report> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.get(Report.Type.DAILY_REVENUE, 1, version, this::compute);
+            } catch (WarehouseException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (cache.getCoalesced() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // then
+        assertSame(first.get(), second.get());
+        assertEquals(1, computations.get());
+        assertEquals(1, cache.getCoalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Report compute() {
+        computations.incrementAndGet();
+        Report report = new Report();
+        report.addLabel("Date");
+        report.addLabel("Total revenue");
+        report.addRecord(LocalDate.of(2019, 1, 1), computations.get());
+        return report;
+    }
+}
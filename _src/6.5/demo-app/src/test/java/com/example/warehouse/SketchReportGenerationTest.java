@@ -0,0 +1,192 @@
+package com.example.warehouse;
+
+import com.example.warehouse.dal.MemoryCustomerDao;
+import com.example.warehouse.dal.MemoryOrderDao;
+import com.example.warehouse.dal.MemoryProductDao;
+import com.example.warehouse.dal.OrderDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.warehouse.ReportAssertions.assertSameRecords;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SketchReportGenerationTest {
+
+    // INFO: after every order in the CSV files, so reports limited to it only
+    // have the orders the tests send.
+    private static final LocalDate DATE = LocalDate.of(2030, 6, 1);
+
+    // INFO: keeps the events it's sent and the parameters it's asked for.
+    private static final class RecordingReportGeneration implements ReportGeneration, OrderListener, ProductListener {
+
+        final List<String> events = new ArrayList<>();
+        final Report report = new Report();
+
+        @Override
+        public Report generateReport(Report.Type type) {
+            events.add(String.format("report %s", type));
+            return report;
+        }
+
+        @Override
+        public Report generateReport(Report.Type type, ReportParameters parameters) {
+            events.add(String.format("report %s %s %s", type, parameters.getRanking(), parameters.getLimit()));
+            return report;
+        }
+
+        @Override
+        public void orderAdded(Order order) {
+            events.add(String.format("added %s", order.getId()));
+        }
+
+        @Override
+        public void orderFulfilled(Order order) {
+            events.add(String.format("fulfilled %s", order.getId()));
+        }
+
+        @Override
+        public void productAdded(Product product) {
+            events.add(String.format("product %s", product.getId()));
+        }
+    }
+
+    private OrderDao orderDao;
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        MemoryProductDao productDao = new MemoryProductDao();
+        MemoryCustomerDao customerDao = new MemoryCustomerDao();
+        orderDao = new MemoryOrderDao(productDao, customerDao);
+        customer = customerDao.getCustomers().iterator().next();
+        product = productDao.getProducts().iterator().next();
+    }
+
+    @Test
+    void keepsRankingAndLimitOfTopReports() throws Exception {
+        // given
+        RankingReportGeneration ranking = new RankingReportGeneration(type -> new Report(), orderDao, true);
+        SketchReportGeneration reportGeneration = newReportGeneration(ranking, true);
+        ReportParameters parameters = new ReportParameters(null, null, Report.Granularity.DAY, Report.Ranking.QUANTITY, 1);
+
+        for (Report.Type type : List.of(Report.Type.TOP_PRODUCTS, Report.Type.TOP_CUSTOMERS)) {
+            // when
+            Report report = reportGeneration.generateReport(type, parameters);
+            ReportCollector collector = new ReportCollector();
+            reportGeneration.generateReport(type, parameters, collector);
+
+            // then
+            assertEquals(1, report.getRecordCount());
+            assertSameRecords(ranking.generateReport(type, parameters), report);
+            assertSameRecords(report, collector.getReport());
+        }
+    }
+
+    @Test
+    void leavesOtherReportsToWrappedGeneration() throws Exception {
+        // given
+        RecordingReportGeneration recording = new RecordingReportGeneration();
+        SketchReportGeneration reportGeneration = newReportGeneration(recording, true);
+        ReportParameters parameters = new ReportParameters(null, null, Report.Granularity.DAY, Report.Ranking.QUANTITY, 3);
+
+        // when
+        Report report = reportGeneration.generateReport(Report.Type.TOP_CUSTOMERS, parameters);
+        reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+
+        // then
+        assertSame(recording.report, report);
+        assertEquals(List.of(
+            "report TOP_CUSTOMERS QUANTITY 3",
+            "report DAILY_REVENUE REVENUE 10"), recording.events);
+    }
+
+    @Test
+    void forwardsEventsToWrappedGeneration() throws Exception {
+        // given
+        RecordingReportGeneration recording = new RecordingReportGeneration();
+        SketchReportGeneration reportGeneration = newReportGeneration(recording, false);
+        Order order = newOrder(true);
+
+        // when
+        reportGeneration.orderAdded(order);
+        reportGeneration.orderFulfilled(order);
+        reportGeneration.productAdded(product);
+
+        // then
+        assertEquals(List.of(
+            "added " + order.getId(),
+            "fulfilled " + order.getId(),
+            "product " + product.getId()), recording.events);
+    }
+
+    @Test
+    void countsPendingOrdersOnceFulfilled() throws Exception {
+        // given
+        SketchReportGeneration reportGeneration = newReportGeneration(type -> new Report(), false);
+        Order order = newOrder(true);
+
+        // when/then
+        reportGeneration.orderAdded(order);
+        assertEquals(List.of(), getDailyCustomers(reportGeneration));
+        reportGeneration.orderFulfilled(order);
+        assertEquals(List.of(DATE + " 1"), getDailyCustomers(reportGeneration));
+    }
+
+    @Test
+    void countsPendingOrdersWhenIncluded() throws Exception {
+        // given
+        SketchReportGeneration reportGeneration = newReportGeneration(type -> new Report(), true);
+        Order order = newOrder(true);
+
+        // when
+        reportGeneration.orderAdded(order);
+        reportGeneration.orderFulfilled(order);
+
+        // then
+        assertEquals(List.of(DATE + " 1"), getDailyCustomers(reportGeneration));
+    }
+
+    @Test
+    void limitsPopularProducts() throws Exception {
+        // given
+        SketchReportGeneration reportGeneration = newReportGeneration(type -> new Report(), true);
+        ReportParameters parameters = new ReportParameters(null, null, Report.Granularity.DAY, Report.Ranking.QUANTITY, 3);
+
+        // when
+        Report report = reportGeneration.generateReport(Report.Type.APPROXIMATE_POPULAR_PRODUCTS, parameters);
+
+        // then
+        assertEquals(3, report.getRecordCount());
+        assertThrows(IllegalArgumentException.class, () -> reportGeneration.generateReport(
+            Report.Type.APPROXIMATE_POPULAR_PRODUCTS, new ReportParameters(DATE, null, Report.Granularity.DAY)));
+    }
+
+    private SketchReportGeneration newReportGeneration(ReportGeneration reportGeneration, boolean includePending)
+        throws WarehouseException {
+        return new SketchReportGeneration(reportGeneration, orderDao, includePending, 0.02, 0.001, 0.99, 0.01, 100);
+    }
+
+    private Order newOrder(boolean pending) {
+        return new Order(customer, DATE, Map.of(product, 2), pending);
+    }
+
+    // INFO: the distinct customers on `DATE` as `<date> <estimate>`.
+    private static List<String> getDailyCustomers(SketchReportGeneration reportGeneration) throws WarehouseException {
+        Report report = reportGeneration.generateReport(
+            Report.Type.APPROXIMATE_DAILY_CUSTOMERS, new ReportParameters(DATE, DATE, Report.Granularity.DAY));
+        List<String> result = new ArrayList<>();
+        Report.Cursor record = report.cursor();
+        while (record.next()) {
+            result.add(String.format("%s %s", record.getAsString(0), record.getAsString(1)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.warehouse;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopKAggregationTest {
+
+    @Test
+    void sumsEntriesOfSameKey() {
+        // given
+        TopKAggregation aggregation = new TopKAggregation();
+
+        // when
+        aggregation.add(7, "seven", 1, 10);
+        aggregation.add(3, "three", 2, 5);
+        aggregation.add(7, "seven", 4, 20);
+
+        // then
+        int[] top = aggregation.top(1, Report.Ranking.REVENUE);
+        assertEquals(1, top.length);
+        assertEquals(7, aggregation.getKey(top[0]));
+        assertEquals("seven", aggregation.getName(top[0]));
+        assertEquals(5, aggregation.getQuantity(top[0]));
+        assertEquals(30, aggregation.getRevenue(top[0]));
+    }
+
+    @Test
+    void tiesGoToSmallerKey() {
+        // given
+        TopKAggregation aggregation = new TopKAggregation();
+        for (int key : new int[]{9, 4, 6, 1, 8}) {
+            aggregation.add(key, "key " + key, 1, 100);
+        }
+
+        // when
+        int[] top = aggregation.top(3, Report.Ranking.REVENUE);
+
+        // then
+        assertEquals(List.of(1, 4, 6), keys(aggregation, top));
+    }
+
+    @Test
+    void givesEveryEntryWhenThereAreFewerThanK() {
+        // given
+        TopKAggregation aggregation = new TopKAggregation();
+        aggregation.add(1, "one", 5, 10);
+        aggregation.add(2, "two", 1, 30);
+        aggregation.add(3, "three", 3, 20);
+
+        // when
+        int[] byRevenue = aggregation.top(10, Report.Ranking.REVENUE);
+        int[] byQuantity = aggregation.top(10, Report.Ranking.QUANTITY);
+
+        // then
+        assertEquals(List.of(2, 3, 1), keys(aggregation, byRevenue));
+        assertEquals(List.of(1, 3, 2), keys(aggregation, byQuantity));
+    }
+
+    @Test
+    void givesNothingWithoutEntries() {
+        assertEquals(0, new TopKAggregation().top(10, Report.Ranking.REVENUE).length);
+    }
+
+    @Test
+    void agreesWithFullSort() {
+        // given
+        TopKAggregation aggregation = new TopKAggregation();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            // INFO: few distinct metrics, so there are plenty of ties.
+            int key = random.nextInt(1000) - 500;
+            aggregation.add(key, "key " + key, random.nextInt(5), random.nextInt(5) * 10);
+        }
+        int size = aggregation.top(Integer.MAX_VALUE, Report.Ranking.REVENUE).length;
+
+        // when/then
+        for (Report.Ranking ranking : Report.Ranking.values()) {
+            List<Integer> sorted = fullSort(aggregation, size, ranking);
+            for (int k : new int[]{1, 2, 10, 100, size - 1, size, size + 1}) {
+                assertEquals(sorted.subList(0, Math.min(k, size)), keys(aggregation, aggregation.top(k, ranking)));
+            }
+        }
+    }
+
+    private static List<Integer> fullSort(TopKAggregation aggregation, int size, Report.Ranking ranking) {
+        Comparator<Integer> byMetric = Comparator.comparingLong(i -> ranking == Report.Ranking.REVENUE
+            ? aggregation.getRevenue(i)
+            : aggregation.getQuantity(i));
+        List<Integer> indices = IntStream.range(0, size).boxed().collect(toList());
+        indices.sort(byMetric.reversed().thenComparingInt(aggregation::getKey));
+        List<Integer> keys = new ArrayList<>();
+        indices.forEach(i -> keys.add(aggregation.getKey(i)));
+        return keys;
+    }
+
+    private static List<Integer> keys(TopKAggregation aggregation, int[] indices) {
+        return IntStream.of(indices).map(aggregation::getKey).boxed().collect(toList());
+    }
+}
@@ -3,10 +3,15 @@ package com.example.warehouse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class WarehouseTest {
@@ -60,6 +65,19 @@ class WarehouseTest {
         assertEquals(ordersBefore.size() + 1, ordersAfter.size());
     }
 
+    @Test
+    void asyncListingsMatchSyncOnes() throws Exception {
+        // when
+        var products = warehouse.getProductsAsync();
+        var customers = warehouse.getCustomersAsync();
+        var orders = warehouse.getOrdersAsync();
+
+        // then
+        assertEquals(ids(warehouse.getProducts(), Product::getId), ids(products.get(), Product::getId));
+        assertEquals(ids(warehouse.getCustomers(), Customer::getId), ids(customers.get(), Customer::getId));
+        assertEquals(ids(warehouse.getOrders(), Order::getId), ids(orders.get(), Order::getId));
+    }
+
     @Test
     void cantOrderForNonExistentCustomer() {
         // given
@@ -79,4 +97,43 @@ class WarehouseTest {
         // when
         assertThrows(IllegalArgumentException.class, () -> warehouse.addOrder(customerId, quantities));
     }
+
+    @Test
+    void listenersSeeAddedAndFulfilledOrders() throws Exception {
+        // given
+        List<Order> added = new ArrayList<>();
+        List<Order> fulfilled = new ArrayList<>();
+        warehouse.addOrderListener(new OrderListener() {
+            @Override
+            public void orderAdded(Order order) {
+                added.add(order);
+            }
+
+            @Override
+            public void orderFulfilled(Order order) {
+                fulfilled.add(order);
+            }
+        });
+
+        // when
+        warehouse.addOrder(12, Map.of(2, 1));
+        int orderId = added.get(0).getId();
+        warehouse.fulfillOrder(orderId);
+        warehouse.fulfillOrder(orderId);
+
+        // then
+        assertEquals(1, added.size());
+        assertEquals(1, fulfilled.size());
+        assertEquals(orderId, fulfilled.get(0).getId());
+        assertFalse(warehouse.getOrder(orderId).isPending());
+    }
+
+    @Test
+    void cantFulfillNonExistentOrder() {
+        assertThrows(IllegalArgumentException.class, () -> warehouse.fulfillOrder(666));
+    }
+
+    private static <T> List<Integer> ids(Collection<T> entities, Function<T, Integer> id) {
+        return entities.stream().map(id).collect(toList());
+    }
 }
@@ -0,0 +1,71 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DbDataVersionDaoTest {
+
+    private TestDatabase database;
+    private DbDataVersionDao dao;
+    private DbOrderDao orderDao;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        database = new TestDatabase("data-version");
+        dao = new DbDataVersionDao(database.getSource(), database.getSource());
+        orderDao = new DbOrderDao(database.getSource(), database.getSource(), new MemoryCustomerDao());
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void bumpedByAddedOrder() throws Exception {
+        // given
+        long version = dao.getDataVersion();
+        Order order = orderDao.getOrder(11);
+
+        // when
+        orderDao.addOrder(new Order(order.getCustomer(), order.getQuantities()));
+
+        // then
+        assertEquals(version + 1, dao.getDataVersion());
+    }
+
+    @Test
+    void bumpedOnlyByOrderActuallyFulfilled() throws Exception {
+        // given
+        long version = dao.getDataVersion();
+
+        // when
+        orderDao.fulfillOrder(37);
+        orderDao.fulfillOrder(37);
+        orderDao.fulfillOrder(666);
+
+        // then
+        assertEquals(version + 1, dao.getDataVersion());
+    }
+
+    @Test
+    void bumpedOnlyByArchivedOrders() throws Exception {
+        // given
+        DbOrderArchive archive = new DbOrderArchive(database.getSource(), database.getSource());
+        long version = dao.getDataVersion();
+
+        // when
+        archive.archiveOrders(LocalDate.of(2019, 1, 1));
+        archive.archiveOrders(LocalDate.of(2019, 2, 1));
+
+        // then
+        assertEquals(version + 1, dao.getDataVersion());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.AlternativeReportGeneration;
+import com.example.warehouse.DefaultReportGeneration;
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportGeneration;
+import com.example.warehouse.export.ExportType;
+import com.example.warehouse.export.FullExporterFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class DbDirectReportExportTest {
+
+    private TestDatabase database;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        database = new TestDatabase("direct-export");
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void fulfilledRevenueMatchesGeneratedCsvExport() throws Exception {
+        assertMatchesGeneratedExport(newDirectReportExport(false, false), newDefaultReportGeneration(), ExportType.CSV);
+    }
+
+    @Test
+    void fulfilledRevenueMatchesGeneratedJsonExport() throws Exception {
+        assertMatchesGeneratedExport(newDirectReportExport(false, false), newDefaultReportGeneration(), ExportType.JSON);
+    }
+
+    @Test
+    void allOrdersMatchGeneratedCsvExport() throws Exception {
+        assertMatchesGeneratedExport(newDirectReportExport(true, true), newAlternativeReportGeneration(), ExportType.CSV);
+    }
+
+    @Test
+    void allOrdersMatchGeneratedJsonExport() throws Exception {
+        assertMatchesGeneratedExport(newDirectReportExport(true, true), newAlternativeReportGeneration(), ExportType.JSON);
+    }
+
+    @Test
+    void archivedOrdersMatchGeneratedExport() throws Exception {
+        // given
+        newOrderArchive().archiveOrders(LocalDate.of(2019, 2, 1));
+
+        // when/then
+        assertMatchesGeneratedExport(newDirectReportExport(false, false), newDefaultReportGeneration(), ExportType.CSV);
+        assertMatchesGeneratedExport(newDirectReportExport(true, true), newAlternativeReportGeneration(), ExportType.JSON);
+    }
+
+    private DbDirectReportExport newDirectReportExport(boolean includePending, boolean includeTotalProducts) {
+        return new DbDirectReportExport(database.getSource(), database.getSource(), includePending, includeTotalProducts);
+    }
+
+    private DbOrderArchive newOrderArchive() {
+        return new DbOrderArchive(database.getSource(), database.getSource());
+    }
+
+    private ReportGeneration newDefaultReportGeneration() {
+        return new DefaultReportGeneration(
+            new DbOrderDao(database.getSource(), database.getSource(), new MemoryCustomerDao()), newOrderArchive());
+    }
+
+    private ReportGeneration newAlternativeReportGeneration() {
+        return new AlternativeReportGeneration(
+            new DbOrderDao(database.getSource(), database.getSource(), new MemoryCustomerDao()), newOrderArchive());
+    }
+
+    private static void assertMatchesGeneratedExport(
+        DbDirectReportExport directExport,
+        ReportGeneration reportGeneration,
+        ExportType exportType) throws Exception {
+        // when
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        directExport.export(Report.Type.DAILY_REVENUE, exportType, direct);
+
+        // and
+        Report report = reportGeneration.generateReport(Report.Type.DAILY_REVENUE);
+        ByteArrayOutputStream generated = new ByteArrayOutputStream();
+        new FullExporterFactory().newExporter(report, exportType, generated).export();
+
+        // then
+        assertArrayEquals(generated.toByteArray(), direct.toByteArray());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Product;
+import com.example.warehouse.WarehouseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbInventoryDaoTest {
+
+    // INFO: product 4 has 10 items in stock in `init.sql`.
+    private static final Product PRODUCT = new Product(4, "sun glasses", 12);
+    private static final int STOCK = 10;
+
+    // INFO: and product 32 has 10010.
+    private static final Product PLENTIFUL_PRODUCT = new Product(32, "a4 paper", 2);
+    private static final int PLENTIFUL_STOCK = 10010;
+
+    private TestDatabase database;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        database = new TestDatabase("inventory");
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void contendedOptimisticUpdatesNeverOversell() throws Exception {
+        // given
+        DbInventoryDao dao = new DbInventoryDao(database.getSource(), database.getSource(), true, 100);
+        int orders = STOCK * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // when
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            results.add(executor.submit(orderOne(dao)));
+        }
+        int fulfilled = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                fulfilled++;
+            }
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals(STOCK, fulfilled);
+        assertEquals(0, database.queryLong("SELECT quantity FROM inventory WHERE product_id = 4"));
+        assertEquals(STOCK, database.queryLong("SELECT version FROM inventory WHERE product_id = 4"));
+        assertEquals(orders, dao.getContentionMetrics().getOrders());
+        assertEquals(0, dao.getContentionMetrics().getAborts());
+    }
+
+    @Test
+    void givesUpWhenRetriesAreExhausted() throws Exception {
+        // given
+        DbInventoryDao dao = new DbInventoryDao(database.getSource(), database.getSource(), true, 0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        // INFO: keeps bumping the row's version, so sooner or later it
+        // changes between the DAO reading and updating it.
+        Future<?> interference = executor.submit(() -> {
+            while (running.get()) {
+                database.execute("UPDATE inventory SET version = version + 1 WHERE product_id = 32");
+            }
+            return null;
+        });
+
+        // when
+        WarehouseException aborted = null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        int fulfilled = 0;
+        while (aborted == null && fulfilled < PLENTIFUL_STOCK && System.nanoTime() < deadline) {
+            try {
+                dao.updateStock(Map.of(PLENTIFUL_PRODUCT, 1));
+                fulfilled++;
+            } catch (WarehouseException ex) {
+                aborted = ex;
+            }
+        }
+        running.set(false);
+        interference.get();
+        executor.shutdown();
+
+        // then
+        assertTrue(aborted != null);
+        assertTrue(aborted.getMessage().contains("gave up updating stock after 0 retries"));
+        assertEquals(1, dao.getContentionMetrics().getAborts());
+        assertEquals(PLENTIFUL_STOCK - fulfilled, database.queryLong("SELECT quantity FROM inventory WHERE product_id = 32"));
+    }
+
+    private static Callable<Boolean> orderOne(DbInventoryDao dao) {
+        return () -> {
+            try {
+                dao.updateStock(Map.of(PRODUCT, 1));
+                return true;
+            } catch (IllegalArgumentException ex) {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.warehouse.dal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class DbOrderArchiveTest {
+
+    // INFO: in `init.sql` order 2 is the only one placed before 2019-01-11,
+    // orders 4 and 5 were placed on that day. Orders 12, 19 and 37 are pending.
+    private static final LocalDate HORIZON = LocalDate.of(2019, 1, 11);
+
+    private TestDatabase database;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        database = new TestDatabase("archive");
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void archivesOnlyOrdersPlacedBeforeHorizon() throws Exception {
+        // given
+        DbOrderArchive archive = new DbOrderArchive(database.getSource(), database.getSource());
+
+        // when
+        int archived = archive.archiveOrders(HORIZON);
+
+        // then
+        assertEquals(1, archived);
+        assertEquals(0, database.queryLong("SELECT COUNT(*) FROM orders WHERE id = 2"));
+        assertEquals(2, database.queryLong("SELECT COUNT(*) FROM orders WHERE order_date = '2019-01-11'"));
+    }
+
+    @Test
+    void leavesPendingOrdersLive() throws Exception {
+        // given
+        DbOrderArchive archive = new DbOrderArchive(database.getSource(), database.getSource());
+
+        // when
+        int archived = archive.archiveOrders(LocalDate.of(2019, 3, 1));
+
+        // then
+        assertEquals(6, archived);
+        assertEquals(3, database.queryLong("SELECT COUNT(*) FROM orders"));
+        assertEquals(3, database.queryLong("SELECT COUNT(*) FROM orders WHERE pending = 1"));
+    }
+
+    @Test
+    void movesOrdersBeforeDeletingThem() throws Exception {
+        // given
+        long revenue = database.queryLong(
+            "SELECT SUM(od.quantity * p.price) FROM order_details AS od JOIN products AS p ON p.id = od.product_id WHERE od.order_id = 2");
+        DbOrderArchive archive = new DbOrderArchive(database.getSource(), database.getSource());
+
+        // when
+        archive.archiveOrders(HORIZON);
+
+        // then
+        assertEquals(0, database.queryLong("SELECT COUNT(*) FROM order_details WHERE order_id = 2"));
+        try (Connection connection = database.open();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT partition_month, customer_id, order_lines, total_products, total_revenue FROM orders_archive WHERE order_id = 2")) {
+            rs.next();
+            assertEquals(201901, rs.getInt("partition_month"));
+            assertEquals(12, rs.getInt("customer_id"));
+            assertEquals(3, rs.getString("order_lines").split(";").length);
+            assertEquals(103, rs.getLong("total_products"));
+            assertEquals(revenue, rs.getLong("total_revenue"));
+        }
+
+        // and
+        DailyOrderTotals totals = archive.getDailyTotals().get(LocalDate.of(2019, 1, 5));
+        assertEquals(103, totals.getTotalProducts());
+        assertEquals(revenue, totals.getTotalRevenue());
+    }
+
+    @Test
+    void snapshotHoldsArchivedOrdersOnlyAsTotals() throws Exception {
+        // given
+        DbOrderArchive archive = new DbOrderArchive(database.getSource(), database.getSource());
+        DbOrderDao orderDao = new DbOrderDao(database.getSource(), database.getSource(), new MemoryCustomerDao());
+        int orders = orderDao.getOrders().size();
+        archive.archiveOrders(HORIZON);
+
+        // when
+        OrderSnapshot snapshot = archive.getSnapshot(orderDao);
+
+        // then
+        assertEquals(orders - 1, snapshot.getOrders().size());
+        assertFalse(snapshot.getOrders().stream().anyMatch(order -> order.getId() == 2));
+        assertEquals(archive.getDailyTotals().keySet(), snapshot.getDailyTotals().keySet());
+        assertEquals(103, snapshot.getDailyTotals().get(LocalDate.of(2019, 1, 5)).getTotalProducts());
+    }
+
+    @Test
+    void archivingAgainAddsNothing() throws Exception {
+        // given
+        DbOrderArchive archive = new DbOrderArchive(database.getSource(), database.getSource());
+        archive.archiveOrders(HORIZON);
+
+        // when
+        int archived = archive.archiveOrders(HORIZON);
+
+        // then
+        assertEquals(0, archived);
+        assertEquals(1, database.queryLong("SELECT COUNT(*) FROM orders_archive"));
+        assertEquals(1, database.queryLong("SELECT COUNT(*) FROM order_rollups"));
+    }
+}
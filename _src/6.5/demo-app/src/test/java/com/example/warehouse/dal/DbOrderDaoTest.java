@@ -0,0 +1,64 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Order;
+import com.example.warehouse.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbOrderDaoTest {
+
+    private TestDatabase database;
+    private DbOrderDao dao;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        database = new TestDatabase("orders");
+        dao = new DbOrderDao(database.getSource(), database.getSource(), new MemoryCustomerDao());
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void getsOrderById() throws Exception {
+        // when
+        Order order = dao.getOrder(11);
+
+        // then
+        assertEquals(11, order.getId());
+        assertEquals(67, order.getCustomer().getId());
+        assertEquals(Set.of(99, 31), order.getQuantities().keySet().stream().map(Product::getId).collect(toSet()));
+    }
+
+    @Test
+    void getsNothingForUnknownId() throws Exception {
+        assertNull(dao.getOrder(666));
+    }
+
+    @Test
+    void fulfillsPendingOrderOnce() throws Exception {
+        // given
+        int orderId = 37;
+
+        // when
+        boolean first = dao.fulfillOrder(orderId);
+        boolean second = dao.fulfillOrder(orderId);
+
+        // then
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(dao.getOrder(orderId).isPending());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.AlternativeReportGeneration;
+import com.example.warehouse.DefaultReportGeneration;
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportGeneration;
+import com.example.warehouse.ReportParameters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DbReportGenerationTest {
+
+    // INFO: in `init.sql` orders were placed between 2019-01-05 and 2019-02-05,
+    // these cut that range on days with orders and without.
+    private static final LocalDate FROM = LocalDate.of(2019, 1, 11);
+    private static final LocalDate TO = LocalDate.of(2019, 2, 2);
+
+    private static final List<ReportParameters> PARAMETERS = List.of(
+        ReportParameters.all(),
+        new ReportParameters(FROM, null, Report.Granularity.DAY),
+        new ReportParameters(null, TO, Report.Granularity.DAY),
+        new ReportParameters(FROM, TO, Report.Granularity.DAY),
+        new ReportParameters(LocalDate.of(2019, 1, 13), LocalDate.of(2019, 1, 31), Report.Granularity.DAY),
+        new ReportParameters(null, null, Report.Granularity.MONTH),
+        new ReportParameters(FROM, TO, Report.Granularity.WEEK));
+
+    private TestDatabase database;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        database = new TestDatabase("db-report");
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void fulfilledRevenueMatchesDefaultGeneration() throws Exception {
+        assertMatchesGeneratedReports(newReportGeneration(false, false), newDefaultReportGeneration());
+    }
+
+    @Test
+    void allOrdersMatchAlternativeGeneration() throws Exception {
+        assertMatchesGeneratedReports(newReportGeneration(true, true), newAlternativeReportGeneration());
+    }
+
+    @Test
+    void archivedOrdersMatchGeneratedReports() throws Exception {
+        // given
+        newOrderArchive().archiveOrders(LocalDate.of(2019, 2, 1));
+
+        // when/then
+        assertMatchesGeneratedReports(newReportGeneration(false, false), newDefaultReportGeneration());
+        assertMatchesGeneratedReports(newReportGeneration(true, true), newAlternativeReportGeneration());
+    }
+
+    private DbReportGeneration newReportGeneration(boolean includePending, boolean includeTotalProducts) {
+        return new DbReportGeneration(database.getSource(), database.getSource(), includePending, includeTotalProducts);
+    }
+
+    private DbOrderArchive newOrderArchive() {
+        return new DbOrderArchive(database.getSource(), database.getSource());
+    }
+
+    private ReportGeneration newDefaultReportGeneration() {
+        return new DefaultReportGeneration(
+            new DbOrderDao(database.getSource(), database.getSource(), new MemoryCustomerDao()), newOrderArchive());
+    }
+
+    private ReportGeneration newAlternativeReportGeneration() {
+        return new AlternativeReportGeneration(
+            new DbOrderDao(database.getSource(), database.getSource(), new MemoryCustomerDao()), newOrderArchive());
+    }
+
+    // INFO: the generated reports get the parameters applied by `BucketingReportSink`.
+    private static void assertMatchesGeneratedReports(
+        DbReportGeneration dbReportGeneration,
+        ReportGeneration reportGeneration) throws Exception {
+        for (ReportParameters parameters : PARAMETERS) {
+            // when
+            Report db = dbReportGeneration.generateReport(Report.Type.DAILY_REVENUE, parameters);
+            Report generated = reportGeneration.generateReport(Report.Type.DAILY_REVENUE, parameters);
+
+            // then
+            assertEquals(generated.getLabels(), db.getLabels());
+            assertEquals(toStrings(generated), toStrings(db));
+        }
+    }
+
+    // INFO: reports have no `equals`, they're compared cell by cell.
+    private static List<List<String>> toStrings(Report report) {
+        List<List<String>> records = new ArrayList<>();
+        Report.Cursor record = report.cursor();
+        while (record.next()) {
+            List<String> cells = new ArrayList<>();
+            for (int i = 0; i < record.getColumnCount(); i++) {
+                cells.add(record.getAsString(i));
+            }
+            records.add(cells);
+        }
+        return records;
+    }
+}
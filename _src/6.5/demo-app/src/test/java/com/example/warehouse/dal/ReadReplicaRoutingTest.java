@@ -0,0 +1,69 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Product;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadReplicaRoutingTest {
+
+    private static final String DRIVER = "org.h2.Driver";
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    private static final String READ_REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcSource PRIMARY = new JdbcSource(PRIMARY_URL, "sa", "", DRIVER, false);
+    private static final JdbcSource READ_REPLICA = new JdbcSource(READ_REPLICA_URL, "sa", "", DRIVER, true);
+
+    @BeforeAll
+    static void beforeAll() throws SQLException {
+        // INFO: two independent H2 instances seeded with the same data, with
+        // no replication in between, so it's visible which one got queried.
+        execute(PRIMARY_URL, "RUNSCRIPT FROM 'classpath:scripts/init.sql'");
+        execute(READ_REPLICA_URL, "RUNSCRIPT FROM 'classpath:scripts/init.sql'");
+    }
+
+    @AfterAll
+    static void afterAll() throws SQLException {
+        execute(PRIMARY_URL, "SHUTDOWN");
+        execute(READ_REPLICA_URL, "SHUTDOWN");
+    }
+
+    @Test
+    void writesGoToPrimaryAndListingsToReadReplica() throws Exception {
+        // given
+        DbProductDao dao = new DbProductDao(PRIMARY, READ_REPLICA);
+        int primaryCountBefore = countProducts(PRIMARY);
+        int replicaCountBefore = countProducts(READ_REPLICA);
+
+        // when
+        dao.addProduct(new Product("test", 123));
+
+        // then
+        assertEquals(primaryCountBefore + 1, countProducts(PRIMARY));
+        assertEquals(replicaCountBefore, countProducts(READ_REPLICA));
+        assertEquals(replicaCountBefore, dao.getProducts().size());
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = new JdbcSource(url, "sa", "", DRIVER, false).open();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int countProducts(JdbcSource source) throws SQLException {
+        try (Connection connection = source.open();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM products")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.warehouse.dal;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// INFO: an in-memory H2 database seeded with `init.sql`, DAOs given its
+// source read and write it.
+final class TestDatabase implements AutoCloseable {
+
+    private static final String DRIVER = "org.h2.Driver";
+
+    private final JdbcSource source;
+
+    TestDatabase(String name) throws SQLException {
+        source = new JdbcSource(String.format("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1", name), "sa", "", DRIVER, false);
+        execute("RUNSCRIPT FROM 'classpath:scripts/init.sql'");
+    }
+
+    JdbcSource getSource() {
+        return source;
+    }
+
+    Connection open() throws SQLException {
+        return source.open();
+    }
+
+    void execute(String sql) throws SQLException {
+        try (Connection connection = source.open();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    long queryLong(String sql) throws SQLException {
+        try (Connection connection = source.open();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        execute("SHUTDOWN");
+    }
+}
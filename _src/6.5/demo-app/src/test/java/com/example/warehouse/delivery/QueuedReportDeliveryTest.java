@@ -0,0 +1,239 @@
+package com.example.warehouse.delivery;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.export.Compression;
+import com.example.warehouse.export.ExportType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueuedReportDeliveryTest {
+
+    private static final String CHANNEL = "test";
+
+    // INFO: keeps what it's given, the first `failures` deliveries fail and
+    // every delivery waits for `release` first.
+    private static final class RecordingReportDelivery extends AbstractReportDelivery {
+
+        final BlockingQueue<String> delivered = new LinkedBlockingQueue<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release;
+        final AtomicInteger failures;
+
+        RecordingReportDelivery(int failures, boolean blocked) {
+            super("Recording report delivery");
+            this.failures = new AtomicInteger(failures);
+            this.release = new CountDownLatch(blocked ? 1 : 0);
+        }
+
+        @Override
+        protected void doDeliver(Report.Type reportType, ExportType exportType, Compression compression, byte[] bytes) throws ReportDeliveryException {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ReportDeliveryException("Interrupted.");
+            }
+            if (failures.getAndDecrement() > 0) {
+                throw new ReportDeliveryException("Failed on purpose.");
+            }
+            delivered.add(String.format("%s %s %s", reportType, exportType, new String(bytes, StandardCharsets.UTF_8)));
+        }
+    }
+
+    private Path directory;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        directory = Files.createTempDirectory("delivery-queue-test");
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void deliversQueuedJobs() throws Exception {
+        // given
+        RecordingReportDelivery delegate = new RecordingReportDelivery(0, false);
+        QueuedReportDelivery delivery = new QueuedReportDelivery(delegate, CHANNEL, 10, 1, 100, 1, directory);
+
+        // when
+        delivery.deliver(Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("first"));
+        delivery.deliver(Report.Type.TOP_PRODUCTS, ExportType.JSON, bytes("second"));
+
+        // then
+        assertEquals("DAILY_REVENUE CSV first", delegate.delivered.poll(5, TimeUnit.SECONDS));
+        assertEquals("TOP_PRODUCTS JSON second", delegate.delivered.poll(5, TimeUnit.SECONDS));
+        assertTrue(await(() -> jobFiles().isEmpty()), "delivered jobs should be removed");
+    }
+
+    @Test
+    void retriesFailedDelivery() throws Exception {
+        // given
+        RecordingReportDelivery delegate = new RecordingReportDelivery(1, false);
+        QueuedReportDelivery delivery = new QueuedReportDelivery(delegate, CHANNEL, 10, 1, 100, 2, null);
+
+        // when
+        delivery.deliver(Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("retried"));
+
+        // then
+        assertEquals("DAILY_REVENUE CSV retried", delegate.delivered.poll(5, TimeUnit.SECONDS));
+        assertTrue(await(() -> delegate.getMetrics().getDelivered() == 1), "the retry should be recorded");
+        assertEquals(1, delegate.getMetrics().getFailed());
+    }
+
+    @Test
+    void givesUpAfterLastAttempt() throws Exception {
+        // given
+        RecordingReportDelivery delegate = new RecordingReportDelivery(1, false);
+        QueuedReportDelivery delivery = new QueuedReportDelivery(delegate, CHANNEL, 10, 1, 100, 1, null);
+
+        // when
+        delivery.deliver(Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("dropped"));
+        delivery.deliver(Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("next"));
+
+        // then
+        assertEquals("DAILY_REVENUE CSV next", delegate.delivered.poll(5, TimeUnit.SECONDS));
+        assertNull(delegate.delivered.poll());
+    }
+
+    @Test
+    void rejectsJobsWhenQueueIsFull() throws Exception {
+        // given
+        RecordingReportDelivery delegate = new RecordingReportDelivery(0, true);
+        QueuedReportDelivery delivery = new QueuedReportDelivery(delegate, CHANNEL, 1, 1, 10, 1, directory);
+        delivery.deliver(Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("running"));
+        assertTrue(delegate.started.await(5, TimeUnit.SECONDS), "the first job should be running");
+        delivery.deliver(Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("queued"));
+
+        // when
+        assertThrows(ReportDeliveryException.class,
+            () -> delivery.deliver(Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("rejected")));
+
+        // then
+        assertEquals(1, delegate.getMetrics().getRejected());
+        assertEquals(2, jobFiles().size());
+        delegate.release.countDown();
+        assertEquals("DAILY_REVENUE CSV running", delegate.delivered.poll(5, TimeUnit.SECONDS));
+        assertEquals("DAILY_REVENUE CSV queued", delegate.delivered.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void reloadsJobsLeftOnDisk() throws Exception {
+        // given
+        writeJob("0000000000001-000000001.job", Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("first"), 5);
+        writeJob("0000000000001-000000002.job", Report.Type.TOP_PRODUCTS, ExportType.JSON, bytes("second"), 6);
+        Path temp = directory.resolve(CHANNEL).resolve("0000000000001-000000003.tmp");
+        Files.write(temp, bytes("cut short"));
+
+        // when
+        RecordingReportDelivery delegate = new RecordingReportDelivery(0, false);
+        new QueuedReportDelivery(delegate, CHANNEL, 10, 1, 100, 1, directory);
+
+        // then
+        assertEquals("DAILY_REVENUE CSV first", delegate.delivered.poll(5, TimeUnit.SECONDS));
+        assertEquals("TOP_PRODUCTS JSON second", delegate.delivered.poll(5, TimeUnit.SECONDS));
+        assertFalse(Files.exists(temp));
+        assertTrue(await(() -> jobFiles().isEmpty()), "delivered jobs should be removed");
+    }
+
+    @Test
+    void dropsJobsWithLengthOutOfRange() throws Exception {
+        // given
+        writeJob("0000000000001-000000001.job", Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("negative"), -1);
+        writeJob("0000000000001-000000002.job", Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("too long"), Integer.MAX_VALUE);
+        writeJob("0000000000001-000000003.job", Report.Type.TOP_PRODUCTS, ExportType.JSON, bytes("whole"), 5);
+
+        // when
+        RecordingReportDelivery delegate = new RecordingReportDelivery(0, false);
+        new QueuedReportDelivery(delegate, CHANNEL, 10, 1, 100, 1, directory);
+
+        // then
+        assertEquals("TOP_PRODUCTS JSON whole", delegate.delivered.poll(5, TimeUnit.SECONDS));
+        assertTrue(await(() -> jobFiles().isEmpty()), "unreadable jobs should be removed");
+        assertNull(delegate.delivered.poll());
+    }
+
+    @Test
+    void refusesDirectoryUsedByAnotherQueue() throws Exception {
+        // given
+        RecordingReportDelivery stuck = new RecordingReportDelivery(0, true);
+        QueuedReportDelivery running = new QueuedReportDelivery(stuck, CHANNEL, 10, 1, 100, 1, directory);
+        running.deliver(Report.Type.DAILY_REVENUE, ExportType.CSV, bytes("running"));
+        assertTrue(stuck.started.await(5, TimeUnit.SECONDS), "the job should be running");
+
+        // when
+        assertThrows(IllegalStateException.class,
+            () -> new QueuedReportDelivery(new RecordingReportDelivery(0, false), CHANNEL, 10, 1, 100, 1, directory));
+
+        // then
+        assertEquals(1, jobFiles().size());
+        stuck.release.countDown();
+        assertEquals("DAILY_REVENUE CSV running", stuck.delivered.poll(5, TimeUnit.SECONDS));
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // INFO: in the format `QueuedReportDelivery` persists jobs in, with the
+    // export's length given separately so it can be made wrong.
+    private void writeJob(String name, Report.Type reportType, ExportType exportType, byte[] bytes, int length) throws IOException {
+        Path channel = Files.createDirectories(directory.resolve(CHANNEL));
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(channel.resolve(name)))) {
+            out.writeUTF(reportType.name());
+            out.writeUTF(exportType.name());
+            out.writeUTF(Compression.NONE.name());
+            out.writeInt(length);
+            out.write(bytes);
+        }
+    }
+
+    private List<Path> jobFiles() {
+        try (Stream<Path> files = Files.list(directory.resolve(CHANNEL))) {
+            return files.filter(file -> file.toString().endsWith(".job")).collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // INFO: the workers remove files after delivering, so it's polled for.
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportParameters;
+import com.example.warehouse.WarehouseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportCacheTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        directory = Files.createTempDirectory("export-cache-test");
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void makesExportOnceThenServesIt() throws Exception {
+        // given
+        ExportCache cache = new ExportCache(1024, null, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        String first = get(cache, Report.Type.DAILY_REVENUE, 1, counting(calls, "first"));
+        String second = get(cache, Report.Type.DAILY_REVENUE, 1, counting(calls, "second"));
+
+        // then
+        assertEquals("first", first);
+        assertEquals("first", second);
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(5, cache.getMemoryBytes());
+    }
+
+    @Test
+    void makesExportForOtherKeys() throws Exception {
+        // given
+        ExportCache cache = new ExportCache(1024, null, 0);
+        get(cache, Report.Type.DAILY_REVENUE, 1, constant("daily"));
+
+        // when
+        String other = get(cache, Report.Type.TOP_PRODUCTS, 1, constant("products"));
+
+        // then
+        assertEquals("products", other);
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void makesExportAgainForNewDataVersion() throws Exception {
+        // given
+        ExportCache cache = new ExportCache(1024, directory, 1024);
+        get(cache, Report.Type.DAILY_REVENUE, 1, constant("old"));
+
+        // when
+        String export = get(cache, Report.Type.DAILY_REVENUE, 2, constant("new"));
+
+        // then
+        assertEquals("new", export);
+        assertEquals(2, cache.getMisses());
+        assertEquals(3, cache.getMemoryBytes());
+    }
+
+    @Test
+    void dropsLeastRecentlyUsedExportsWithoutDirectory() throws Exception {
+        // given
+        ExportCache cache = new ExportCache(8, null, 0);
+        get(cache, Report.Type.DAILY_REVENUE, 1, constant("aaaa"));
+        get(cache, Report.Type.TOP_PRODUCTS, 1, constant("bbbb"));
+
+        // when
+        get(cache, Report.Type.TOP_CUSTOMERS, 1, constant("cccc"));
+
+        // then
+        assertEquals(8, cache.getMemoryBytes());
+        assertEquals(0, cache.getDiskBytes());
+        assertEquals("again", get(cache, Report.Type.DAILY_REVENUE, 1, constant("again")));
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void spillsLeastRecentlyUsedExportsToDirectory() throws Exception {
+        // given
+        ExportCache cache = new ExportCache(8, directory, 1024);
+        get(cache, Report.Type.DAILY_REVENUE, 1, constant("aaaa"));
+        get(cache, Report.Type.TOP_PRODUCTS, 1, constant("bbbb"));
+
+        // when
+        get(cache, Report.Type.TOP_CUSTOMERS, 1, constant("cccc"));
+
+        // then
+        assertEquals(8, cache.getMemoryBytes());
+        assertEquals(4, cache.getDiskBytes());
+        assertEquals(1, countFiles());
+        assertEquals("aaaa", get(cache, Report.Type.DAILY_REVENUE, 1, constant("again")));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void sendsButDoesntKeepExportsLargerThanMemory() throws Exception {
+        // given
+        ExportCache cache = new ExportCache(4, directory, 1024);
+
+        // when
+        String export = get(cache, Report.Type.DAILY_REVENUE, 1, constant("too large"));
+
+        // then
+        assertEquals("too large", export);
+        assertEquals(0, cache.getMemoryBytes());
+        assertEquals(0, cache.getDiskBytes());
+    }
+
+    @Test
+    void removesSpilledExportsOfNewDataVersion() throws Exception {
+        // given
+        ExportCache cache = new ExportCache(4, directory, 1024);
+        get(cache, Report.Type.DAILY_REVENUE, 1, constant("aaaa"));
+        get(cache, Report.Type.TOP_PRODUCTS, 1, constant("bbbb"));
+
+        // when
+        get(cache, Report.Type.DAILY_REVENUE, 2, constant("cccc"));
+
+        // then
+        assertEquals(0, cache.getDiskBytes());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void keepsSpilledExportWhileItsRead() throws Exception {
+        // given
+        ExportCache cache = new ExportCache(4, directory, 1024);
+        get(cache, Report.Type.DAILY_REVENUE, 1, constant("aaaa"));
+        get(cache, Report.Type.TOP_PRODUCTS, 1, constant("bbbb"));
+
+        // when
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        cache.writeTo(Report.Type.DAILY_REVENUE, ExportType.CSV, Compression.NONE, ReportParameters.all(), 1,
+            out -> {
+                throw new IllegalStateException("Export should have been served from disk.");
+            },
+            new OutputStream() {
+                @Override
+                public void write(int b) {
+                    read.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    // INFO: a new data version drops every export while this one is read.
+                    try {
+                        get(cache, Report.Type.TOP_CUSTOMERS, 2, constant("cccc"));
+                    } catch (WarehouseException | IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                    assertEquals(1, countFiles());
+                    read.write(b, off, len);
+                }
+            });
+
+        // then
+        assertEquals("aaaa", read.toString(StandardCharsets.UTF_8));
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void removesFilesSpilledEarlier() throws Exception {
+        // given
+        Files.write(directory.resolve("export-1.bin"), new byte[]{1, 2, 3});
+        Files.write(directory.resolve("other.txt"), new byte[]{1, 2, 3});
+
+        // when
+        new ExportCache(4, directory, 1024);
+
+        // then
+        assertFalse(Files.exists(directory.resolve("export-1.bin")));
+        assertTrue(Files.exists(directory.resolve("other.txt")));
+    }
+
+    @Test
+    void worksOutETagsFromKey() {
+        // given
+        ExportCache cache = new ExportCache(0, null, 0);
+        ReportParameters parameters = ReportParameters.all();
+
+        // when
+        String eTag = cache.getETag(Report.Type.DAILY_REVENUE, ExportType.CSV, Compression.NONE, parameters, 1);
+
+        // then
+        assertEquals(eTag, cache.getETag(Report.Type.DAILY_REVENUE, ExportType.CSV, Compression.NONE, parameters, 1));
+        assertNotEquals(eTag, cache.getETag(Report.Type.DAILY_REVENUE, ExportType.CSV, Compression.NONE, parameters, 2));
+        assertNotEquals(eTag, cache.getETag(Report.Type.DAILY_REVENUE, ExportType.CSV, Compression.GZIP, parameters, 1));
+        assertNotEquals(eTag, cache.getETag(Report.Type.DAILY_REVENUE, ExportType.JSON, Compression.NONE, parameters, 1));
+        assertNotEquals(eTag, new ExportCache(0, null, 0)
+            .getETag(Report.Type.DAILY_REVENUE, ExportType.CSV, Compression.NONE, parameters, 1));
+    }
+
+    @Test
+    void matchesIfNoneMatch() {
+        // given
+        String eTag = new ExportCache(0, null, 0)
+            .getETag(Report.Type.DAILY_REVENUE, ExportType.CSV, Compression.NONE, ReportParameters.all(), 1);
+
+        // then
+        assertTrue(ExportCache.matches(eTag, eTag));
+        assertTrue(ExportCache.matches(eTag, "W/" + eTag));
+        assertTrue(ExportCache.matches(eTag, "\"other\", " + eTag));
+        assertTrue(ExportCache.matches(eTag, "*"));
+        assertFalse(ExportCache.matches(eTag, "\"other\""));
+        assertFalse(ExportCache.matches(eTag, null));
+    }
+
+    // INFO: a CSV export of the report with every parameter defaulted.
+    private static String get(ExportCache cache, Report.Type reportType, long dataVersion, ExportCache.Export export)
+        throws WarehouseException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeTo(reportType, ExportType.CSV, Compression.NONE, ReportParameters.all(), dataVersion, export, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ExportCache.Export constant(String content) {
+        return out -> {
+            try {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    private static ExportCache.Export counting(AtomicInteger calls, String content) {
+        ExportCache.Export export = constant(content);
+        return out -> {
+            calls.incrementAndGet();
+            export.writeTo(out);
+        };
+    }
+
+    private long countFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
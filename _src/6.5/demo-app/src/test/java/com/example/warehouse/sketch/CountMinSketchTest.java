@@ -0,0 +1,92 @@
+package com.example.warehouse.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+    private static final int VALUES = 10_000;
+
+    @Test
+    void neverUnderestimates() {
+        // given
+        CountMinSketch sketch = new CountMinSketch(0.01, 0.01);
+        long[] counts = addSkewedCounts(sketch, new Random(42));
+
+        // when/then
+        for (int value = 0; value < VALUES; value++) {
+            assertTrue(sketch.estimate(value) >= counts[value]);
+        }
+    }
+
+    @Test
+    void overestimatesWithinError() {
+        // given
+        double epsilon = 0.001;
+        double delta = 0.01;
+        CountMinSketch sketch = new CountMinSketch(epsilon, delta);
+        long[] counts = addSkewedCounts(sketch, new Random(42));
+
+        // when
+        int outside = 0;
+        for (int value = 0; value < VALUES; value++) {
+            if (sketch.estimate(value) - counts[value] > epsilon * sketch.getTotal()) {
+                outside++;
+            }
+        }
+
+        // then
+        assertTrue(outside <= delta * VALUES, String.format("%s estimates outside the error bound.", outside));
+    }
+
+    @Test
+    void mergingEqualsAddingToOneSketch() {
+        // given
+        CountMinSketch first = new CountMinSketch(0.01, 0.01);
+        CountMinSketch second = new CountMinSketch(0.01, 0.01);
+        CountMinSketch both = new CountMinSketch(0.01, 0.01);
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long value = random.nextInt(VALUES);
+            long count = 1 + random.nextInt(10);
+            (i % 2 == 0 ? first : second).add(value, count);
+            both.add(value, count);
+        }
+
+        // when
+        first.merge(second);
+
+        // then
+        assertEquals(both.getTotal(), first.getTotal());
+        for (int value = 0; value < VALUES; value++) {
+            assertEquals(both.estimate(value), first.estimate(value));
+        }
+    }
+
+    @Test
+    void cantMergeDifferentDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0.01, 0.01).merge(new CountMinSketch(0.001, 0.01)));
+    }
+
+    @Test
+    void cantCountNegatively() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0.01, 0.01).add(1, -1));
+    }
+
+    // INFO: a few values are counted far more often than the rest, like
+    // popular products. Returns the real counts.
+    private static long[] addSkewedCounts(CountMinSketch sketch, Random random) {
+        long[] counts = new long[VALUES];
+        for (int value = 0; value < VALUES; value++) {
+            long count = 1 + (long) (1000 / (1 + value) * random.nextDouble()) + random.nextInt(5);
+            sketch.add(value, count);
+            counts[value] = count;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.warehouse.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinError() {
+        for (int distinct : new int[]{1, 10, 1_000, 100_000, 1_000_000}) {
+            // given
+            HyperLogLog sketch = new HyperLogLog(14);
+
+            // when
+            for (int i = 0; i < distinct; i++) {
+                sketch.add(i);
+            }
+
+            // then
+            assertWithinError(distinct, sketch);
+        }
+    }
+
+    @Test
+    void ignoresRepeatedValues() {
+        // given
+        HyperLogLog sketch = new HyperLogLog(14);
+
+        // when
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 5_000; i++) {
+                sketch.add(i);
+            }
+        }
+
+        // then
+        assertWithinError(5_000, sketch);
+    }
+
+    @Test
+    void mergingEqualsAddingToOneSketch() {
+        // given
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        HyperLogLog both = new HyperLogLog(12);
+        for (int i = 0; i < 60_000; i++) {
+            first.add(i);
+            both.add(i);
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            second.add(i);
+            both.add(i);
+        }
+
+        // when
+        first.merge(second);
+
+        // then
+        assertEquals(both.estimate(), first.estimate());
+        assertWithinError(100_000, first);
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        // given
+        HyperLogLog sketch = new HyperLogLog(12);
+        sketch.add(1);
+        HyperLogLog copy = sketch.copy();
+
+        // when
+        for (int i = 2; i < 1_000; i++) {
+            copy.add(i);
+        }
+
+        // then
+        assertEquals(1, sketch.estimate());
+    }
+
+    @Test
+    void choosesPrecisionForRelativeError() {
+        assertTrue(HyperLogLog.withRelativeError(0.02).getRelativeError() <= 0.02);
+        assertTrue(HyperLogLog.withRelativeError(0.005).getRelativeError() <= 0.005);
+    }
+
+    @Test
+    void cantMergeDifferentPrecisions() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+    }
+
+    // INFO: three standard errors, hashing is deterministic so every run gives the same estimates.
+    private static void assertWithinError(long distinct, HyperLogLog sketch) {
+        double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertTrue(error <= 3 * sketch.getRelativeError(),
+            String.format("%s distinct values estimated as %s.", distinct, sketch.estimate()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.warehouse.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    void estimatesWithinRelativeAccuracy() {
+        // given
+        double accuracy = 0.01;
+        QuantileSketch sketch = new QuantileSketch(accuracy);
+        long[] values = randomValues(new Random(42), 100_000);
+        for (long value : values) {
+            sketch.add(value);
+        }
+        Arrays.sort(values);
+
+        // when/then
+        for (double quantile : QUANTILES) {
+            long exact = values[(int) Math.floor(quantile * (values.length - 1))];
+            long estimate = sketch.quantile(quantile);
+            assertTrue(Math.abs(estimate - exact) <= accuracy * exact + 1,
+                String.format("Quantile %s estimated as %s instead of %s.", quantile, estimate, exact));
+        }
+    }
+
+    @Test
+    void keepsSmallestAndLargestExact() {
+        // given
+        QuantileSketch sketch = new QuantileSketch(0.05);
+        for (long value : new long[]{17, 1_000_003, 250, 0, 999}) {
+            sketch.add(value);
+        }
+
+        // when/then
+        assertEquals(0, sketch.quantile(0));
+        assertEquals(1_000_003, sketch.quantile(1));
+        assertEquals(5, sketch.getCount());
+    }
+
+    @Test
+    void mergingEqualsAddingToOneSketch() {
+        // given
+        QuantileSketch first = new QuantileSketch(0.01);
+        QuantileSketch second = new QuantileSketch(0.01);
+        QuantileSketch both = new QuantileSketch(0.01);
+        long[] values = randomValues(new Random(42), 20_000);
+        for (int i = 0; i < values.length; i++) {
+            (i < values.length / 3 ? first : second).add(values[i]);
+            both.add(values[i]);
+        }
+
+        // when
+        first.merge(second);
+
+        // then
+        assertEquals(both.getCount(), first.getCount());
+        for (double quantile : QUANTILES) {
+            assertEquals(both.quantile(quantile), first.quantile(quantile));
+        }
+    }
+
+    @Test
+    void cantMergeDifferentAccuracy() {
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0.01).merge(new QuantileSketch(0.02)));
+    }
+
+    @Test
+    void cantAddNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0.01).add(-1));
+    }
+
+    @Test
+    void cantEstimateWithoutValues() {
+        assertThrows(IllegalStateException.class, () -> new QuantileSketch(0.01).quantile(0.5));
+    }
+
+    // INFO: order values spread over several orders of magnitude, some zero.
+    private static long[] randomValues(Random random, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt(50) == 0 ? 0 : (long) Math.exp(random.nextDouble() * 14);
+        }
+        return values;
+    }
+}
@@ -3,9 +3,13 @@ package com.example.backend;
 import com.example.App;
 import com.example.backend.util.HtmlEscaperOutputStream;
 import com.example.warehouse.*;
+import com.example.warehouse.delivery.QueuedReportDelivery;
+import com.example.warehouse.delivery.ReportDelivery;
 import com.example.warehouse.delivery.ReportDeliveryException;
+import com.example.warehouse.delivery.ReportDeliveryMetrics;
+import com.example.warehouse.export.Compression;
+import com.example.warehouse.export.ExportCache;
 import com.example.warehouse.export.ExportType;
-import com.example.warehouse.export.Exporter;
 import com.example.warehouse.plot.ChartPlotter;
 import com.example.warehouse.plot.ChartType;
 import com.google.gson.Gson;
@@ -14,8 +18,12 @@ import spark.Response;
 import spark.servlet.SparkApplication;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
+import static java.lang.System.getenv;
 import static java.util.stream.Collectors.toList;
 import static spark.Spark.*;
 
@@ -25,6 +33,27 @@ public class Backend extends App implements Runnable, SparkApplication {
 
     private static final Gson GSON = Util.newGson();
 
+    // INFO: upper bound for generating, exporting and plotting a report in a
+    // request, requests running out of time are answered with a 503.
+    private static final long REPORT_TIMEOUT_MILLIS = Long.parseLong(getenv()
+        .getOrDefault("REPORT_TIMEOUT_MILLIS", "30000"));
+
+    // INFO: exports are kept in memory up to this bound, in bytes, and
+    // spilled to disk only when given a directory too. A bound of 0 keeps
+    // nothing, ETags are sent either way.
+    private static final long EXPORT_CACHE_MAX_BYTES = Long.parseLong(getenv()
+        .getOrDefault("EXPORT_CACHE_MAX_BYTES", "67108864"));
+
+    private static final String EXPORT_CACHE_DIR = getenv("EXPORT_CACHE_DIR");
+
+    private static final long EXPORT_CACHE_MAX_DISK_BYTES = Long.parseLong(getenv()
+        .getOrDefault("EXPORT_CACHE_MAX_DISK_BYTES", "1073741824"));
+
+    private final ExportCache exportCache = new ExportCache(
+        EXPORT_CACHE_MAX_BYTES,
+        EXPORT_CACHE_DIR == null || EXPORT_CACHE_DIR.isBlank() ? null : Path.of(EXPORT_CACHE_DIR),
+        EXPORT_CACHE_MAX_DISK_BYTES);
+
     @Override
     protected Warehouse getWarehouse(int clientId) {
         return Warehouses.newBackendWarehouse(clientId);
@@ -50,6 +79,23 @@ public class Backend extends App implements Runnable, SparkApplication {
             res.body(GSON.toJson(makeError(t, req, res)));
         });
 
+        exception(IllegalArgumentException.class, (t, req, res) -> {
+            res.status(400);
+            res.body(GSON.toJson(makeError(t, req, res)));
+        });
+
+        exception(DeadlineExceededException.class, (t, req, res) -> {
+            if (res.raw().isCommitted()) {
+                // INFO: part of the body went out with a 200 already, rethrown
+                // so the container aborts the connection instead of ending the
+                // response normally and the client sees a truncated download.
+                throw t;
+            }
+            res.status(503);
+            res.header("Retry-After", "1");
+            res.body(GSON.toJson(makeError(t, req, res)));
+        });
+
         get("/products", (req, res) -> warehouse.getProducts(), GSON::toJson);
         get("/products/:id", (req, res) -> warehouse.getProduct(Integer.valueOf(req.params(":id"))), GSON::toJson);
         post("/products", this::doAddProduct, GSON::toJson);
@@ -65,11 +111,19 @@ public class Backend extends App implements Runnable, SparkApplication {
         get("/orders", (req, res) -> warehouse.getOrders(), GSON::toJson);
         get("/orders/:id", (req, res) -> warehouse.getOrder(Integer.valueOf(req.params(":id"))), GSON::toJson);
         post("/orders", this::doAddOrder, GSON::toJson);
+        post("/orders/:id/fulfill", (req, res) -> {
+            warehouse.fulfillOrder(Integer.valueOf(req.params(":id")));
+            return ""; // INFO: caller gets 404 when `null`.
+        });
 
         get("/reports/export", this::makeExportReport, GSON::toJson);
+        get("/reports/download", this::doDownloadReport);
+        get("/reports/publish", this::makePublishReport, GSON::toJson);
+        get("/reports/cache", this::makeReportCacheStatistics, GSON::toJson);
 
         get("/charts/plot", this::makeChartPlot, GSON::toJson);
         post("/settings/configure-report-delivery/:choice", this::doConfigureReportDelivery, GSON::toJson);
+        get("/settings/report-deliveries", this::makeReportDeliveryStatus, GSON::toJson);
     }
 
     @Override
@@ -97,14 +151,18 @@ public class Backend extends App implements Runnable, SparkApplication {
         } catch (IllegalArgumentException ex) {
             throw new IllegalArgumentException("Report and export type must be specified.", ex);
         }
+        ReportParameters parameters = getReportParameters(req);
+        Compression compression = getCompression(req);
+        // INFO: a compressed export is only kept compressed, it's delivered but not shown.
+        // The export is delivered on every call, even when it's cached, so
+        // there's no `If-None-Match` handling here.
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Report report = warehouse.generateReport(reportType);
-        Exporter exporter = dependencyFactory.newExporter(report, exportType, baos);
-        exporter.export();
+        export(reportType, exportType, compression, parameters, baos);
+        byte[] bytes = baos.toByteArray();
 
         String error = null;
         try {
-            activeReportDelivery.deliver(reportType, exportType, baos.toByteArray());
+            activeReportDelivery.deliver(reportType, exportType, compression, bytes);
         } catch (ReportDeliveryException ex) {
             error = ex.getMessage();
             System.err.println(ex.getMessage());
@@ -113,26 +171,223 @@ public class Backend extends App implements Runnable, SparkApplication {
         Map<String, Object> model = new HashMap<>();
         model.put("title", String.format("%s %s export", reportType.getDisplayName(), exportType));
         model.put("error", error);
-        model.put("export", exportToString(exportType, baos));
+        model.put("export", exportToString(exportType, compression, bytes));
+        return model;
+    }
+
+    // INFO: unlike `makeExportReport` the export isn't delivered. It's sent
+    // with its ETag, clients already holding it get a 304 without a body and
+    // without the export being made. Exports are streamed, so their length
+    // isn't known up front.
+    protected final Object doDownloadReport(Request req, Response res) throws WarehouseException, IOException {
+        Report.Type reportType;
+        ExportType exportType;
+        try {
+            reportType = Report.Type.valueOf(req.queryParams("reportType"));
+            exportType = ExportType.valueOf(req.queryParams("exportType"));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Report and export type must be specified.", ex);
+        }
+        ReportParameters parameters = getReportParameters(req);
+        Compression compression = getCompression(req);
+        long dataVersion = warehouse.getDataVersion();
+        String eTag = exportCache.getETag(reportType, exportType, compression, parameters, dataVersion);
+        res.header("ETag", eTag);
+        if (ExportCache.matches(eTag, req.headers("If-None-Match"))) {
+            res.status(304);
+            return "";
+        }
+        res.type(compression.getMimeType(exportType));
+        if (compression != Compression.NONE) {
+            res.header("Content-Disposition", String.format(
+                "attachment; filename=\"export.%s\"", compression.getFileExtension(exportType)));
+        }
+        OutputStream out = res.raw().getOutputStream();
+        export(reportType, exportType, compression, parameters, dataVersion, out);
+        out.flush();
+        return "";
+    }
+
+    private void export(
+        Report.Type reportType,
+        ExportType exportType,
+        Compression compression,
+        ReportParameters parameters,
+        OutputStream out) throws WarehouseException {
+        export(reportType, exportType, compression, parameters, warehouse.getDataVersion(), out);
+    }
+
+    // INFO: `out` is left open, the compressor only closes a wrapper around it.
+    private void export(
+        Report.Type reportType,
+        ExportType exportType,
+        Compression compression,
+        ReportParameters parameters,
+        long dataVersion,
+        OutputStream out) throws WarehouseException {
+        newReportDeadline().run(() -> {
+            try {
+                exportCache.writeTo(reportType, exportType, compression, parameters, dataVersion, target -> {
+                    try (OutputStream compressed = compression.compress(target)) {
+                        if (isDirectExport(reportType, exportType, parameters)) {
+                            // INFO: fast path, records go from the database to the output without a `Report`.
+                            warehouse.exportReport(reportType, exportType, compressed);
+                        } else {
+                            warehouse.generateReport(reportType, parameters, dependencyFactory.newSink(exportType, compressed));
+                        }
+                    } catch (IOException ex) {
+                        throw new WarehouseException("Problem while compressing report export.", ex);
+                    }
+                }, out);
+            } catch (IOException ex) {
+                throw new WarehouseException("Problem while sending report export.", ex);
+            }
+            return null;
+        });
+    }
+
+    // INFO: exports the report once to every supported type and delivers each
+    // export, meant to be called by scheduled jobs.
+    protected Map<String, Object> makePublishReport(Request req, Response res) throws WarehouseException {
+        Report.Type reportType;
+        try {
+            reportType = Report.Type.valueOf(req.queryParams("reportType"));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Report type must be specified.", ex);
+        }
+        ReportParameters parameters = getReportParameters(req);
+        Compression compression = getCompression(req);
+        Map<ExportType, ByteArrayOutputStream> exports = new EnumMap<>(ExportType.class);
+        Map<ExportType, OutputStream> outs = new EnumMap<>(ExportType.class);
+        // INFO: the outputs are closed when the export fails too, that frees
+        // their compressors.
+        try (Closeable closeOuts = () -> closeAll(outs.values())) {
+            for (ExportType exportType : ExportType.values()) {
+                if (dependencyFactory.isSupported(exportType)) {
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    exports.put(exportType, baos);
+                    outs.put(exportType, compression.compress(baos));
+                }
+            }
+            newReportDeadline().run(() -> {
+                Report report = warehouse.generateReport(reportType, parameters);
+                dependencyFactory.newFanOutExporter(report, outs).export();
+                return null;
+            });
+        } catch (IOException ex) {
+            throw new WarehouseException("Problem while compressing report export.", ex);
+        }
+
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<ExportType, ByteArrayOutputStream> export : exports.entrySet()) {
+            sizes.put(export.getKey().name(), (long) export.getValue().size());
+            try {
+                activeReportDelivery.deliver(reportType, export.getKey(), compression, export.getValue().toByteArray());
+            } catch (ReportDeliveryException ex) {
+                errors.add(ex.getMessage());
+                System.err.println(ex.getMessage());
+            }
+        }
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", String.format("%s published", reportType.getDisplayName()));
+        model.put("sizes", sizes);
+        model.put("errors", errors);
         return model;
     }
 
-    private String exportToString(ExportType exportType, ByteArrayOutputStream baos) {
+    // INFO: every stream gets closed, the first failure is thrown.
+    private static void closeAll(Collection<OutputStream> outs) throws IOException {
+        IOException failure = null;
+        for (OutputStream out : outs) {
+            try {
+                out.close();
+            } catch (IOException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // INFO: started per request, before any of the report work is done.
+    protected final Deadline newReportDeadline() {
+        return Deadline.after(REPORT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // INFO: the direct export always covers every day, one by one.
+    private boolean isDirectExport(Report.Type reportType, ExportType exportType, ReportParameters parameters) {
+        return parameters.isAll()
+            && dependencyFactory.isSupported(exportType)
+            && warehouse.isDirectExportSupported(reportType, exportType);
+    }
+
+    // INFO: bad parameters are answered with 400, see `ReportParameters.parse`.
+    protected final ReportParameters getReportParameters(Request req) {
+        return ReportParameters.parse(
+            req.queryParams("from"),
+            req.queryParams("to"),
+            req.queryParams("granularity"),
+            req.queryParams("ranking"),
+            req.queryParams("limit"));
+    }
+
+    private Compression getCompression(Request req) {
+        String compressionParam = req.queryParams("compression");
+        if (compressionParam == null || compressionParam.isBlank()) {
+            return Compression.NONE;
+        }
+        try {
+            return Compression.valueOf(compressionParam);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Compression must be one of NONE, GZIP or DEFLATE.", ex);
+        }
+    }
+
+    protected Map<String, Object> makeReportCacheStatistics(Request req, Response res) {
+        ReportCache reportCache = Warehouses.getReportCache();
+        Map<String, Object> model = new HashMap<>();
+        model.put("hits", reportCache.getHits());
+        model.put("coalesced", reportCache.getCoalesced());
+        model.put("misses", reportCache.getMisses());
+        model.put("hitRatio", reportCache.getHitRatio());
+        model.put("computeMillis", reportCache.getComputeMillis());
+        model.put("averageComputeMillis", reportCache.getAverageComputeMillis());
+        model.put("exportHits", exportCache.getHits());
+        model.put("exportMisses", exportCache.getMisses());
+        model.put("exportMemoryBytes", exportCache.getMemoryBytes());
+        model.put("exportDiskBytes", exportCache.getDiskBytes());
+        return model;
+    }
+
+    private String exportToString(ExportType exportType, Compression compression, byte[] bytes) {
+        if (compression != Compression.NONE) {
+            return String.format("%s bytes of %s compressed %s export, download it instead.", bytes.length, compression, exportType);
+        }
         // INFO: after refactoring the Cli and Web classes to rely on an ExportFactory in order
         // to share the same exporter instantiation logic between the two classes the way HTML
         // export result is presented needed to be moved *after* the export happened, otherwise
         // this could have been done only by code modification that would disrupt the flow of the
         // companion videos narrative, hence *this* code.
+        if (exportType.isBinary()) {
+            return String.format("%s bytes of binary %s export, download it instead.", bytes.length, exportType);
+        }
         if (exportType == ExportType.HTML) {
             ByteArrayOutputStream temp = new ByteArrayOutputStream();
             try {
-                baos.writeTo(new HtmlEscaperOutputStream(temp));
+                new HtmlEscaperOutputStream(temp).write(bytes);
             } catch (IOException ex) {
                 throw new IllegalStateException(ex);
             }
             return temp.toString();
         }
-        return baos.toString();
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
     protected Map<String, Object> makeChartPlot(Request req, Response res) throws WarehouseException {
@@ -144,7 +399,9 @@ public class Backend extends App implements Runnable, SparkApplication {
         } catch (IllegalArgumentException ex) {
             throw new IllegalArgumentException("Report and chart type must be specified.", ex);
         }
-        Report report = warehouse.generateReport(reportType);
+        ReportParameters parameters = getReportParameters(req);
+        Deadline deadline = newReportDeadline();
+        Report report = deadline.run(() -> warehouse.generateReport(reportType, parameters));
 
         ChartPlotter plotter = dependencyFactory.newPlotter(reportType, chartType);
 
@@ -152,7 +409,10 @@ public class Backend extends App implements Runnable, SparkApplication {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         try {
             OutputStream out = Base64.getEncoder().wrap(baos);
-            plotter.plot(report, out);
+            deadline.run(() -> {
+                plotter.plot(report, out);
+                return null;
+            });
         } catch (IOException ex) {
             error = ex.getMessage();
             System.err.println(ex.getMessage());
@@ -171,6 +431,31 @@ public class Backend extends App implements Runnable, SparkApplication {
         return null;
     }
 
+    // INFO: queue figures are only there for deliveries made in the background.
+    protected List<Map<String, Object>> makeReportDeliveryStatus(Request req, Response res) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (ReportDelivery reportDelivery : reportDeliveries) {
+            ReportDeliveryMetrics metrics = reportDelivery.getMetrics();
+            Map<String, Object> model = new HashMap<>();
+            model.put("name", reportDelivery.getName());
+            model.put("active", reportDelivery == activeReportDelivery);
+            model.put("delivered", metrics.getDelivered());
+            model.put("failed", metrics.getFailed());
+            model.put("averageDeliveryMillis", metrics.getAverageDeliveryMillis());
+            if (reportDelivery instanceof QueuedReportDelivery) {
+                QueuedReportDelivery queuedReportDelivery = (QueuedReportDelivery) reportDelivery;
+                model.put("queued", queuedReportDelivery.getQueued());
+                model.put("capacity", queuedReportDelivery.getCapacity());
+                model.put("workers", queuedReportDelivery.getWorkers());
+                model.put("rejected", metrics.getRejected());
+                model.put("averageQueueMillis", metrics.getAverageQueueMillis());
+                model.put("maxQueueMillis", metrics.getMaxQueueMillis());
+            }
+            result.add(model);
+        }
+        return result;
+    }
+
     protected final Object doAddProduct(Request req, Response res) throws WarehouseException {
         String name = req.queryParams("name");
         int price;
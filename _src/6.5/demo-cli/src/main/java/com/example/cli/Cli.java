@@ -65,7 +65,30 @@ public final class Cli extends App implements Runnable {
         new MenuOption(5, "Go back to previous menu")
     );
 
-    private static final List<MenuOption> REPORT_OPTIONS = List.of(
+    // INFO: the approximate reports are only offered when they're enabled.
+    private static final List<Report.Type> REPORT_TYPES = Warehouses.isApproximateReportsEnabled()
+        ? List.of(
+            Report.Type.DAILY_REVENUE,
+            Report.Type.TOP_PRODUCTS,
+            Report.Type.TOP_CUSTOMERS,
+            Report.Type.APPROXIMATE_DAILY_CUSTOMERS,
+            Report.Type.APPROXIMATE_POPULAR_PRODUCTS,
+            Report.Type.APPROXIMATE_ORDER_VALUES)
+        : List.of(
+            Report.Type.DAILY_REVENUE,
+            Report.Type.TOP_PRODUCTS,
+            Report.Type.TOP_CUSTOMERS);
+
+    private static final List<MenuOption> REPORT_OPTIONS = new ArrayList<>();
+
+    static {
+        IntStream.range(0, REPORT_TYPES.size())
+            .mapToObj(i -> new MenuOption(i + 1, REPORT_TYPES.get(i).getDisplayName()))
+            .forEach(REPORT_OPTIONS::add);
+        REPORT_OPTIONS.add(new MenuOption(REPORT_OPTIONS.size() + 1, "Go back to previous menu"));
+    }
+
+    private static final List<MenuOption> CHART_REPORT_OPTIONS = List.of(
         new MenuOption(1, "Daily revenue report"),
         new MenuOption(2, "Go back to previous menu")
     );
@@ -80,7 +103,7 @@ public final class Cli extends App implements Runnable {
         2, CUSTOMER_OPTIONS,
         3, ORDER_OPTIONS,
         4, REPORT_OPTIONS,
-        5, REPORT_OPTIONS,
+        5, CHART_REPORT_OPTIONS,
         6, SETTINGS
     );
 
@@ -272,12 +295,10 @@ public final class Cli extends App implements Runnable {
     }
 
     private void doReportAction(int subMenuChoice) throws WarehouseException {
-        Report.Type reportType;
-        if (subMenuChoice == 1) {
-            reportType = Report.Type.DAILY_REVENUE;
-        } else {
+        if (subMenuChoice < 1 || subMenuChoice > REPORT_TYPES.size()) {
             throw new IllegalStateException("There are no such menu option, this cannot happen.");
         }
+        Report.Type reportType = REPORT_TYPES.get(subMenuChoice - 1);
         Report report = warehouse.generateReport(reportType);
 
         ExportType exportType;
@@ -288,7 +309,7 @@ public final class Cli extends App implements Runnable {
         }
         exportType = ExportType.values()[exportMenuChoice - 1];
 
-        CopyByteArrayOutputStream cos = new CopyByteArrayOutputStream(System.out);
+        CopyByteArrayOutputStream cos = new CopyByteArrayOutputStream(System.out, !exportType.isBinary());
         doReportExport(report, exportType, new PrintStream(cos));
 
         try {
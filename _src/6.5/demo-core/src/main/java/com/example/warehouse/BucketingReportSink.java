@@ -0,0 +1,123 @@
+package com.example.warehouse;
+
+import java.util.Arrays;
+import java.util.List;
+
+// INFO: applies report parameters to daily records on their way to another
+// sink, it drops the records out of range and sums the numbers of the
+// records in the same bucket. Records must come in date order, then only
+// the bucket being summed is held in memory.
+public final class BucketingReportSink implements ReportSink {
+
+    private static final int DATE_COLUMN = 0;
+
+    private final class Bucket implements ReportRecord {
+
+        private int epochDay;
+        private long[] numbers;
+
+        @Override
+        public int getColumnCount() {
+            return numbers.length;
+        }
+
+        @Override
+        public Report.DataType getDataType(int column) {
+            return column == DATE_COLUMN ? Report.DataType.DATE : Report.DataType.NUMBER;
+        }
+
+        @Override
+        public int getEpochDay(int column) {
+            if (column != DATE_COLUMN) {
+                throw new IllegalStateException("Only the first column holds dates.");
+            }
+            return epochDay;
+        }
+
+        @Override
+        public long getNumber(int column) {
+            if (column == DATE_COLUMN) {
+                throw new IllegalStateException("The first column holds dates.");
+            }
+            return numbers[column];
+        }
+
+        @Override
+        public String getString(int column) {
+            throw new IllegalStateException("Bucketed reports have no string columns.");
+        }
+
+        @Override
+        public String getAsString(int column) {
+            return column == DATE_COLUMN ? getDate(column).toString() : Long.toString(numbers[column]);
+        }
+    }
+
+    private final ReportParameters parameters;
+    private final ReportSink sink;
+
+    private final Bucket bucket = new Bucket();
+    private boolean bucketStarted;
+
+    public BucketingReportSink(ReportParameters parameters, ReportSink sink) {
+        this.parameters = parameters;
+        this.sink = sink;
+    }
+
+    @Override
+    public void start(List<String> labels) {
+        bucketStarted = false;
+        sink.start(labels);
+    }
+
+    @Override
+    public void record(ReportRecord record) {
+        if (parameters.isAll()) {
+            sink.record(record);
+            return;
+        }
+        checkRecord(record);
+        if (!parameters.contains(record.getDate(DATE_COLUMN))) {
+            return;
+        }
+        int epochDay = Math.toIntExact(parameters.getGranularity()
+            .getBucket(record.getDate(DATE_COLUMN))
+            .toEpochDay());
+        if (bucketStarted && bucket.epochDay != epochDay) {
+            sink.record(bucket);
+            bucketStarted = false;
+        }
+        if (!bucketStarted) {
+            if (bucket.numbers == null || bucket.numbers.length != record.getColumnCount()) {
+                bucket.numbers = new long[record.getColumnCount()];
+            } else {
+                Arrays.fill(bucket.numbers, 0L);
+            }
+            bucket.epochDay = epochDay;
+            bucketStarted = true;
+        }
+        for (int i = 1; i < record.getColumnCount(); i++) {
+            bucket.numbers[i] += record.getNumber(i);
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (bucketStarted) {
+            sink.record(bucket);
+            bucketStarted = false;
+        }
+        sink.finish();
+    }
+
+    private static void checkRecord(ReportRecord record) {
+        if (record.getDataType(DATE_COLUMN) != Report.DataType.DATE) {
+            throw new IllegalArgumentException("Can only bucket reports with a date in the first column.");
+        }
+        for (int i = 1; i < record.getColumnCount(); i++) {
+            if (record.getDataType(i) != Report.DataType.NUMBER) {
+                throw new IllegalArgumentException("Can only bucket reports with numbers after the date.");
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.warehouse;
+
+import java.util.concurrent.TimeUnit;
+
+// INFO: the point in time work done for a request has to be finished by.
+// The deadline is bound to the thread handling the request via `run` and
+// long running loops check it cooperatively via `check`, so timed out work
+// stops instead of running on after its caller gave up. Work handed to
+// other threads has to take `current()` along with it.
+public final class Deadline {
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+
+        T call() throws E;
+    }
+
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private static final ThreadLocal<Deadline> CURRENT = ThreadLocal.withInitial(() -> NONE);
+
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public static Deadline after(long timeout, TimeUnit unit) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be greater than 0.");
+        }
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout), true);
+    }
+
+    // INFO: the deadline of the work the calling thread does, `none()` when
+    // it was not started via `run`.
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    private final long nanos;
+    private final boolean bounded;
+
+    private Deadline(long nanos, boolean bounded) {
+        this.nanos = nanos;
+        this.bounded = bounded;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - nanos >= 0;
+    }
+
+    public long getRemainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(nanos - System.nanoTime()));
+    }
+
+    // INFO: interrupted threads are treated as timed out too, that's how
+    // work waiting on other threads gets cancelled.
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded.");
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new DeadlineExceededException("Cancelled before finishing.");
+        }
+    }
+
+    // INFO: binds the deadline to the calling thread while `call` runs. When
+    // `call` fails after the deadline passed, e.g. because a JDBC query timed
+    // out, the failure is reported as a `DeadlineExceededException`.
+    public <T, E extends Exception> T run(Call<T, E> call) throws E {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.call();
+        } catch (DeadlineExceededException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            if (isExpired()) {
+                throw new DeadlineExceededException("Deadline exceeded.", ex);
+            }
+            throw ex;
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.warehouse;
+
+// INFO: unchecked, so the deadline can be checked in places that can't
+// throw a `WarehouseException`, e.g. report sinks and stream pipelines.
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.warehouse;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public final class Product {
+public final class Product implements Serializable {
 
     private int id;
     private final String name;
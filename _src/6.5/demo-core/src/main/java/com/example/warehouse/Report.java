@@ -1,26 +1,91 @@
 package com.example.warehouse;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import static java.util.stream.Collectors.toList;
-
+// INFO: values are stored column by column in primitive arrays, dates as
+// epoch days, numbers as longs and strings as indices into a dictionary of
+// distinct strings. Exporters and plotters should read records via a
+// `Cursor`, `getRecords()` is only a view creating `Field`s on demand.
 public final class Report {
 
     public enum Type {
-        DAILY_REVENUE("Daily revenue report");
+        DAILY_REVENUE("Daily revenue report", true),
+        TOP_PRODUCTS("Top products report", false),
+        TOP_CUSTOMERS("Top customers report", false),
+        APPROXIMATE_DAILY_CUSTOMERS("Daily distinct customers report (approximate)", true),
+        APPROXIMATE_POPULAR_PRODUCTS("Popular products report (approximate)", false),
+        APPROXIMATE_ORDER_VALUES("Order value distribution report (approximate)", false);
 
         private final String displayName;
+        private final boolean timeSeries;
 
-        Type(String displayName) {
+        Type(String displayName, boolean timeSeries) {
             this.displayName = displayName;
+            this.timeSeries = timeSeries;
         }
 
         public String getDisplayName() {
             return displayName;
         }
+
+        // INFO: only reports with a date per record can be bucketed or plotted.
+        public boolean isTimeSeries() {
+            return timeSeries;
+        }
+    }
+
+    public enum Ranking {
+
+        REVENUE,
+        QUANTITY
+    }
+
+    // INFO: records are grouped into buckets of this size, a bucket is
+    // identified by the date it starts with, weeks start on Monday.
+    public enum Granularity {
+
+        DAY,
+        WEEK,
+        MONTH,
+        YEAR;
+
+        public LocalDate getBucket(LocalDate date) {
+            switch (this) {
+                case DAY:
+                    return date;
+                case WEEK:
+                    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                case YEAR:
+                    return date.withDayOfYear(1);
+                default:
+                    throw new IllegalStateException(String.format("Granularity %s not handled.", this));
+            }
+        }
+
+        public LocalDate getNextBucket(LocalDate bucket) {
+            switch (this) {
+                case DAY:
+                    return bucket.plusDays(1);
+                case WEEK:
+                    return bucket.plusWeeks(1);
+                case MONTH:
+                    return bucket.plusMonths(1);
+                case YEAR:
+                    return bucket.plusYears(1);
+                default:
+                    throw new IllegalStateException(String.format("Granularity %s not handled.", this));
+            }
+        }
     }
 
     public enum DataType {
@@ -63,27 +128,509 @@ public final class Report {
         }
     }
 
+    // INFO: moves forward over the records, starting before the first one.
+    // A cursor over a range of records stops before the end of the range,
+    // rows and first and last still refer to the whole report.
+    public final class Cursor implements ReportRecord {
+
+        private final int end;
+        private int row;
+
+        private Cursor(int from, int to) {
+            this.row = from - 1;
+            this.end = to;
+        }
+
+        public boolean next() {
+            if (row + 1 < end) {
+                row++;
+                return true;
+            }
+            return false;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public boolean isFirst() {
+            return row == 0;
+        }
+
+        public boolean isLast() {
+            return row == recordCount - 1;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return Report.this.getColumnCount();
+        }
+
+        @Override
+        public DataType getDataType(int column) {
+            return Report.this.getDataType(column);
+        }
+
+        @Override
+        public int getEpochDay(int column) {
+            return columns[column].getEpochDay(row);
+        }
+
+        @Override
+        public long getNumber(int column) {
+            return columns[column].getNumber(row);
+        }
+
+        @Override
+        public String getString(int column) {
+            return columns[column].getString(row);
+        }
+
+        @Override
+        public String getAsString(int column) {
+            return columns[column].getAsString(row);
+        }
+    }
+
+    private abstract static class Column {
+
+        abstract DataType getDataType();
+
+        abstract void ensureCapacity(int capacity);
+
+        abstract void set(int row, Field field);
+
+        abstract void set(int row, ReportRecord record, int column);
+
+        int getEpochDay(int row) {
+            throw new IllegalStateException(String.format("Column of type %s has no dates.", getDataType()));
+        }
+
+        long getNumber(int row) {
+            throw new IllegalStateException(String.format("Column of type %s has no numbers.", getDataType()));
+        }
+
+        String getString(int row) {
+            throw new IllegalStateException(String.format("Column of type %s has no strings.", getDataType()));
+        }
+
+        abstract String getAsString(int row);
+
+        // INFO: the length of the longest value returned by `getAsString`.
+        abstract int getWidth();
+
+        abstract Field getField(int row);
+    }
+
+    private static final class DateColumn extends Column {
+
+        private int[] epochDays = new int[INITIAL_CAPACITY];
+
+        // INFO: the widest dates are the earliest and the latest, years with
+        // more than 4 digits and negative years are written with a sign.
+        private int minEpochDay = Integer.MAX_VALUE;
+        private int maxEpochDay = Integer.MIN_VALUE;
+
+        @Override
+        DataType getDataType() {
+            return DataType.DATE;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, newCapacity(epochDays.length, capacity));
+            }
+        }
+
+        @Override
+        void set(int row, Field field) {
+            set(row, field.getAsDate());
+        }
+
+        @Override
+        void set(int row, ReportRecord record, int column) {
+            set(row, record.getEpochDay(column));
+        }
+
+        void set(int row, LocalDate date) {
+            set(row, Math.toIntExact(date.toEpochDay()));
+        }
+
+        private void set(int row, int epochDay) {
+            epochDays[row] = epochDay;
+            minEpochDay = Math.min(minEpochDay, epochDay);
+            maxEpochDay = Math.max(maxEpochDay, epochDay);
+        }
+
+        @Override
+        int getEpochDay(int row) {
+            return epochDays[row];
+        }
+
+        @Override
+        String getAsString(int row) {
+            return LocalDate.ofEpochDay(epochDays[row]).toString();
+        }
+
+        @Override
+        int getWidth() {
+            if (minEpochDay > maxEpochDay) {
+                return 0;
+            }
+            return Math.max(
+                LocalDate.ofEpochDay(minEpochDay).toString().length(),
+                LocalDate.ofEpochDay(maxEpochDay).toString().length());
+        }
+
+        @Override
+        Field getField(int row) {
+            return new Field(DataType.DATE, LocalDate.ofEpochDay(epochDays[row]));
+        }
+    }
+
+    // INFO: numbers in reports are whole numbers, counts and amounts of money.
+    private static final class NumberColumn extends Column {
+
+        private long[] numbers = new long[INITIAL_CAPACITY];
+
+        // INFO: the widest numbers are the smallest and the largest.
+        private long minNumber = Long.MAX_VALUE;
+        private long maxNumber = Long.MIN_VALUE;
+
+        @Override
+        DataType getDataType() {
+            return DataType.NUMBER;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > numbers.length) {
+                numbers = Arrays.copyOf(numbers, newCapacity(numbers.length, capacity));
+            }
+        }
+
+        @Override
+        void set(int row, Field field) {
+            set(row, field.getAsNumber().longValue());
+        }
+
+        @Override
+        void set(int row, ReportRecord record, int column) {
+            set(row, record.getNumber(column));
+        }
+
+        void set(int row, long number) {
+            numbers[row] = number;
+            minNumber = Math.min(minNumber, number);
+            maxNumber = Math.max(maxNumber, number);
+        }
+
+        @Override
+        long getNumber(int row) {
+            return numbers[row];
+        }
+
+        @Override
+        String getAsString(int row) {
+            return Long.toString(numbers[row]);
+        }
+
+        @Override
+        int getWidth() {
+            if (minNumber > maxNumber) {
+                return 0;
+            }
+            return Math.max(Long.toString(minNumber).length(), Long.toString(maxNumber).length());
+        }
+
+        @Override
+        Field getField(int row) {
+            return new Field(DataType.NUMBER, numbers[row]);
+        }
+    }
+
+    private static final class StringColumn extends Column {
+
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int maxLength;
+
+        @Override
+        DataType getDataType() {
+            return DataType.STRING;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, newCapacity(values.length, capacity));
+            }
+        }
+
+        @Override
+        void set(int row, Field field) {
+            set(row, field.getAsString());
+        }
+
+        @Override
+        void set(int row, ReportRecord record, int column) {
+            set(row, record.getString(column));
+        }
+
+        private void set(int row, String value) {
+            values[row] = codes.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                maxLength = Math.max(maxLength, v.length());
+                return dictionary.size() - 1;
+            });
+        }
+
+        @Override
+        String getString(int row) {
+            return dictionary.get(values[row]);
+        }
+
+        @Override
+        String getAsString(int row) {
+            return dictionary.get(values[row]);
+        }
+
+        @Override
+        int getWidth() {
+            return maxLength;
+        }
+
+        @Override
+        Field getField(int row) {
+            return new Field(DataType.STRING, dictionary.get(values[row]));
+        }
+    }
+
+    // INFO: stands in for the columns of a report without records, their
+    // types are unknown and they have no values.
+    private static final class UntypedColumn extends Column {
+
+        @Override
+        DataType getDataType() {
+            throw new IllegalStateException("Column types are unknown until the first record is added.");
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            throw new IllegalStateException("This shouldn't happen.");
+        }
+
+        @Override
+        void set(int row, Field field) {
+            throw new IllegalStateException("This shouldn't happen.");
+        }
+
+        @Override
+        void set(int row, ReportRecord record, int column) {
+            throw new IllegalStateException("This shouldn't happen.");
+        }
+
+        @Override
+        String getAsString(int row) {
+            throw new IllegalStateException("This shouldn't happen.");
+        }
+
+        @Override
+        int getWidth() {
+            return 0;
+        }
+
+        @Override
+        Field getField(int row) {
+            throw new IllegalStateException("This shouldn't happen.");
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final Column UNTYPED_COLUMN = new UntypedColumn();
+
     private List<String> labels;
-    private List<List<Field>> records;
+    private Column[] columns;
+    private int recordCount;
 
     Report() {
         this.labels = new ArrayList<>();
-        this.records = new ArrayList<>();
+        this.columns = new Column[0];
     }
 
     public List<String> getLabels() {
         return labels;
     }
 
+    public int getColumnCount() {
+        return labels.size();
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    // INFO: column types are known once the first record is added, until
+    // then every column is untyped.
+    public DataType getDataType(int column) {
+        if (column < 0 || column >= getColumnCount()) {
+            throw new IndexOutOfBoundsException("Column index out of range: " + column);
+        }
+        return columns[column].getDataType();
+    }
+
+    // INFO: the length of the longest value of the column as a string, known
+    // from what was tracked while records were added, without going over them.
+    public int getWidth(int column) {
+        if (column < 0 || column >= getColumnCount()) {
+            throw new IndexOutOfBoundsException("Column index out of range: " + column);
+        }
+        return columns[column].getWidth();
+    }
+
+    public Cursor cursor() {
+        return new Cursor(0, recordCount);
+    }
+
+    // INFO: over the records from `from` inclusive to `to` exclusive.
+    public Cursor cursor(int from, int to) {
+        if (from < 0 || to > recordCount || from > to) {
+            throw new IndexOutOfBoundsException(String.format(
+                "Record range %s to %s out of range: %s records.", from, to, recordCount));
+        }
+        return new Cursor(from, to);
+    }
+
     public List<List<Field>> getRecords() {
-        return records;
+        return new AbstractList<>() {
+
+            @Override
+            public List<Field> get(int index) {
+                if (index < 0 || index >= recordCount) {
+                    throw new IndexOutOfBoundsException("Record index out of range: " + index);
+                }
+                Field[] fields = new Field[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    fields[i] = columns[i].getField(index);
+                }
+                return List.of(fields);
+            }
+
+            @Override
+            public int size() {
+                return recordCount;
+            }
+        };
+    }
+
+    public void writeTo(ReportSink sink) {
+        sink.start(labels);
+        Cursor record = cursor();
+        while (record.next()) {
+            sink.record(record);
+        }
+        sink.finish();
     }
 
     void addLabel(String label) {
+        if (recordCount > 0) {
+            throw new IllegalStateException("Labels must be added before records.");
+        }
         labels.add(label);
+        columns = Arrays.copyOf(columns, labels.size());
+        columns[columns.length - 1] = UNTYPED_COLUMN;
     }
 
     void addRecord(Field... fields) {
-        records.add(Arrays.stream(fields).collect(toList()));
+        checkRecord(fields.length);
+        if (recordCount == 0) {
+            columns = new Column[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                columns[i] = newColumn(fields[i].getDataType());
+            }
+        }
+        ensureCapacity(recordCount + 1);
+        for (int i = 0; i < fields.length; i++) {
+            columns[i].set(recordCount, fields[i]);
+        }
+        recordCount++;
+    }
+
+    void addRecord(ReportRecord record) {
+        checkRecord(record.getColumnCount());
+        if (recordCount == 0) {
+            columns = new Column[record.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = newColumn(record.getDataType(i));
+            }
+        }
+        ensureCapacity(recordCount + 1);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].set(recordCount, record, i);
+        }
+        recordCount++;
+    }
+
+    // INFO: same as adding a date field followed by number fields, without
+    // boxing the values into `Field`s first.
+    void addRecord(LocalDate date, long... numbers) {
+        checkRecord(numbers.length + 1);
+        if (recordCount == 0) {
+            columns = new Column[numbers.length + 1];
+            columns[0] = new DateColumn();
+            for (int i = 0; i < numbers.length; i++) {
+                columns[i + 1] = new NumberColumn();
+            }
+        }
+        ensureCapacity(recordCount + 1);
+        if (!(columns[0] instanceof DateColumn)) {
+            throw new IllegalArgumentException("The first column doesn't hold dates.");
+        }
+        ((DateColumn) columns[0]).set(recordCount, date);
+        for (int i = 0; i < numbers.length; i++) {
+            if (!(columns[i + 1] instanceof NumberColumn)) {
+                throw new IllegalArgumentException(String.format("Column %s doesn't hold numbers.", i + 1));
+            }
+            ((NumberColumn) columns[i + 1]).set(recordCount, numbers[i]);
+        }
+        recordCount++;
+    }
+
+    // INFO: there's a column per label, so this holds for the first record too.
+    private void checkRecord(int fieldCount) {
+        if (fieldCount != columns.length) {
+            throw new IllegalArgumentException(String.format(
+                "Record has %s fields, but the report has %s columns.", fieldCount, columns.length));
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        for (Column column : columns) {
+            column.ensureCapacity(capacity);
+        }
+    }
+
+    private static Column newColumn(DataType dataType) {
+        switch (dataType) {
+            case DATE:
+                return new DateColumn();
+            case NUMBER:
+                return new NumberColumn();
+            case STRING:
+                return new StringColumn();
+            default:
+                throw new IllegalStateException(String.format("Data type %s not handled.", dataType));
+        }
+    }
+
+    private static int newCapacity(int current, int required) {
+        return Math.max(required, current + (current >> 1));
     }
 }
@@ -0,0 +1,32 @@
+package com.example.warehouse;
+
+import java.util.List;
+
+// INFO: builds a `Report` from what it receives, for consumers that need
+// all records at once.
+public final class ReportCollector implements ReportSink {
+
+    private Report report;
+
+    @Override
+    public void start(List<String> labels) {
+        report = new Report();
+        labels.forEach(report::addLabel);
+    }
+
+    @Override
+    public void record(ReportRecord record) {
+        report.addRecord(record);
+    }
+
+    @Override
+    public void finish() {
+    }
+
+    public Report getReport() {
+        if (report == null) {
+            throw new IllegalStateException("No report received yet.");
+        }
+        return report;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.warehouse;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// INFO: limits a report to the records between two dates, both inclusive
+// and either one optional, and groups the records into buckets. Top reports
+// ignore the granularity, they're ranked and limited instead.
+public final class ReportParameters {
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    private static final ReportParameters ALL = new ReportParameters(null, null, Report.Granularity.DAY);
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Report.Granularity granularity;
+    private final Report.Ranking ranking;
+    private final int limit;
+
+    public ReportParameters(LocalDate from, LocalDate to, Report.Granularity granularity) {
+        this(from, to, granularity, Report.Ranking.REVENUE, DEFAULT_LIMIT);
+    }
+
+    public ReportParameters(LocalDate from, LocalDate to, Report.Granularity granularity, Report.Ranking ranking, int limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("The report's start date cannot be after its end date.");
+        }
+        if (granularity == null) {
+            throw new IllegalArgumentException("Report granularity cannot be null.");
+        }
+        if (ranking == null) {
+            throw new IllegalArgumentException("Report ranking cannot be null.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Report limit must be greater than 0.");
+        }
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+        this.ranking = ranking;
+        this.limit = limit;
+    }
+
+    public static ReportParameters all() {
+        return ALL;
+    }
+
+    // INFO: from request parameters, any of them may be missing or blank.
+    // `from` and `to` are dates in `yyyy-MM-dd` format, the `granularity`
+    // defaults to `DAY`. Top reports are ranked by `REVENUE` or `QUANTITY`
+    // (revenue by default) and `limit`ed to 10 entries by default.
+    public static ReportParameters parse(String from, String to, String granularity, String ranking, String limit) {
+        Report.Granularity parsedGranularity = Report.Granularity.DAY;
+        if (isPresent(granularity)) {
+            try {
+                parsedGranularity = Report.Granularity.valueOf(granularity);
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Granularity must be one of DAY, WEEK, MONTH or YEAR.", ex);
+            }
+        }
+        Report.Ranking parsedRanking = Report.Ranking.REVENUE;
+        if (isPresent(ranking)) {
+            try {
+                parsedRanking = Report.Ranking.valueOf(ranking);
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Ranking must be either REVENUE or QUANTITY.", ex);
+            }
+        }
+        int parsedLimit = DEFAULT_LIMIT;
+        if (isPresent(limit)) {
+            try {
+                parsedLimit = Integer.parseInt(limit);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("The limit must be an integer.", ex);
+            }
+        }
+        return new ReportParameters(
+            parseDate("from", from), parseDate("to", to), parsedGranularity, parsedRanking, parsedLimit);
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public Report.Granularity getGranularity() {
+        return granularity;
+    }
+
+    public Report.Ranking getRanking() {
+        return ranking;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // INFO: every record, day by day, regardless of ranking and limit.
+    public boolean isAll() {
+        return from == null && to == null && granularity == Report.Granularity.DAY;
+    }
+
+    public boolean isDefault() {
+        return isAll() && ranking == Report.Ranking.REVENUE && limit == DEFAULT_LIMIT;
+    }
+
+    public boolean contains(LocalDate date) {
+        return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+
+    private static LocalDate parseDate(String name, String value) {
+        if (!isPresent(value)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException(String.format("Invalid date for `%s', format must be `yyyy-MM-dd'.", name), ex);
+        }
+    }
+
+    private static boolean isPresent(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.warehouse;
+
+import java.time.LocalDate;
+
+// INFO: a single record of a report, whoever hands it out may reuse the same
+// instance for the next record, so values must be read before moving on.
+public interface ReportRecord {
+
+    int getColumnCount();
+
+    Report.DataType getDataType(int column);
+
+    int getEpochDay(int column);
+
+    default LocalDate getDate(int column) {
+        return LocalDate.ofEpochDay(getEpochDay(column));
+    }
+
+    long getNumber(int column);
+
+    String getString(int column);
+
+    String getAsString(int column);
+}
@@ -0,0 +1,15 @@
+package com.example.warehouse;
+
+import java.util.List;
+
+// INFO: receives a report piece by piece, first the labels, then every
+// record in order and finally the end of the report, so reports of any size
+// can be handled without holding all their records in memory at once.
+public interface ReportSink {
+
+    void start(List<String> labels);
+
+    void record(ReportRecord record);
+
+    void finish();
+}
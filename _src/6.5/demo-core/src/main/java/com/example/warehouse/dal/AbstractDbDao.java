@@ -1,24 +1,49 @@
 package com.example.warehouse.dal;
 
+import com.example.warehouse.Deadline;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 abstract class AbstractDbDao {
 
-    static Connection getConnection() throws SQLException {
-        String url = System.getenv("JDBC_URL");
-        String user = System.getenv("JDBC_USER");
-        String password = System.getenv("JDBC_PASSWORD");
-        String driver = System.getenv("JDBC_DRIVER");
-        try {
-            // INFO: when deployed as a WAR to a servlet container like Tomcat
-            // JDBC driver classes aren't loaded automatically when the driver's
-            // JAR is inside the WAR.
-            Class.forName(driver);
-        } catch (Throwable ex) {
-            throw new SQLException("Must specify the JDBC driver class to use.", ex);
+    // INFO: the databases configured via environment variables, used by
+    // every DAO not given its own.
+    static final JdbcSource ENV_PRIMARY = JdbcSource.primaryFromEnv();
+    static final JdbcSource ENV_READ_REPLICA = JdbcSource.readReplicaFromEnv(ENV_PRIMARY);
+
+    private final JdbcSource primary;
+    private final JdbcSource readReplica;
+
+    // INFO: tests give local databases here instead of the ones configured
+    // via environment variables.
+    AbstractDbDao(JdbcSource primary, JdbcSource readReplica) {
+        this.primary = primary;
+        this.readReplica = readReplica;
+    }
+
+    // INFO: all writes and reads that must see the caller's own writes
+    // have to use this connection.
+    Connection getConnection() throws SQLException {
+        return primary.open();
+    }
+
+    // INFO: for reads that can tolerate replication lag, e.g. listings and
+    // reports, so they don't compete with order writes on the primary.
+    Connection getReadConnection() throws SQLException {
+        return readReplica.open();
+    }
+
+    // INFO: bounds the statement by the deadline of the calling thread, if it
+    // has one. Query timeouts are whole seconds, so the remaining time is
+    // rounded up and `Deadline.run` reports the timeout.
+    static void applyDeadline(Statement statement) throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline.isBounded()) {
+            deadline.check();
+            long seconds = (deadline.getRemainingMillis() + 999) / 1000;
+            statement.setQueryTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE, seconds)));
         }
-        return DriverManager.getConnection(url, user, password);
     }
 }
@@ -1,5 +1,6 @@
 package com.example.warehouse.dal;
 
+import com.example.warehouse.WarehouseException;
 import kong.unirest.HttpResponse;
 import kong.unirest.JsonNode;
 import kong.unirest.Unirest;
@@ -8,6 +9,8 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
 import static java.util.stream.StreamSupport.stream;
@@ -27,19 +30,58 @@ public class AbstractRestDao {
             .map(JSONObject.class::cast);
     }
 
-    protected JSONObject getObject(String url) throws UnirestException {
+    protected CompletableFuture<Stream<JSONObject>> getArrayAsync(String url) {
         return Unirest.get(url)
-            .asJson()
+            .asJsonAsync()
+            .thenApply(res -> {
+                if (!res.isSuccess()) {
+                    throw new UnirestException(res.getStatusText());
+                }
+                JSONArray array = res
+                    .getBody()
+                    .getArray();
+                return stream(array.spliterator(), false)
+                    .map(JSONObject.class::cast);
+            });
+    }
+
+    protected JSONObject getObject(String url) throws UnirestException {
+        HttpResponse<JsonNode> res = Unirest.get(url)
+            .asJson();
+        if (!res.isSuccess()) {
+            throw new UnirestException(res.getStatusText());
+        }
+        return res
             .getBody()
             .getObject();
     }
 
+    protected CompletableFuture<JSONObject> getObjectAsync(String url) {
+        return Unirest.get(url)
+            .asJsonAsync()
+            .thenApply(res -> {
+                if (!res.isSuccess()) {
+                    throw new UnirestException(res.getStatusText());
+                }
+                return res
+                    .getBody()
+                    .getObject();
+            });
+    }
+
     protected void postObject(String url, Map<String, Object> params) throws UnirestException {
         Unirest.post(url)
             .fields(params)
             .asEmpty();
     }
 
+    protected CompletableFuture<Void> postObjectAsync(String url, Map<String, Object> params) {
+        return Unirest.post(url)
+            .fields(params)
+            .asEmptyAsync()
+            .thenApply(res -> null);
+    }
+
     protected void deleteObject(String url) throws UnirestException {
         HttpResponse res = Unirest.delete(url)
             .asEmpty();
@@ -47,4 +89,30 @@ public class AbstractRestDao {
             throw new UnirestException(res.getStatusText());
         }
     }
+
+    protected CompletableFuture<Void> deleteObjectAsync(String url) {
+        return Unirest.delete(url)
+            .asEmptyAsync()
+            .thenApply(res -> {
+                if (!res.isSuccess()) {
+                    throw new UnirestException(res.getStatusText());
+                }
+                return null;
+            });
+    }
+
+    // INFO: async counterpart of catching the `UnirestException` and
+    // rethrowing it as a `WarehouseException` with the given message.
+    protected static <T> CompletableFuture<T> withFailureMessage(CompletableFuture<T> future, String message) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, t) -> {
+            if (t == null) {
+                result.complete(value);
+            } else {
+                Throwable cause = t instanceof CompletionException ? t.getCause() : t;
+                result.completeExceptionally(new WarehouseException(message, cause));
+            }
+        });
+        return result;
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Customer;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncCustomerDao {
+
+    CompletableFuture<Collection<Customer>> getCustomers();
+
+    CompletableFuture<Customer> getCustomer(int id);
+
+    CompletableFuture<Void> deleteCustomer(int id);
+}
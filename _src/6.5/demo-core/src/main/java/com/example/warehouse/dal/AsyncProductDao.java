@@ -0,0 +1,15 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Product;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncProductDao {
+
+    CompletableFuture<Collection<Product>> getProducts();
+
+    CompletableFuture<Product> getProduct(int id);
+
+    CompletableFuture<Void> addProduct(Product product);
+}
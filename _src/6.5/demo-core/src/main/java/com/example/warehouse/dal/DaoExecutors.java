@@ -0,0 +1,93 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Deadline;
+import com.example.warehouse.DeadlineExceededException;
+import com.example.warehouse.WarehouseException;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class DaoExecutors {
+
+    @FunctionalInterface
+    public interface DaoCall<T> {
+
+        T call() throws WarehouseException;
+    }
+
+    // INFO: runs the task on the calling thread, used to adapt DAOs that
+    // don't block (e.g. the in-memory ones) to the async DAO interfaces.
+    public static final Executor DIRECT = Runnable::run;
+
+    // INFO: a fixed number of threads with a bounded queue. When the queue
+    // is full the submitting thread runs the task itself, which slows down
+    // callers instead of piling up an unbounded backlog of blocking calls.
+    public static ExecutorService newBoundedExecutor(String name, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, String.format("%s-%s", name, counter.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory,
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public static <T> CompletableFuture<T> supply(Executor executor, DaoCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (WarehouseException ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+    }
+
+    // INFO: waits for the future and rethrows whatever the DAO call failed with
+    // as if it was called synchronously.
+    public static <T> T join(CompletableFuture<T> future) throws WarehouseException {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw rethrow(ex.getCause());
+        }
+    }
+
+    // INFO: like `join` but gives up waiting once the deadline passes, the
+    // future itself is left alone as others may still be waiting for it.
+    public static <T> T join(CompletableFuture<T> future, Deadline deadline) throws WarehouseException {
+        if (!deadline.isBounded()) {
+            return join(future);
+        }
+        try {
+            return future.get(deadline.getRemainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new DeadlineExceededException("Deadline exceeded while waiting for DAO call.", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while waiting for DAO call.", ex);
+        } catch (ExecutionException ex) {
+            throw rethrow(ex.getCause());
+        }
+    }
+
+    private static WarehouseException rethrow(Throwable cause) throws WarehouseException {
+        if (cause instanceof WarehouseException) {
+            throw (WarehouseException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new WarehouseException("Problem while waiting for DAO call.", cause);
+    }
+
+    private DaoExecutors() {
+    }
+}
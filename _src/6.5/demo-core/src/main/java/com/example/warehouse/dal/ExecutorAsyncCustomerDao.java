@@ -0,0 +1,38 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Customer;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.example.warehouse.dal.DaoExecutors.supply;
+
+public final class ExecutorAsyncCustomerDao implements AsyncCustomerDao {
+
+    private final CustomerDao customerDao;
+    private final Executor executor;
+
+    public ExecutorAsyncCustomerDao(CustomerDao customerDao, Executor executor) {
+        this.customerDao = customerDao;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Collection<Customer>> getCustomers() {
+        return supply(executor, customerDao::getCustomers);
+    }
+
+    @Override
+    public CompletableFuture<Customer> getCustomer(int id) {
+        return supply(executor, () -> customerDao.getCustomer(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteCustomer(int id) {
+        return supply(executor, () -> {
+            customerDao.deleteCustomer(id);
+            return null;
+        });
+    }
+}
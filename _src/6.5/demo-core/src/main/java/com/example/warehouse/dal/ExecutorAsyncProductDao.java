@@ -0,0 +1,38 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Product;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.example.warehouse.dal.DaoExecutors.supply;
+
+public final class ExecutorAsyncProductDao implements AsyncProductDao {
+
+    private final ProductDao productDao;
+    private final Executor executor;
+
+    public ExecutorAsyncProductDao(ProductDao productDao, Executor executor) {
+        this.productDao = productDao;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Collection<Product>> getProducts() {
+        return supply(executor, productDao::getProducts);
+    }
+
+    @Override
+    public CompletableFuture<Product> getProduct(int id) {
+        return supply(executor, () -> productDao.getProduct(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> addProduct(Product product) {
+        return supply(executor, () -> {
+            productDao.addProduct(product);
+            return null;
+        });
+    }
+}
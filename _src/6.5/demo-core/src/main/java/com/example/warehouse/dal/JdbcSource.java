@@ -0,0 +1,64 @@
+package com.example.warehouse.dal;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static java.lang.System.getenv;
+
+final class JdbcSource {
+
+    static JdbcSource primaryFromEnv() {
+        return new JdbcSource(
+            getenv("JDBC_URL"),
+            getenv("JDBC_USER"),
+            getenv("JDBC_PASSWORD"),
+            getenv("JDBC_DRIVER"),
+            false);
+    }
+
+    // INFO: falls back to the primary's settings for everything not given,
+    // when not even `JDBC_READ_URL` is set reads go to the primary as well.
+    static JdbcSource readReplicaFromEnv(JdbcSource primary) {
+        String url = getenv("JDBC_READ_URL");
+        if (url == null || url.isBlank()) {
+            return primary;
+        }
+        return new JdbcSource(
+            url,
+            getenv().getOrDefault("JDBC_READ_USER", primary.user),
+            getenv().getOrDefault("JDBC_READ_PASSWORD", primary.password),
+            getenv().getOrDefault("JDBC_READ_DRIVER", primary.driver),
+            true);
+    }
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final String driver;
+    private final boolean readOnly;
+
+    JdbcSource(String url, String user, String password, String driver, boolean readOnly) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.driver = driver;
+        this.readOnly = readOnly;
+    }
+
+    Connection open() throws SQLException {
+        try {
+            // INFO: when deployed as a WAR to a servlet container like Tomcat
+            // JDBC driver classes aren't loaded automatically when the driver's
+            // JAR is inside the WAR.
+            Class.forName(driver);
+        } catch (Throwable ex) {
+            throw new SQLException("Must specify the JDBC driver class to use.", ex);
+        }
+        Connection connection = DriverManager.getConnection(url, user, password);
+        if (readOnly) {
+            connection.setReadOnly(true);
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Customer;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.warehouse.dal.RestCustomerDao.CUSTOMERS_URL;
+import static java.util.stream.Collectors.toList;
+
+public class RestAsyncCustomerDao extends AbstractRestDao implements AsyncCustomerDao {
+
+    @Override
+    public CompletableFuture<Collection<Customer>> getCustomers() {
+        return withFailureMessage(getArrayAsync(CUSTOMERS_URL)
+            .thenApply(customers -> customers
+                .map(RestCustomerDao::toCustomer)
+                .sorted(Comparator.comparing(Customer::getId))
+                .collect(toList())), "Problem while fetching customers from API.");
+    }
+
+    @Override
+    public CompletableFuture<Customer> getCustomer(int id) {
+        return withFailureMessage(getObjectAsync(CUSTOMERS_URL + "/" + id)
+            .thenApply(RestCustomerDao::toCustomer), String.format("Problem while fetching customer (%s) from API", id));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteCustomer(int id) {
+        return withFailureMessage(deleteObjectAsync(CUSTOMERS_URL + "/" + id),
+            String.format("Problem while deleting customer (%s) via API", id));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Product;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.warehouse.dal.RestProductDao.PRODUCTS_URL;
+import static java.util.stream.Collectors.toList;
+
+public class RestAsyncProductDao extends AbstractRestDao implements AsyncProductDao {
+
+    @Override
+    public CompletableFuture<Collection<Product>> getProducts() {
+        return withFailureMessage(getArrayAsync(PRODUCTS_URL)
+            .thenApply(products -> products
+                .map(RestProductDao::toProduct)
+                .sorted(Comparator.comparing(Product::getId))
+                .collect(toList())), "Problem while fetching products from API.");
+    }
+
+    @Override
+    public CompletableFuture<Product> getProduct(int id) {
+        return withFailureMessage(getObjectAsync(PRODUCTS_URL + "/" + id)
+            .thenApply(RestProductDao::toProduct), String.format("Problem while fetching product (%s) from API", id));
+    }
+
+    @Override
+    public CompletableFuture<Void> addProduct(Product product) {
+        return withFailureMessage(postObjectAsync(PRODUCTS_URL, Map.of(
+            "name", product.getName(),
+            "price", product.getPrice()
+        )), String.format("Problem while creating product (%s, %s) from API", product.getName(), product.getPrice()));
+    }
+}
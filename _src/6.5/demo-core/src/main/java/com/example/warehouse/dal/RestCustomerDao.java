@@ -13,10 +13,10 @@ import static java.util.stream.Collectors.toList;
 
 public class RestCustomerDao extends AbstractRestDao implements CustomerDao {
 
-    private static final String CUSTOMERS_URL = System.getenv()
+    static final String CUSTOMERS_URL = System.getenv()
         .getOrDefault("CUSTOMERS_URL", "http://localhost:9090/customers");
 
-    private static Customer toCustomer(JSONObject c) {
+    static Customer toCustomer(JSONObject c) {
         return new Customer(c.getInt("id"),
             c.getString("name"),
             LocalDate.parse(c.getString("date_of_birth")),
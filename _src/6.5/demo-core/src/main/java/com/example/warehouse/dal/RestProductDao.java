@@ -13,10 +13,10 @@ import static java.util.stream.Collectors.toList;
 
 public class RestProductDao extends AbstractRestDao implements ProductDao {
 
-    private static final String PRODUCTS_URL = System.getenv()
+    static final String PRODUCTS_URL = System.getenv()
         .getOrDefault("PRODUCTS_URL", "http://localhost:9090/products");
 
-    private static Product toProduct(JSONObject c) {
+    static Product toProduct(JSONObject c) {
         return new Product(c.getInt("id"),
             c.getString("name"),
             c.getInt("price"));
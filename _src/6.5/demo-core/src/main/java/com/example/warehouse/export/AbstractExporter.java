@@ -1,73 +1,119 @@
 package com.example.warehouse.export;
 
+import com.example.warehouse.Deadline;
 import com.example.warehouse.Report;
+import com.example.warehouse.ReportRecord;
+import com.example.warehouse.ReportSink;
 
-import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 
-public abstract class AbstractExporter implements Exporter {
+// INFO: works either on a whole `Report` via `export()`, or as a sink
+// receiving a report piece by piece, then it never holds more than a record.
+// Exporting stops with the deadline of the thread that created the exporter.
+public abstract class AbstractExporter implements Exporter, ReportSink {
 
     private final Report report;
-    private final PrintStream out;
+    private final ExportOutput out;
+    private final Deadline deadline = Deadline.current();
 
-    AbstractExporter(Report report, PrintStream out) {
+    private boolean first;
+
+    AbstractExporter(Report report, ExportOutput out) {
         this.report = report;
         this.out = out;
     }
 
+    AbstractExporter(ExportOutput out) {
+        this(null, out);
+    }
+
     @Override
     public final void export() {
+        if (report == null) {
+            throw new IllegalStateException("Exporter has no report, it can only be used as a sink.");
+        }
+        report.writeTo(this);
+    }
+
+    @Override
+    public final void start(List<String> labels) {
+        writeHeader(out, labels);
+        first = true;
+    }
+
+    @Override
+    public final void record(ReportRecord record) {
+        deadline.check();
+        handleRecord(out, record, first);
+        first = false;
+    }
+
+    @Override
+    public final void finish() {
+        writeFooter(out);
+        out.flush();
+    }
+
+    // INFO: the parts of the export for `ChunkedExporter`, only exporters
+    // not keeping state between records should declare it.
+    public final void writeHeader(ExportOutput out, List<String> labels) {
         beforeLabels(out);
-        handleLabels(out, report.getLabels());
+        handleLabels(out, labels);
         afterLabels(out);
 
         beforeRecords(out);
-        handleRecords();
+    }
+
+    public final void writeChunk(ExportOutput out, Report.Cursor records) {
+        while (records.next()) {
+            deadline.check();
+            handleRecord(out, records, records.isFirst());
+        }
+    }
+
+    public final void writeFooter(ExportOutput out) {
         afterRecords(out);
     }
 
+    // INFO: the widths of the columns' values are tracked by the report, so
+    // this doesn't have to go over the records and format every value.
     protected List<Integer> calcWidths(Report report) {
         List<Integer> widths = new ArrayList<>();
-        report.getLabels().forEach(l -> widths.add(l.length()));
-        for (List<Report.Field> record : report.getRecords()) {
-            for (int i = 0; i < widths.size(); i++) {
-                int maxWidth = widths.get(i);
-                int width = record.get(i).getAsString().length();
-                if (width > maxWidth) {
-                    widths.set(i, width);
-                }
-            }
+        for (int i = 0; i < report.getColumnCount(); i++) {
+            widths.add(Math.max(report.getLabels().get(i).length(), report.getWidth(i)));
         }
         return widths;
     }
 
-    protected void beforeLabels(PrintStream out) {
+    // INFO: the same text as `getAsString`, but numbers are written without
+    // creating a string first.
+    protected static void writeValue(ExportOutput out, ReportRecord record, int column) {
+        switch (record.getDataType(column)) {
+            case NUMBER:
+                out.write(record.getNumber(column));
+                break;
+            case STRING:
+                out.write(record.getString(column));
+                break;
+            default:
+                out.write(record.getAsString(column));
+        }
     }
 
-    protected abstract void handleLabels(PrintStream out, List<String> labels);
-
-    protected void afterLabels(PrintStream out) {
+    protected void beforeLabels(ExportOutput out) {
     }
 
-    protected void beforeRecords(PrintStream out) {
+    protected abstract void handleLabels(ExportOutput out, List<String> labels);
+
+    protected void afterLabels(ExportOutput out) {
     }
 
-    private void handleRecords() {
-        List<List<Report.Field>> records = report.getRecords();
-        if (records.size() == 1) {
-            handleRecord(out, records.get(0), true, true);
-        } else if (records.size() >= 2) {
-            handleRecord(out, records.get(0), true, false);
-            for (List<Report.Field> record : records.subList(1, records.size() - 1)) {
-                handleRecord(out, record, false, false);
-            }
-            handleRecord(out, records.get(records.size() - 1), false, true);
-        }
+    protected void beforeRecords(ExportOutput out) {
     }
 
-    protected abstract void handleRecord(PrintStream out, List<Report.Field> record, boolean first, boolean last);
+    protected abstract void handleRecord(ExportOutput out, ReportRecord record, boolean first);
 
-    protected void afterRecords(PrintStream out) {
+    protected void afterRecords(ExportOutput out) {
     }
 }
@@ -0,0 +1,41 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.ReportCollector;
+import com.example.warehouse.ReportRecord;
+import com.example.warehouse.ReportSink;
+
+import java.io.OutputStream;
+import java.util.List;
+
+// INFO: for export types that need to see all records before writing the
+// first one, collects the report and only exports it at the end.
+final class BufferedExportSink implements ReportSink {
+
+    private final ExporterFactory exporterFactory;
+    private final ExportType type;
+    private final OutputStream out;
+
+    private final ReportCollector collector = new ReportCollector();
+
+    BufferedExportSink(ExporterFactory exporterFactory, ExportType type, OutputStream out) {
+        this.exporterFactory = exporterFactory;
+        this.type = type;
+        this.out = out;
+    }
+
+    @Override
+    public void start(List<String> labels) {
+        collector.start(labels);
+    }
+
+    @Override
+    public void record(ReportRecord record) {
+        collector.record(record);
+    }
+
+    @Override
+    public void finish() {
+        collector.finish();
+        exporterFactory.newExporter(collector.getReport(), type, out).export();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+
+import java.util.List;
+
+// INFO: exporters able to write a report in separate parts: the header, any
+// number of chunks of consecutive records, each to its own output, and the
+// footer. `ParallelExporter` writes the chunks at the same time on several
+// threads, so writing a chunk must not change the exporter's state.
+public interface ChunkedExporter extends Exporter {
+
+    void writeHeader(ExportOutput out, List<String> labels);
+
+    void writeChunk(ExportOutput out, Report.Cursor records);
+
+    void writeFooter(ExportOutput out);
+}
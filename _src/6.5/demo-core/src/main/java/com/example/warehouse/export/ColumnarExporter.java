@@ -0,0 +1,321 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Deadline;
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportRecord;
+import com.example.warehouse.ReportSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// INFO: a binary export meant to be loaded by other services with
+// `ColumnarReportReader`, records are written in blocks, column by column.
+// The layout, varints being unsigned LEB128 and zigzag varints signed ones:
+//
+//   header: "WHCR", version (1 byte), flags (1 byte, 1 if blocks have a
+//           checksum), column count (varint), then for every column its
+//           data type (1 byte) and label (varint length and UTF-8 bytes)
+//   block:  length in bytes (varint), record count (varint), then every
+//           column: dates as the first epoch day followed by the difference
+//           to the previous one (zigzag varints), numbers as zigzag varints
+//           and strings as a dictionary (varint size, then varint length
+//           and UTF-8 bytes per entry) followed by the entry of every record
+//           (varints), then the CRC32 of the block (4 bytes, big endian)
+//   end:    a block length of 0
+//
+// Column types are only known once there's a record, the columns of an
+// empty report are written as strings.
+public final class ColumnarExporter implements Exporter, ReportSink {
+
+    public static final int DEFAULT_BLOCK_SIZE = 65536;
+
+    static final byte[] MAGIC = {'W', 'H', 'C', 'R'};
+    static final int VERSION = 1;
+    static final int FLAG_CHECKSUMS = 1;
+
+    static final int TYPE_DATE = 1;
+    static final int TYPE_NUMBER = 2;
+    static final int TYPE_STRING = 3;
+
+    private final Report report;
+    private final OutputStream out;
+    private final boolean checksums;
+    private final int blockSize;
+    private final Deadline deadline = Deadline.current();
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final CRC32 crc = new CRC32();
+
+    private List<String> labels;
+    private Report.DataType[] types;
+
+    // INFO: the values of the block being collected, dates and numbers in
+    // `numbers`, strings in `strings`, only the array of a column's type is set.
+    private long[][] numbers;
+    private String[][] strings;
+    private int count;
+
+    private byte[] bytes = new byte[8192];
+    private int position;
+
+    public ColumnarExporter(Report report, OutputStream out, boolean checksums) {
+        this(report, out, checksums, DEFAULT_BLOCK_SIZE);
+    }
+
+    public ColumnarExporter(OutputStream out, boolean checksums) {
+        this(null, out, checksums, DEFAULT_BLOCK_SIZE);
+    }
+
+    public ColumnarExporter(Report report, OutputStream out, boolean checksums, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be greater than 0.");
+        }
+        this.report = report;
+        this.out = out;
+        this.checksums = checksums;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public void export() {
+        if (report == null) {
+            throw new IllegalStateException("Exporter has no report, it can only be used as a sink.");
+        }
+        report.writeTo(this);
+    }
+
+    @Override
+    public void start(List<String> labels) {
+        this.labels = List.copyOf(labels);
+        this.types = null;
+        this.count = 0;
+    }
+
+    // INFO: the header is written with the first block, that's when the
+    // column types are known.
+    @Override
+    public void record(ReportRecord record) {
+        deadline.check();
+        if (types == null) {
+            initColumns(record);
+        }
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case DATE:
+                    numbers[i][count] = record.getEpochDay(i);
+                    break;
+                case NUMBER:
+                    numbers[i][count] = record.getNumber(i);
+                    break;
+                default:
+                    strings[i][count] = record.getString(i);
+            }
+        }
+        count++;
+        if (count == blockSize) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (types == null) {
+            types = new Report.DataType[labels.size()];
+            Arrays.fill(types, Report.DataType.STRING);
+            writeHeader();
+        } else if (count > 0) {
+            writeBlock();
+        }
+        putVarint(0);
+        flushBytes();
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Trouble while writing export.", ex);
+        }
+    }
+
+    private void initColumns(ReportRecord record) {
+        if (record.getColumnCount() != labels.size()) {
+            throw new IllegalArgumentException(String.format(
+                "Record has %s fields, but the report has %s columns.", record.getColumnCount(), labels.size()));
+        }
+        types = new Report.DataType[labels.size()];
+        numbers = new long[types.length][];
+        strings = new String[types.length][];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = record.getDataType(i);
+            if (types[i] == Report.DataType.STRING) {
+                strings[i] = new String[blockSize];
+            } else {
+                numbers[i] = new long[blockSize];
+            }
+        }
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        putBytes(MAGIC, 0, MAGIC.length);
+        putByte(VERSION);
+        putByte(checksums ? FLAG_CHECKSUMS : 0);
+        putVarint(types.length);
+        for (int i = 0; i < types.length; i++) {
+            putByte(typeCode(types[i]));
+            putString(labels.get(i));
+        }
+        flushBytes();
+    }
+
+    // INFO: the block is encoded after its length, which is only known at
+    // the end, so the length is moved in front of it once it's done.
+    private void writeBlock() {
+        ensureCapacity(5);
+        int lengthPosition = position;
+        position += 5;
+        int start = position;
+        putVarint(count);
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case DATE:
+                    putDates(numbers[i]);
+                    break;
+                case NUMBER:
+                    putNumbers(numbers[i]);
+                    break;
+                default:
+                    putStrings(strings[i]);
+            }
+        }
+        int length = position - start;
+        int lengthSize = varintSize(length);
+        System.arraycopy(bytes, start, bytes, lengthPosition + lengthSize, length);
+        position = lengthPosition;
+        putVarint(length);
+        position += length;
+        if (checksums) {
+            crc.reset();
+            crc.update(bytes, position - length, length);
+            int checksum = (int) crc.getValue();
+            putByte(checksum >>> 24);
+            putByte(checksum >>> 16);
+            putByte(checksum >>> 8);
+            putByte(checksum);
+        }
+        flushBytes();
+        if (strings != null) {
+            for (String[] column : strings) {
+                if (column != null) {
+                    Arrays.fill(column, 0, count, null);
+                }
+            }
+        }
+        count = 0;
+    }
+
+    private void putDates(long[] epochDays) {
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            putZigZag(epochDays[i] - previous);
+            previous = epochDays[i];
+        }
+    }
+
+    private void putNumbers(long[] values) {
+        for (int i = 0; i < count; i++) {
+            putZigZag(values[i]);
+        }
+    }
+
+    private void putStrings(String[] values) {
+        dictionary.clear();
+        int[] codes = new int[count];
+        for (int i = 0; i < count; i++) {
+            codes[i] = dictionary.computeIfAbsent(values[i], v -> dictionary.size());
+        }
+        String[] entries = new String[dictionary.size()];
+        dictionary.forEach((value, code) -> entries[code] = value);
+        putVarint(entries.length);
+        for (String entry : entries) {
+            putString(entry);
+        }
+        for (int code : codes) {
+            putVarint(code);
+        }
+    }
+
+    private void putString(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(encoded.length);
+        putBytes(encoded, 0, encoded.length);
+    }
+
+    private void putZigZag(long value) {
+        putVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void putVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7fL) != 0) {
+            bytes[position++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+    }
+
+    private void putByte(int value) {
+        ensureCapacity(1);
+        bytes[position++] = (byte) value;
+    }
+
+    private void putBytes(byte[] values, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(values, offset, bytes, position, length);
+        position += length;
+    }
+
+    // INFO: a block is kept whole until it's written, so this grows instead
+    // of flushing.
+    private void ensureCapacity(int length) {
+        if (bytes.length - position < length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+        }
+    }
+
+    private void flushBytes() {
+        try {
+            out.write(bytes, 0, position);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Trouble while writing export.", ex);
+        }
+        position = 0;
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7fL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static int typeCode(Report.DataType type) {
+        switch (type) {
+            case DATE:
+                return TYPE_DATE;
+            case NUMBER:
+                return TYPE_NUMBER;
+            case STRING:
+                return TYPE_STRING;
+            default:
+                throw new IllegalStateException(String.format("Data type %s not handled.", type));
+        }
+    }
+}
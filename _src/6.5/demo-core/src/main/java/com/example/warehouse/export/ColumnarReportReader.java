@@ -0,0 +1,314 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportCollector;
+import com.example.warehouse.ReportRecord;
+import com.example.warehouse.ReportSink;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// INFO: loads what `ColumnarExporter` wrote, see there for the layout. A
+// block is read in one go, checked and decoded into primitive arrays, then
+// handed out record by record, so nothing is parsed from text.
+public final class ColumnarReportReader {
+
+    // INFO: lengths are read from the export, so they're only trusted up to
+    // a limit and buffers grow with the bytes actually read, in steps. A
+    // corrupt length fails the read instead of allocating its size up front.
+    private static final int MAX_LENGTH = 1 << 30;
+    private static final int READ_STEP = 1 << 20;
+
+    private final class Block implements ReportRecord {
+
+        private int row;
+
+        @Override
+        public int getColumnCount() {
+            return types.length;
+        }
+
+        @Override
+        public Report.DataType getDataType(int column) {
+            return types[column];
+        }
+
+        @Override
+        public int getEpochDay(int column) {
+            if (types[column] != Report.DataType.DATE) {
+                throw new IllegalStateException(String.format("Column of type %s has no dates.", types[column]));
+            }
+            return (int) numbers[column][row];
+        }
+
+        @Override
+        public long getNumber(int column) {
+            if (types[column] != Report.DataType.NUMBER) {
+                throw new IllegalStateException(String.format("Column of type %s has no numbers.", types[column]));
+            }
+            return numbers[column][row];
+        }
+
+        @Override
+        public String getString(int column) {
+            if (types[column] != Report.DataType.STRING) {
+                throw new IllegalStateException(String.format("Column of type %s has no strings.", types[column]));
+            }
+            return dictionaries[column][codes[column][row]];
+        }
+
+        @Override
+        public String getAsString(int column) {
+            switch (types[column]) {
+                case DATE:
+                    return LocalDate.ofEpochDay(numbers[column][row]).toString();
+                case NUMBER:
+                    return Long.toString(numbers[column][row]);
+                default:
+                    return getString(column);
+            }
+        }
+    }
+
+    private final DataInputStream in;
+    private final CRC32 crc = new CRC32();
+
+    private boolean checksums;
+    private Report.DataType[] types;
+
+    // INFO: the decoded block, dates and numbers in `numbers`, strings as the
+    // block's dictionary and the entry of every record.
+    private long[][] numbers;
+    private String[][] dictionaries;
+    private int[][] codes;
+
+    private byte[] bytes = new byte[0];
+    private int position;
+    private int limit;
+
+    private ColumnarReportReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+    }
+
+    public static Report read(InputStream in) throws IOException {
+        ReportCollector collector = new ReportCollector();
+        read(in, collector);
+        return collector.getReport();
+    }
+
+    // INFO: the stream is read up to the end of the export, not closed.
+    public static void read(InputStream in, ReportSink sink) throws IOException {
+        new ColumnarReportReader(in).readTo(sink);
+    }
+
+    private void readTo(ReportSink sink) throws IOException {
+        sink.start(readHeader());
+        Block block = new Block();
+        for (int length = readLength(); length != 0; length = readLength()) {
+            int count = readBlock(length);
+            for (block.row = 0; block.row < count; block.row++) {
+                sink.record(block);
+            }
+        }
+        sink.finish();
+    }
+
+    private List<String> readHeader() throws IOException {
+        byte[] magic = new byte[ColumnarExporter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarExporter.MAGIC)) {
+            throw new IOException("Not a columnar report export.");
+        }
+        int version = in.readUnsignedByte();
+        if (version != ColumnarExporter.VERSION) {
+            throw new IOException(String.format("Columnar export version %s not supported.", version));
+        }
+        checksums = (in.readUnsignedByte() & ColumnarExporter.FLAG_CHECKSUMS) != 0;
+
+        int columnCount = checkSize(readStreamVarint());
+        List<Report.DataType> columnTypes = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < columnCount; i++) {
+            columnTypes.add(toDataType(in.readUnsignedByte()));
+            int length = checkLength(readStreamVarint());
+            readBytes(length);
+            labels.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+        }
+        types = columnTypes.toArray(new Report.DataType[0]);
+        numbers = new long[columnCount][];
+        dictionaries = new String[columnCount][];
+        codes = new int[columnCount][];
+        return labels;
+    }
+
+    private int readLength() throws IOException {
+        return checkLength(readStreamVarint());
+    }
+
+    private int readBlock(int length) throws IOException {
+        readBytes(length);
+        if (checksums) {
+            crc.reset();
+            crc.update(bytes, 0, length);
+            if (in.readInt() != (int) crc.getValue()) {
+                throw new IOException("Columnar export block doesn't match its checksum.");
+            }
+        }
+        position = 0;
+        limit = length;
+
+        // INFO: every value takes at least a byte.
+        int count = checkSize(readVarint());
+        if (types.length > 0 && count > limit - position) {
+            throw new IOException("Columnar export block has more records than bytes.");
+        }
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case DATE:
+                    readDates(i, count);
+                    break;
+                case NUMBER:
+                    readNumbers(i, count);
+                    break;
+                default:
+                    readStrings(i, count);
+            }
+        }
+        if (position != limit) {
+            throw new IOException("Columnar export block is longer than its records.");
+        }
+        return count;
+    }
+
+    private void readDates(int column, int count) throws IOException {
+        long[] values = numbers(column, count);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readZigZag();
+            values[i] = previous;
+        }
+    }
+
+    private void readNumbers(int column, int count) throws IOException {
+        long[] values = numbers(column, count);
+        for (int i = 0; i < count; i++) {
+            values[i] = readZigZag();
+        }
+    }
+
+    private void readStrings(int column, int count) throws IOException {
+        int size = checkSize(readVarint());
+        if (size > limit - position) {
+            throw new IOException("Columnar export dictionary has more entries than bytes.");
+        }
+        String[] dictionary = new String[size];
+        for (int i = 0; i < dictionary.length; i++) {
+            int length = checkSize(readVarint());
+            if (limit - position < length) {
+                throw new EOFException("Columnar export block ended within a string.");
+            }
+            dictionary[i] = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+        }
+        if (codes[column] == null || codes[column].length < count) {
+            codes[column] = new int[count];
+        }
+        int[] values = codes[column];
+        for (int i = 0; i < count; i++) {
+            int code = checkSize(readVarint());
+            if (code >= dictionary.length) {
+                throw new IOException("Columnar export string refers to a missing dictionary entry.");
+            }
+            values[i] = code;
+        }
+        dictionaries[column] = dictionary;
+    }
+
+    private void readBytes(int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int step = Math.min(length - read, READ_STEP);
+            if (bytes.length < read + step) {
+                bytes = Arrays.copyOf(bytes, Math.min(length, Math.max(read + step, bytes.length * 2)));
+            }
+            in.readFully(bytes, read, step);
+            read += step;
+        }
+    }
+
+    private long[] numbers(int column, int count) {
+        if (numbers[column] == null || numbers[column].length < count) {
+            numbers[column] = new long[count];
+        }
+        return numbers[column];
+    }
+
+    private long readZigZag() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position == limit) {
+                throw new EOFException("Columnar export block ended within a number.");
+            }
+            byte b = bytes[position++];
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Columnar export has a malformed number.");
+    }
+
+    private long readStreamVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Columnar export has a malformed number.");
+    }
+
+    private static int checkSize(long value) throws IOException {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Columnar export has a size out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static int checkLength(long value) throws IOException {
+        int length = checkSize(value);
+        if (length > MAX_LENGTH) {
+            throw new IOException("Columnar export has a length over the limit: " + length);
+        }
+        return length;
+    }
+
+    private static Report.DataType toDataType(int code) throws IOException {
+        switch (code) {
+            case ColumnarExporter.TYPE_DATE:
+                return Report.DataType.DATE;
+            case ColumnarExporter.TYPE_NUMBER:
+                return Report.DataType.NUMBER;
+            case ColumnarExporter.TYPE_STRING:
+                return Report.DataType.STRING;
+            default:
+                throw new IOException("Columnar export has an unknown data type: " + code);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.warehouse.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// INFO: an export of any type can be compressed while it's written, the
+// compressed export is then delivered and downloaded as its own file type.
+public enum Compression {
+
+    NONE(null, null),
+    GZIP("application/gzip", "gz"),
+    // INFO: raw deflate data, without the zlib or gzip wrapper around it.
+    DEFLATE("application/octet-stream", "deflate");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String mimeType;
+    private final String fileExtension;
+
+    Compression(String mimeType, String fileExtension) {
+        this.mimeType = mimeType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getMimeType(ExportType type) {
+        return mimeType == null ? type.getMimeType() : mimeType;
+    }
+
+    // INFO: the compression's extension follows the export's, e.g. `csv.gz`.
+    public String getFileExtension(ExportType type) {
+        return fileExtension == null ? type.getFileExtension() : type.getFileExtension() + "." + fileExtension;
+    }
+
+    // INFO: what's written to the returned stream is compressed on the fly
+    // into `out`, nothing more than a buffer's worth is held back. Closing
+    // the returned stream writes the rest of the compressed data and frees
+    // the compressor, but only flushes `out`, it stays open.
+    public OutputStream compress(OutputStream out) throws IOException {
+        OutputStream unclosable = new FilterOutputStream(out) {
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        switch (this) {
+            case NONE:
+                return unclosable;
+            case GZIP:
+                return new GZIPOutputStream(unclosable, BUFFER_SIZE);
+            case DEFLATE:
+                return new DeflaterOutputStream(unclosable, new Deflater(Deflater.DEFAULT_COMPRESSION, true), BUFFER_SIZE) {
+
+                    // INFO: a deflater passed in isn't ended by the stream itself.
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            def.end();
+                        }
+                    }
+                };
+            default:
+                throw new IllegalStateException(String.format("Compression %s not handled.", this));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.warehouse.export;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+// INFO: where exporters write their text to. Unlike a `PrintStream` it takes
+// no lock, doesn't flush on its own and encodes to UTF-8 straight into one
+// large byte buffer, so the cost of writing is mostly copying characters.
+// It's meant to be used by a single exporter on a single thread. Failures
+// to write are thrown as `UncheckedIOException`s, they aren't swallowed.
+public final class ExportOutput implements Flushable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    // INFO: the most bytes a single char (or a pending surrogate pair) takes.
+    private static final int MAX_CHAR_BYTES = 4;
+
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private final OutputStream out;
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+
+    private int position;
+
+    // INFO: a high surrogate written last, waiting for its low surrogate.
+    private char highSurrogate;
+
+    public ExportOutput(OutputStream out) {
+        this(out, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ExportOutput(WritableByteChannel channel) {
+        this(null, channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    private ExportOutput(OutputStream out, WritableByteChannel channel, int bufferSize) {
+        this.out = out;
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+    }
+
+    public ExportOutput write(char c) {
+        ensureCapacity(MAX_CHAR_BYTES);
+        encode(c);
+        return this;
+    }
+
+    public ExportOutput write(String s) {
+        return write(s, 0, s.length());
+    }
+
+    // INFO: runs of ASCII characters, which is what most of an export is,
+    // are copied in a tight loop, everything else is encoded one by one.
+    public ExportOutput write(String s, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            ensureCapacity(MAX_CHAR_BYTES);
+            if (highSurrogate == 0) {
+                int limit = Math.min(end, i + buffer.length - position);
+                char c;
+                while (i < limit && (c = s.charAt(i)) < 0x80) {
+                    buffer[position++] = (byte) c;
+                    i++;
+                }
+                if (i == end) {
+                    break;
+                }
+                ensureCapacity(MAX_CHAR_BYTES);
+            }
+            encode(s.charAt(i++));
+        }
+        return this;
+    }
+
+    public ExportOutput write(char[] chars) {
+        return write(chars, 0, chars.length);
+    }
+
+    public ExportOutput write(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            ensureCapacity(MAX_CHAR_BYTES);
+            if (highSurrogate == 0) {
+                int limit = Math.min(end, i + buffer.length - position);
+                char c;
+                while (i < limit && (c = chars[i]) < 0x80) {
+                    buffer[position++] = (byte) c;
+                    i++;
+                }
+                if (i == end) {
+                    break;
+                }
+                ensureCapacity(MAX_CHAR_BYTES);
+            }
+            encode(chars[i++]);
+        }
+        return this;
+    }
+
+    // INFO: the decimal digits of the number, without creating a string.
+    public ExportOutput write(long value) {
+        if (value == Long.MIN_VALUE) {
+            return write(Long.toString(value));
+        }
+        ensureCapacity(20);
+        endSurrogate();
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+        return this;
+    }
+
+    // INFO: bytes already encoded to UTF-8, large arrays aren't copied into
+    // the buffer but written straight through.
+    public ExportOutput writeEncoded(byte[] bytes, int offset, int length) {
+        ensureCapacity(1);
+        endSurrogate();
+        if (length >= buffer.length) {
+            flushBuffer();
+            writeThrough(bytes, offset, length);
+        } else {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+        return this;
+    }
+
+    public ExportOutput newLine() {
+        return write(NEW_LINE);
+    }
+
+    // INFO: a high surrogate written last can't be paired anymore, it's
+    // replaced like any unpaired one.
+    @Override
+    public void flush() {
+        ensureCapacity(1);
+        endSurrogate();
+        flushBuffer();
+        try {
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Trouble while writing export.", ex);
+        }
+    }
+
+    private void encode(char c) {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+                return;
+            }
+            // INFO: unpaired surrogates are replaced, like `String.getBytes` does.
+            buffer[position++] = '?';
+        }
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xc0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[position++] = '?';
+        } else {
+            buffer[position++] = (byte) (0xe0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            buffer[position++] = (byte) (0x80 | (c & 0x3f));
+        }
+    }
+
+    private void endSurrogate() {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            buffer[position++] = '?';
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.length - position < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() {
+        if (position == 0) {
+            return;
+        }
+        writeThrough(buffer, 0, position);
+        position = 0;
+    }
+
+    private void writeThrough(byte[] bytes, int offset, int length) {
+        try {
+            if (out != null) {
+                out.write(bytes, offset, length);
+            } else {
+                ByteBuffer wrapped = ByteBuffer.wrap(bytes, offset, length);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Trouble while writing export.", ex);
+        }
+    }
+}
@@ -5,14 +5,24 @@ public enum ExportType {
     TXT("text/plain", "txt"),
     CSV("text/csv", "csv"),
     HTML("text/html", "html"),
-    JSON("application/json", "json");
+    JSON("application/json", "json"),
+    // INFO: newline delimited JSON, one object per record and line.
+    NDJSON("application/x-ndjson", "ndjson"),
+    // INFO: binary and column by column, see `ColumnarExporter`.
+    COLUMNAR("application/vnd.example.warehouse-columnar", "whcr", true);
 
     private final String mimeType;
     private final String fileExtension;
+    private final boolean binary;
 
     ExportType(String mimeType, String fileExtension) {
+        this(mimeType, fileExtension, false);
+    }
+
+    ExportType(String mimeType, String fileExtension, boolean binary) {
         this.mimeType = mimeType;
         this.fileExtension = fileExtension;
+        this.binary = binary;
     }
 
     public String getMimeType() {
@@ -22,4 +32,9 @@ public enum ExportType {
     public String getFileExtension() {
         return fileExtension;
     }
+
+    // INFO: binary exports can't be shown as text.
+    public boolean isBinary() {
+        return binary;
+    }
 }
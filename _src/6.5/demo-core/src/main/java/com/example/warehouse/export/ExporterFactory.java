@@ -1,10 +1,35 @@
 package com.example.warehouse.export;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.ReportSink;
 
 import java.io.OutputStream;
+import java.util.Map;
 
 public interface ExporterFactory {
 
     Exporter newExporter(Report report, ExportType type, OutputStream out);
+
+    default boolean isSupported(ExportType type) {
+        return true;
+    }
+
+    // INFO: factories able to export record by record should override this.
+    default ReportSink newSink(ExportType type, OutputStream out) {
+        if (!isSupported(type)) {
+            throw new UnsupportedOperationException(String.format("Chosen exporter %s not available.", type));
+        }
+        return new BufferedExportSink(this, type, out);
+    }
+
+    // INFO: exports the report as every type in `outs` going over its records
+    // once, for publishing a report in several formats at the same time.
+    default Exporter newFanOutExporter(Report report, Map<ExportType, OutputStream> outs) {
+        for (ExportType type : outs.keySet()) {
+            if (!isSupported(type)) {
+                throw new UnsupportedOperationException(String.format("Chosen exporter %s not available.", type));
+            }
+        }
+        return new FanOutExporter(report, outs, this);
+    }
 }
@@ -0,0 +1,128 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+import com.example.warehouse.ReportRecord;
+import com.example.warehouse.ReportSink;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// INFO: exports a report to several types in a single pass over its records,
+// batches of records are handed to the exporter of each type in turn. Values
+// are converted to strings at most once, whichever exporter asks first, the
+// others get the same string. Exporters that can't take records one by one,
+// like parallel ones, export the report on their own afterwards.
+public final class FanOutExporter implements Exporter {
+
+    private static final int BATCH_SIZE = 1024;
+
+    // INFO: a record of the current batch as seen by one exporter, strings
+    // are kept per batch row, so every exporter after the first reuses them.
+    private static final class SharedRecord implements ReportRecord {
+
+        private final String[][] strings;
+
+        private Report.Cursor cursor;
+        private int from;
+
+        SharedRecord(int columnCount) {
+            this.strings = new String[columnCount][BATCH_SIZE];
+        }
+
+        void startBatch(int from) {
+            this.from = from;
+            for (String[] column : strings) {
+                Arrays.fill(column, null);
+            }
+        }
+
+        void setCursor(Report.Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return cursor.getColumnCount();
+        }
+
+        @Override
+        public Report.DataType getDataType(int column) {
+            return cursor.getDataType(column);
+        }
+
+        @Override
+        public int getEpochDay(int column) {
+            return cursor.getEpochDay(column);
+        }
+
+        @Override
+        public long getNumber(int column) {
+            return cursor.getNumber(column);
+        }
+
+        @Override
+        public String getString(int column) {
+            return cursor.getString(column);
+        }
+
+        @Override
+        public String getAsString(int column) {
+            int index = cursor.getRow() - from;
+            String string = strings[column][index];
+            if (string == null) {
+                string = cursor.getAsString(column);
+                strings[column][index] = string;
+            }
+            return string;
+        }
+    }
+
+    private final Report report;
+    private final List<ReportSink> sinks = new ArrayList<>();
+    private final List<Exporter> exporters = new ArrayList<>();
+
+    public FanOutExporter(Report report, Map<ExportType, OutputStream> outs, ExporterFactory exporterFactory) {
+        this.report = report;
+        outs.forEach((type, out) -> {
+            Exporter exporter = exporterFactory.newExporter(report, type, out);
+            if (exporter instanceof ReportSink) {
+                sinks.add((ReportSink) exporter);
+            } else {
+                exporters.add(exporter);
+            }
+        });
+    }
+
+    @Override
+    public void export() {
+        List<String> labels = report.getLabels();
+        for (ReportSink sink : sinks) {
+            sink.start(labels);
+        }
+        // INFO: every exporter goes over a batch of records before the next
+        // one does, rather than taking turns record by record, so each of
+        // them runs its own loop for a while.
+        SharedRecord record = new SharedRecord(report.getColumnCount());
+        int recordCount = report.getRecordCount();
+        for (int from = 0; from < recordCount; from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE, recordCount);
+            record.startBatch(from);
+            for (ReportSink sink : sinks) {
+                Report.Cursor cursor = report.cursor(from, to);
+                record.setCursor(cursor);
+                while (cursor.next()) {
+                    sink.record(record);
+                }
+            }
+        }
+        for (ReportSink sink : sinks) {
+            sink.finish();
+        }
+        for (Exporter exporter : exporters) {
+            exporter.export();
+        }
+    }
+}
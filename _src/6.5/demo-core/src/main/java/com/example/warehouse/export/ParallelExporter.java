@@ -0,0 +1,79 @@
+package com.example.warehouse.export;
+
+import com.example.warehouse.Report;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// INFO: splits the records into chunks, formats every chunk into its own
+// byte buffer on a fork/join pool and writes the buffers out in order, the
+// header and the footer are written once on the calling thread. Only a few
+// chunks per thread of the pool are formatted ahead of the one being
+// written, so the whole export is never held in memory.
+public final class ParallelExporter implements Exporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private static final int CHUNKS_AHEAD_PER_THREAD = 2;
+
+    private final Report report;
+    private final ExportOutput out;
+    private final ChunkedExporter exporter;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelExporter(Report report, ExportOutput out, ChunkedExporter exporter) {
+        this(report, out, exporter, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    // INFO: `out` is where `exporter` writes to, it's needed for the chunks
+    // to end up between the exporter's header and footer.
+    public ParallelExporter(Report report, ExportOutput out, ChunkedExporter exporter, ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be greater than 0.");
+        }
+        this.report = report;
+        this.out = out;
+        this.exporter = exporter;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void export() {
+        exporter.writeHeader(out, report.getLabels());
+
+        int recordCount = report.getRecordCount();
+        int maxChunksAhead = pool.getParallelism() * CHUNKS_AHEAD_PER_THREAD;
+        Deque<ForkJoinTask<byte[]>> chunks = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < recordCount || !chunks.isEmpty()) {
+                while (next < recordCount && chunks.size() < maxChunksAhead) {
+                    int from = next;
+                    int to = (int) Math.min((long) from + chunkSize, recordCount);
+                    chunks.add(pool.submit(() -> formatChunk(from, to)));
+                    next = to;
+                }
+                byte[] chunk = chunks.remove().join();
+                out.writeEncoded(chunk, 0, chunk.length);
+            }
+        } finally {
+            chunks.forEach(chunk -> chunk.cancel(false));
+        }
+
+        exporter.writeFooter(out);
+        out.flush();
+    }
+
+    private byte[] formatChunk(int from, int to) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ExportOutput chunkOut = new ExportOutput(bytes);
+        exporter.writeChunk(chunkOut, report.cursor(from, to));
+        chunkOut.flush();
+        return bytes.toByteArray();
+    }
+}
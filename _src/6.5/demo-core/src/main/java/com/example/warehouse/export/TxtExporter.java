@@ -1,76 +1,213 @@
 package com.example.warehouse.export;
 
 import com.example.warehouse.Report;
+import com.example.warehouse.ReportRecord;
 
-import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
-public final class TxtExporter extends AbstractExporter {
+// INFO: every line of the table has the same width, so the layout is worked
+// out once: the border line is prepared up front and rows are formatted into
+// a reusable line buffer, right aligning each cell into its column. Numbers
+// and dates are written digit by digit and the line ends with its line
+// separator, so a row is printed in one go without creating any strings.
+// Every thread writing chunks gets its own line buffer.
+public final class TxtExporter extends AbstractExporter implements ChunkedExporter {
 
-    private static final String BORDER = "*";
+    private static final char BORDER = '*';
     private static final String LEFT_BORDER = BORDER + " ";
     private static final String RIGHT_BORDER = " " + BORDER;
     private static final String SEPARATOR = " | ";
+    private static final String NEW_LINE = System.lineSeparator();
 
-    private final List<Integer> widths;
+    // INFO: length of `yyyy-MM-dd`, years outside 0 to 9999 are formatted
+    // by `LocalDate` instead.
+    private static final int DATE_LENGTH = 10;
 
-    private final int totalWidth;
+    private final int[] widths;
 
-    public TxtExporter(Report report, PrintStream out) {
+    // INFO: where each cell ends in a line, cells are right aligned.
+    private final int[] cellEnds;
+
+    private final char[] border;
+    private final ThreadLocal<char[]> lines;
+
+    public TxtExporter(Report report, ExportOutput out) {
         super(report, out);
-        this.widths = calcWidths(report);
+        this.widths = calcWidths(report).stream().mapToInt(Integer::intValue).toArray();
 
-        totalWidth = widths.stream().mapToInt(Integer::intValue).sum()
+        int totalWidth = Arrays.stream(widths).sum()
             + LEFT_BORDER.length()
-            + SEPARATOR.length() * (report.getLabels().size() - 1)
+            + SEPARATOR.length() * (widths.length - 1)
             + RIGHT_BORDER.length();
+
+        border = new char[totalWidth + NEW_LINE.length()];
+        Arrays.fill(border, 0, totalWidth, BORDER);
+        put(border, totalWidth, NEW_LINE);
+
+        char[] line = new char[totalWidth + NEW_LINE.length()];
+        cellEnds = new int[widths.length];
+        int position = put(line, 0, LEFT_BORDER);
+        for (int i = 0; i < widths.length; i++) {
+            if (i != 0) {
+                position = put(line, position, SEPARATOR);
+            }
+            position += widths[i];
+            cellEnds[i] = position;
+        }
+        position = put(line, position, RIGHT_BORDER);
+        put(line, position, NEW_LINE);
+        lines = ThreadLocal.withInitial(line::clone);
     }
 
     @Override
-    protected void beforeLabels(PrintStream out) {
+    protected void beforeLabels(ExportOutput out) {
         printBorder(out);
     }
 
     @Override
-    protected void handleLabels(PrintStream out, List<String> labels) {
-        printStrings(out, labels);
+    protected void handleLabels(ExportOutput out, List<String> labels) {
+        char[] line = lines.get();
+        for (int i = 0; i < widths.length; i++) {
+            if (!putCell(line, i, labels.get(i))) {
+                printOverflowing(out, labels.toArray(new String[0]));
+                return;
+            }
+        }
+        out.write(line);
     }
 
     @Override
-    protected void afterLabels(PrintStream out) {
+    protected void afterLabels(ExportOutput out) {
         printBorder(out);
     }
 
     @Override
-    protected void handleRecord(PrintStream out, List<Report.Field> record, boolean first, boolean last) {
-        printStrings(out, record.stream()
-            .map(Report.Field::getAsString)
-            .collect(Collectors.toList()));
+    protected void handleRecord(ExportOutput out, ReportRecord record, boolean first) {
+        char[] line = lines.get();
+        for (int i = 0; i < widths.length; i++) {
+            if (!putCell(line, i, record)) {
+                String[] strings = new String[widths.length];
+                Arrays.setAll(strings, record::getAsString);
+                printOverflowing(out, strings);
+                return;
+            }
+        }
+        out.write(line);
     }
 
     @Override
-    protected void afterRecords(PrintStream out) {
+    protected void afterRecords(ExportOutput out) {
         printBorder(out);
     }
 
-    private void printBorder(PrintStream out) {
-        for (int i = 0; i < totalWidth; i++) {
-            out.print(BORDER);
+    private void printBorder(ExportOutput out) {
+        out.write(border);
+    }
+
+    // INFO: the widths are taken from the report being exported, so a value
+    // wider than its column can't happen unless records are added to the
+    // report while it's exported. Such rows are printed unaligned, as before.
+    private void printOverflowing(ExportOutput out, String[] strings) {
+        StringBuilder sb = new StringBuilder(LEFT_BORDER);
+        for (int i = 0; i < strings.length; i++) {
+            if (i != 0) {
+                sb.append(SEPARATOR);
+            }
+            for (int j = strings[i].length(); j < widths[i]; j++) {
+                sb.append(' ');
+            }
+            sb.append(strings[i]);
+        }
+        out.write(sb.append(RIGHT_BORDER).append(NEW_LINE).toString());
+    }
+
+    private boolean putCell(char[] line, int column, ReportRecord record) {
+        switch (record.getDataType(column)) {
+            case NUMBER:
+                return putCell(line, column, record.getNumber(column));
+            case DATE:
+                return putDateCell(line, column, record.getEpochDay(column));
+            default:
+                return putCell(line, column, record.getString(column));
+        }
+    }
+
+    private boolean putCell(char[] line, int column, String value) {
+        int start = pad(line, column, value.length());
+        if (start < 0) {
+            return false;
+        }
+        value.getChars(0, value.length(), line, start);
+        return true;
+    }
+
+    private boolean putCell(char[] line, int column, long value) {
+        if (value == Long.MIN_VALUE) {
+            return putCell(line, column, Long.toString(value));
+        }
+        boolean negative = value < 0;
+        long remaining = negative ? -value : value;
+        int length = negative ? 2 : 1;
+        for (long rest = remaining / 10; rest != 0; rest /= 10) {
+            length++;
+        }
+        int start = pad(line, column, length);
+        if (start < 0) {
+            return false;
+        }
+        int position = cellEnds[column];
+        do {
+            line[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (negative) {
+            line[--position] = '-';
+        }
+        return true;
+    }
+
+    // INFO: `LocalDate` works out the calendar, only its fields are copied.
+    private boolean putDateCell(char[] line, int column, int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            return putCell(line, column, date.toString());
+        }
+        int start = pad(line, column, DATE_LENGTH);
+        if (start < 0) {
+            return false;
+        }
+        putDigits(line, start, year, 4);
+        line[start + 4] = '-';
+        putDigits(line, start + 5, date.getMonthValue(), 2);
+        line[start + 7] = '-';
+        putDigits(line, start + 8, date.getDayOfMonth(), 2);
+        return true;
+    }
+
+    // INFO: fills the column up to where a value of `length` starts and
+    // returns that position, or -1 when the value doesn't fit.
+    private int pad(char[] line, int column, int length) {
+        if (length > widths[column]) {
+            return -1;
+        }
+        int end = cellEnds[column];
+        int start = end - length;
+        Arrays.fill(line, end - widths[column], start, ' ');
+        return start;
+    }
+
+    private static void putDigits(char[] line, int position, int value, int digits) {
+        for (int i = position + digits - 1; i >= position; i--) {
+            line[i] = (char) ('0' + value % 10);
+            value /= 10;
         }
-        out.println();
     }
 
-    private void printStrings(PrintStream out, List<String> strings) {
-        out.print(LEFT_BORDER);
-        out.print(IntStream.range(0, strings.size())
-            .mapToObj(i -> {
-                String fmt = String.format("%%%ss", widths.get(i));
-                return String.format(fmt, strings.get(i));
-            })
-            .collect(Collectors.joining(SEPARATOR)));
-        out.print(RIGHT_BORDER);
-        out.println();
+    private static int put(char[] chars, int position, String value) {
+        value.getChars(0, value.length(), chars, position);
+        return position + value.length();
     }
 }
@@ -0,0 +1,138 @@
+package com.example.warehouse;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BucketingReportSinkTest {
+
+    @Test
+    void weeksStartOnMondayAcrossYearEnd() {
+        // given
+        Report daily = daily(
+            "2019-12-29", 1,
+            "2019-12-30", 2,
+            "2019-12-31", 4,
+            "2020-01-01", 8,
+            "2020-01-05", 16,
+            "2020-01-06", 32);
+
+        // when
+        Report weekly = bucket(daily, new ReportParameters(null, null, Report.Granularity.WEEK));
+
+        // then
+        assertEquals(List.of("2019-12-23 1", "2019-12-30 30", "2020-01-06 32"), records(weekly));
+    }
+
+    @Test
+    void weeksStartOnMondayAcrossMonthEnd() {
+        // given
+        Report daily = daily(
+            "2020-02-29", 1,
+            "2020-03-01", 2,
+            "2020-03-02", 4);
+
+        // when
+        Report weekly = bucket(daily, new ReportParameters(null, null, Report.Granularity.WEEK));
+
+        // then
+        assertEquals(List.of("2020-02-24 3", "2020-03-02 4"), records(weekly));
+    }
+
+    @Test
+    void monthsSplitOnFirstDay() {
+        // given
+        Report daily = daily(
+            "2019-01-31", 1,
+            "2019-02-01", 2,
+            "2019-02-28", 4,
+            "2019-03-01", 8,
+            "2020-02-29", 16,
+            "2020-03-01", 32);
+
+        // when
+        Report monthly = bucket(daily, new ReportParameters(null, null, Report.Granularity.MONTH));
+
+        // then
+        assertEquals(List.of("2019-01-01 1", "2019-02-01 6", "2019-03-01 8", "2020-02-01 16", "2020-03-01 32"), records(monthly));
+    }
+
+    @Test
+    void monthsAcrossYearEnd() {
+        // given
+        Report daily = daily(
+            "2019-12-01", 1,
+            "2019-12-31", 2,
+            "2020-01-01", 4);
+
+        // when
+        Report monthly = bucket(daily, new ReportParameters(null, null, Report.Granularity.MONTH));
+        Report yearly = bucket(daily, new ReportParameters(null, null, Report.Granularity.YEAR));
+
+        // then
+        assertEquals(List.of("2019-12-01 3", "2020-01-01 4"), records(monthly));
+        assertEquals(List.of("2019-01-01 3", "2020-01-01 4"), records(yearly));
+    }
+
+    @Test
+    void rangeCutsBucketsAtBothEnds() {
+        // given
+        Report daily = daily(
+            "2019-01-31", 1,
+            "2019-02-01", 2,
+            "2019-02-15", 4,
+            "2019-03-01", 8,
+            "2019-03-02", 16);
+
+        // when
+        Report monthly = bucket(daily, new ReportParameters(
+            LocalDate.of(2019, 2, 1), LocalDate.of(2019, 3, 1), Report.Granularity.MONTH));
+
+        // then
+        assertEquals(List.of("2019-02-01 6", "2019-03-01 8"), records(monthly));
+    }
+
+    @Test
+    void passesEveryRecordWithoutParameters() {
+        // given
+        Report daily = daily(
+            "2019-01-31", 1,
+            "2019-02-01", 2);
+
+        // when
+        Report all = bucket(daily, ReportParameters.all());
+
+        // then
+        assertEquals(List.of("2019-01-31 1", "2019-02-01 2"), records(all));
+    }
+
+    // INFO: pairs of dates and revenues.
+    private static Report daily(Object... values) {
+        Report report = new Report();
+        report.addLabel("Date");
+        report.addLabel("Total revenue");
+        for (int i = 0; i < values.length; i += 2) {
+            report.addRecord(LocalDate.parse((String) values[i]), (Integer) values[i + 1]);
+        }
+        return report;
+    }
+
+    private static Report bucket(Report report, ReportParameters parameters) {
+        ReportCollector collector = new ReportCollector();
+        report.writeTo(new BucketingReportSink(parameters, collector));
+        return collector.getReport();
+    }
+
+    private static List<String> records(Report report) {
+        List<String> result = new ArrayList<>();
+        Report.Cursor record = report.cursor();
+        while (record.next()) {
+            result.add(record.getAsString(0) + " " + record.getAsString(1));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.warehouse;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTest {
+
+    @Test
+    void isUnboundedOutsideRun() {
+        // when
+        Deadline current = Deadline.current();
+
+        // then
+        assertSame(Deadline.none(), current);
+        assertFalse(current.isBounded());
+        assertEquals(Long.MAX_VALUE, current.getRemainingMillis());
+    }
+
+    @Test
+    void bindsDeadlineWhileRunning() {
+        // given
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+
+        // when
+        Deadline current = deadline.run(Deadline::current);
+
+        // then
+        assertSame(deadline, current);
+        assertSame(Deadline.none(), Deadline.current());
+    }
+
+    @Test
+    void restoresOuterDeadlineAfterNestedRun() {
+        // given
+        Deadline outer = Deadline.after(1, TimeUnit.MINUTES);
+        Deadline inner = Deadline.after(1, TimeUnit.SECONDS);
+
+        // when
+        Deadline[] seen = outer.run(() -> {
+            Deadline nested = inner.run(Deadline::current);
+            return new Deadline[]{nested, Deadline.current()};
+        });
+
+        // then
+        assertSame(inner, seen[0]);
+        assertSame(outer, seen[1]);
+        assertSame(Deadline.none(), Deadline.current());
+    }
+
+    @Test
+    void restoresOuterDeadlineAfterNestedRunFails() {
+        // given
+        Deadline outer = Deadline.after(1, TimeUnit.MINUTES);
+        Deadline inner = expiredDeadline();
+
+        // when
+        Deadline current = outer.run(() -> {
+            assertThrows(DeadlineExceededException.class, () -> inner.run(() -> {
+                Deadline.current().check();
+                return null;
+            }));
+            return Deadline.current();
+        });
+
+        // then
+        assertSame(outer, current);
+    }
+
+    @Test
+    void checkPassesBeforeDeadline() {
+        Deadline.after(1, TimeUnit.MINUTES).check();
+        Deadline.none().check();
+    }
+
+    @Test
+    void checkFailsAfterDeadline() {
+        assertThrows(DeadlineExceededException.class, () -> expiredDeadline().check());
+    }
+
+    @Test
+    void checkFailsWhenInterrupted() {
+        // given
+        Thread.currentThread().interrupt();
+
+        // when/then
+        try {
+            assertThrows(DeadlineExceededException.class, () -> Deadline.none().check());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void reportsFailuresAfterDeadlineAsExceeded() {
+        // given
+        SQLTimeoutException timeout = new SQLTimeoutException("Query timed out.");
+
+        // when
+        DeadlineExceededException ex = assertThrows(DeadlineExceededException.class, () -> expiredDeadline().run(() -> {
+            throw timeout;
+        }));
+
+        // then
+        assertSame(timeout, ex.getCause());
+    }
+
+    @Test
+    void passesFailuresBeforeDeadlineOn() {
+        // given
+        WarehouseException failure = new WarehouseException("Failed.");
+
+        // when
+        WarehouseException ex = assertThrows(WarehouseException.class, () -> Deadline.after(1, TimeUnit.MINUTES).run(() -> {
+            throw failure;
+        }));
+
+        // then
+        assertSame(failure, ex);
+    }
+
+    @Test
+    void cantBeAfterNoTime() {
+        assertThrows(IllegalArgumentException.class, () -> Deadline.after(0, TimeUnit.MILLISECONDS));
+    }
+
+    static Deadline expiredDeadline() {
+        Deadline deadline = Deadline.after(1, TimeUnit.NANOSECONDS);
+        while (!deadline.isExpired()) {
+            Thread.onSpinWait();
+        }
+        assertTrue(deadline.isBounded());
+        assertEquals(0, deadline.getRemainingMillis());
+        return deadline;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.warehouse;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// INFO: the backend answers the `IllegalArgumentException`s with 400.
+class ReportParametersTest {
+
+    @Test
+    void missingParametersGiveDefaults() {
+        // when
+        ReportParameters parameters = ReportParameters.parse(null, "", " ", null, null);
+
+        // then
+        assertNull(parameters.getFrom());
+        assertNull(parameters.getTo());
+        assertEquals(Report.Granularity.DAY, parameters.getGranularity());
+        assertEquals(Report.Ranking.REVENUE, parameters.getRanking());
+        assertEquals(ReportParameters.DEFAULT_LIMIT, parameters.getLimit());
+        assertTrue(parameters.isDefault());
+    }
+
+    @Test
+    void parsesEveryParameter() {
+        // when
+        ReportParameters parameters = ReportParameters.parse("2019-01-01", "2019-12-31", "WEEK", "QUANTITY", "3");
+
+        // then
+        assertEquals(LocalDate.of(2019, 1, 1), parameters.getFrom());
+        assertEquals(LocalDate.of(2019, 12, 31), parameters.getTo());
+        assertEquals(Report.Granularity.WEEK, parameters.getGranularity());
+        assertEquals(Report.Ranking.QUANTITY, parameters.getRanking());
+        assertEquals(3, parameters.getLimit());
+    }
+
+    @Test
+    void rangeIncludesBothEnds() {
+        // when
+        ReportParameters parameters = ReportParameters.parse("2019-01-01", "2019-01-31", null, null, null);
+
+        // then
+        assertTrue(parameters.contains(LocalDate.of(2019, 1, 1)));
+        assertTrue(parameters.contains(LocalDate.of(2019, 1, 31)));
+        assertFalse(parameters.contains(LocalDate.of(2018, 12, 31)));
+        assertFalse(parameters.contains(LocalDate.of(2019, 2, 1)));
+    }
+
+    @Test
+    void cantParseBadDates() {
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse("2019-13-01", null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse(null, "01/02/2019", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse(null, "2019-02-29", null, null, null));
+    }
+
+    @Test
+    void cantStartAfterEnd() {
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse("2019-02-01", "2019-01-31", null, null, null));
+    }
+
+    @Test
+    void cantParseBadGranularity() {
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse(null, null, "FORTNIGHT", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse(null, null, "week", null, null));
+    }
+
+    @Test
+    void cantParseBadRankingOrLimit() {
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse(null, null, null, "PRICE", null));
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse(null, null, null, null, "ten"));
+        assertThrows(IllegalArgumentException.class, () -> ReportParameters.parse(null, null, null, null, "0"));
+    }
+}
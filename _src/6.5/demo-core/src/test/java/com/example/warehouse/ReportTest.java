@@ -0,0 +1,160 @@
+package com.example.warehouse;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReportTest {
+
+    @Test
+    void widthOfNumbersIsLongestNumber() {
+        // given
+        Random random = new Random(42);
+        long[][] samples = {
+            {0},
+            {-1},
+            {9, -9},
+            {99, -9},
+            {Long.MAX_VALUE},
+            {Long.MIN_VALUE},
+            {Long.MIN_VALUE, Long.MAX_VALUE, 0},
+            {-1_000_000, 999_999, 5},
+            random.longs(1000).toArray(),
+            random.longs(1000, -100_000, 1000).toArray(),
+        };
+
+        // when/then
+        for (long[] numbers : samples) {
+            Report report = newReport("Total revenue");
+            for (long number : numbers) {
+                report.addRecord(new Report.Field(Report.DataType.NUMBER, number));
+            }
+            assertEquals(scanWidth(report, 0), report.getWidth(0));
+        }
+    }
+
+    @Test
+    void widthOfDatesIsLongestDate() {
+        // given
+        Random random = new Random(42);
+        LocalDate[][] samples = {
+            {LocalDate.of(2019, 1, 1)},
+            {LocalDate.of(2019, 1, 1), LocalDate.of(9999, 12, 31)},
+            {LocalDate.of(10_000, 1, 1), LocalDate.of(2019, 1, 1)},
+            {LocalDate.of(-1, 12, 31)},
+            {LocalDate.of(-10_000, 1, 1), LocalDate.of(123_456, 1, 1)},
+            {LocalDate.of(0, 1, 1), LocalDate.of(1970, 1, 1)},
+            random.ints(1000, -1_000_000, 1_000_000).mapToObj(LocalDate::ofEpochDay).toArray(LocalDate[]::new),
+            random.ints(1000, -100_000_000, 100_000_000).mapToObj(LocalDate::ofEpochDay).toArray(LocalDate[]::new),
+        };
+
+        // when/then
+        for (LocalDate[] dates : samples) {
+            Report report = newReport("Date");
+            for (LocalDate date : dates) {
+                report.addRecord(date);
+            }
+            assertEquals(scanWidth(report, 0), report.getWidth(0));
+        }
+    }
+
+    @Test
+    void widthOfStringsIsLongestString() {
+        // given
+        Random random = new Random(42);
+        Report report = newReport("Product");
+        report.addRecord(new Report.Field(Report.DataType.STRING, ""));
+
+        // when/then
+        assertEquals(scanWidth(report, 0), report.getWidth(0));
+        for (int i = 0; i < 1000; i++) {
+            String value = "x".repeat(random.nextInt(random.nextBoolean() ? 10 : 100));
+            report.addRecord(new Report.Field(Report.DataType.STRING, value));
+            assertEquals(scanWidth(report, 0), report.getWidth(0));
+        }
+    }
+
+    @Test
+    void widthOfEveryColumnIsItsOwn() {
+        // given
+        Report report = newReport("Date", "Total products", "Total revenue");
+
+        // when
+        report.addRecord(LocalDate.of(2019, 1, 5), 103, -4321);
+        report.addRecord(LocalDate.of(-5, 1, 11), 0, Long.MIN_VALUE);
+        report.addRecord(LocalDate.of(2020, 2, 29), 12_345_678, 1);
+
+        // then
+        for (int i = 0; i < report.getColumnCount(); i++) {
+            assertEquals(scanWidth(report, i), report.getWidth(i));
+        }
+    }
+
+    @Test
+    void columnsWithoutRecordsHaveNoWidthOrType() {
+        // given
+        Report report = newReport("Date", "Total revenue");
+
+        // when/then
+        assertEquals(0, report.getWidth(0));
+        assertEquals(0, report.getWidth(1));
+        assertThrows(IllegalStateException.class, () -> report.getDataType(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> report.getWidth(2));
+    }
+
+    @Test
+    void columnsGetTypesFromFirstRecord() {
+        // given
+        Report report = newReport("Date", "Product");
+
+        // when
+        report.addRecord(
+            new Report.Field(Report.DataType.DATE, LocalDate.of(2019, 1, 1)),
+            new Report.Field(Report.DataType.STRING, "a4 paper"));
+
+        // then
+        assertEquals(Report.DataType.DATE, report.getDataType(0));
+        assertEquals(Report.DataType.STRING, report.getDataType(1));
+        assertEquals(10, report.getWidth(0));
+        assertEquals(8, report.getWidth(1));
+    }
+
+    @Test
+    void firstRecordMustHaveFieldPerLabel() {
+        // given
+        Report report = newReport("Date", "Total revenue");
+        Report wider = newReport("Date", "Total products", "Total revenue");
+        wider.addRecord(LocalDate.of(2019, 1, 5), 103, 4321);
+        Report.Cursor record = wider.cursor();
+        record.next();
+
+        // when/then
+        assertThrows(IllegalArgumentException.class, () -> report.addRecord(
+            new Report.Field(Report.DataType.DATE, LocalDate.of(2019, 1, 1))));
+        assertThrows(IllegalArgumentException.class, () -> report.addRecord(LocalDate.of(2019, 1, 1), 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> report.addRecord(record));
+        assertEquals(0, report.getRecordCount());
+    }
+
+    private static Report newReport(String... labels) {
+        Report report = new Report();
+        for (String label : labels) {
+            report.addLabel(label);
+        }
+        return report;
+    }
+
+    // INFO: goes over every value, unlike `getWidth`.
+    private static int scanWidth(Report report, int column) {
+        int width = 0;
+        for (List<Report.Field> record : report.getRecords()) {
+            width = Math.max(width, record.get(column).getAsString().length());
+        }
+        return width;
+    }
+}
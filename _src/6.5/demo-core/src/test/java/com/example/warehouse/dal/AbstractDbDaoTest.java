@@ -0,0 +1,104 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.Deadline;
+import com.example.warehouse.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AbstractDbDaoTest {
+
+    private final List<Integer> queryTimeouts = new ArrayList<>();
+
+    // INFO: only records the query timeouts set, other calls aren't expected.
+    private final Statement statement = (Statement) Proxy.newProxyInstance(
+        Statement.class.getClassLoader(),
+        new Class<?>[]{Statement.class},
+        (proxy, method, args) -> {
+            if (!method.getName().equals("setQueryTimeout")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            queryTimeouts.add((Integer) args[0]);
+            return null;
+        });
+
+    @Test
+    void leavesStatementWithoutDeadlineAlone() throws Exception {
+        // when
+        AbstractDbDao.applyDeadline(statement);
+
+        // then
+        assertEquals(List.of(), queryTimeouts);
+    }
+
+    @Test
+    void roundsRemainingTimeUpToSeconds() throws Exception {
+        // when
+        Deadline.after(10_500, TimeUnit.MILLISECONDS).run(() -> {
+            AbstractDbDao.applyDeadline(statement);
+            return null;
+        });
+
+        // then
+        assertEquals(List.of(11), queryTimeouts);
+    }
+
+    @Test
+    void usesWholeSecondsAsTheyAre() throws Exception {
+        // when
+        Deadline.after(3, TimeUnit.SECONDS).run(() -> {
+            AbstractDbDao.applyDeadline(statement);
+            return null;
+        });
+
+        // then
+        assertEquals(List.of(3), queryTimeouts);
+    }
+
+    @Test
+    void givesAtLeastOneSecond() throws Exception {
+        // when
+        Deadline.after(400, TimeUnit.MILLISECONDS).run(() -> {
+            AbstractDbDao.applyDeadline(statement);
+            return null;
+        });
+
+        // then
+        assertEquals(List.of(1), queryTimeouts);
+    }
+
+    @Test
+    void capsRemainingTimeAtLargestTimeout() throws Exception {
+        // when
+        Deadline.after(365L * 100, TimeUnit.DAYS).run(() -> {
+            AbstractDbDao.applyDeadline(statement);
+            return null;
+        });
+
+        // then
+        assertEquals(List.of(Integer.MAX_VALUE), queryTimeouts);
+    }
+
+    @Test
+    void failsInsteadOfQueryingAfterDeadline() throws Exception {
+        // given
+        Deadline deadline = Deadline.after(1, TimeUnit.NANOSECONDS);
+        while (!deadline.isExpired()) {
+            Thread.onSpinWait();
+        }
+
+        // when/then
+        assertThrows(DeadlineExceededException.class, () -> deadline.run(() -> {
+            AbstractDbDao.applyDeadline(statement);
+            return null;
+        }));
+        assertEquals(List.of(), queryTimeouts);
+    }
+}
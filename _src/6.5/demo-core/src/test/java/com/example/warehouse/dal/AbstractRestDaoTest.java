@@ -0,0 +1,91 @@
+package com.example.warehouse.dal;
+
+import com.example.warehouse.WarehouseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import kong.unirest.UnirestException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AbstractRestDaoTest {
+
+    private static HttpServer server;
+    private static String url;
+
+    private final AbstractRestDao dao = new AbstractRestDao();
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/customers/1", exchange -> respond(exchange, 200,
+            "{\"id\": 1, \"name\": \"test\"}"));
+        // INFO: an error body that's valid JSON, so it'd parse into an object.
+        server.createContext("/customers/2", exchange -> respond(exchange, 404,
+            "{\"message\": \"Customer not found.\"}"));
+        server.start();
+        url = String.format("http://localhost:%s/customers/", server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.stop(0);
+    }
+
+    @Test
+    void getsObject() throws Exception {
+        // when
+        JSONObject sync = dao.getObject(url + 1);
+        JSONObject async = dao.getObjectAsync(url + 1).get();
+
+        // then
+        assertEquals("test", sync.getString("name"));
+        assertEquals("test", async.getString("name"));
+    }
+
+    @Test
+    void failsOnErrorStatus() {
+        // when
+        UnirestException sync = assertThrows(UnirestException.class, () -> dao.getObject(url + 2));
+        ExecutionException async = assertThrows(ExecutionException.class, () -> dao.getObjectAsync(url + 2).get());
+
+        // then
+        assertTrue(async.getCause() instanceof UnirestException);
+        assertEquals(sync.getMessage(), async.getCause().getMessage());
+    }
+
+    @Test
+    void wrapsFailureWithMessage() {
+        // given
+        CompletableFuture<JSONObject> future = AbstractRestDao.withFailureMessage(
+            dao.getObjectAsync(url + 2), "Problem while fetching customer (2) from API");
+
+        // when
+        WarehouseException ex = assertThrows(WarehouseException.class, () -> DaoExecutors.join(future));
+
+        // then
+        assertEquals("Problem while fetching customer (2) from API", ex.getMessage());
+        assertTrue(ex.getCause() instanceof UnirestException);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.warehouse.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ExportOutputTest {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Test
+    void encodesLikeStringGetBytes() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEncodedLikeGetBytes(randomString(random, random.nextInt(100)), random);
+        }
+    }
+
+    @Test
+    void encodesStringsLongerThanBuffer() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10; i++) {
+            assertEncodedLikeGetBytes(randomString(random, BUFFER_SIZE + random.nextInt(3 * BUFFER_SIZE)), random);
+        }
+    }
+
+    // INFO: ASCII up to just before the end of the buffer, so the multi
+    // byte characters after it are the ones that don't fit anymore.
+    @Test
+    void encodesCharactersAcrossBufferBoundary() {
+        Random random = new Random(42);
+        String[] tails = {"\u00e9", "\u20ac", "\ud83d\udce6", "\ud83d", "\ude00", "\ud83d\ud83d\udce6", "\ud83da"};
+        for (int ascii = BUFFER_SIZE - 5; ascii <= BUFFER_SIZE + 1; ascii++) {
+            for (String tail : tails) {
+                String s = "a".repeat(ascii) + tail + randomString(random, 10);
+                assertEncodedLikeGetBytes(s, random);
+            }
+        }
+    }
+
+    @Test
+    void replacesHighSurrogateWrittenLast() {
+        assertEncodedLikeGetBytes("last \ud83d", new Random(42));
+        assertEncodedLikeGetBytes("\ud83d", new Random(42));
+    }
+
+    @Test
+    void replacesHighSurrogateBeforeNumbersAndEncodedBytes() {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportOutput output = new ExportOutput(out);
+
+        // when
+        output.write("a\ud83d").write(-42).write('\ud83d');
+        byte[] encoded = "b\u00e9".getBytes(StandardCharsets.UTF_8);
+        output.writeEncoded(encoded, 0, encoded.length).flush();
+
+        // then
+        assertArrayEquals("a\ud83d-42\ud83db\u00e9".getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    // INFO: written to a stream and to a channel, in pieces of random length
+    // through every kind of write, so pairs get split between writes.
+    private static void assertEncodedLikeGetBytes(String s, Random random) {
+        byte[] expected = s.getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(new ExportOutput(out), s, random);
+        assertArrayEquals(expected, out.toByteArray());
+
+        ByteArrayOutputStream channelOut = new ByteArrayOutputStream();
+        write(new ExportOutput(Channels.newChannel(channelOut)), s, random);
+        assertArrayEquals(expected, channelOut.toByteArray());
+    }
+
+    private static void write(ExportOutput output, String s, Random random) {
+        int i = 0;
+        while (i < s.length()) {
+            int length = Math.min(s.length() - i, random.nextBoolean() ? random.nextInt(8) : random.nextInt(BUFFER_SIZE));
+            switch (random.nextInt(4)) {
+                case 0:
+                    output.write(s, i, length);
+                    break;
+                case 1:
+                    output.write(s.toCharArray(), i, length);
+                    break;
+                case 2:
+                    output.write(s.substring(i, i + length));
+                    break;
+                default:
+                    for (int j = i; j < i + length; j++) {
+                        output.write(s.charAt(j));
+                    }
+            }
+            i += length;
+        }
+        output.flush();
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    sb.append((char) (0x80 + random.nextInt(0x800 - 0x80)));
+                    break;
+                case 1:
+                    sb.append((char) (0x800 + random.nextInt(0xd800 - 0x800)));
+                    break;
+                case 2:
+                    sb.appendCodePoint(0x10000 + random.nextInt(0x110000 - 0x10000));
+                    break;
+                case 3:
+                    // INFO: a lone high or low surrogate.
+                    sb.append((char) (0xd800 + random.nextInt(0x800)));
+                    break;
+                default:
+                    sb.append((char) random.nextInt(0x80));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -11,6 +11,11 @@ import java.util.List;
 public final class DbCustomerDao extends AbstractDbDao implements CustomerDao {
 
     public DbCustomerDao() {
+        this(ENV_PRIMARY, ENV_READ_REPLICA);
+    }
+
+    DbCustomerDao(JdbcSource primary, JdbcSource readReplica) {
+        super(primary, readReplica);
     }
 
     @Override
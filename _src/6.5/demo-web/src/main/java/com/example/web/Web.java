@@ -1,6 +1,10 @@
 package com.example.web;
 
 import com.example.backend.Backend;
+import com.example.warehouse.Customer;
+import com.example.warehouse.DeadlineExceededException;
+import com.example.warehouse.Order;
+import com.example.warehouse.Product;
 import com.example.warehouse.Report;
 import com.example.warehouse.Warehouse;
 import com.example.warehouse.WarehouseException;
@@ -13,9 +17,13 @@ import spark.Response;
 import spark.servlet.SparkApplication;
 import spark.template.velocity.VelocityTemplateEngine;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import static com.example.warehouse.dal.DaoExecutors.join;
 import static spark.Spark.*;
 
 public final class Web extends Backend implements Runnable, SparkApplication {
@@ -34,6 +42,8 @@ public final class Web extends Backend implements Runnable, SparkApplication {
     @Override
     public void init() {
         exception(Exception.class, this::handleError);
+        exception(IllegalArgumentException.class, this::handleBadRequest);
+        exception(DeadlineExceededException.class, this::handleDeadlineExceeded);
         get("/", this::handleRoot);
         get("/products", this::handleProducts);
         get("/customers", this::handleCustomers);
@@ -48,6 +58,7 @@ public final class Web extends Backend implements Runnable, SparkApplication {
         post("/customers/add", this::handleAddCustomer);
         post("/customers/delete", this::handleDeleteCustomer);
         post("/orders/add", this::handleAddOrder);
+        post("/orders/fulfill", this::handleFulfillOrder);
         post("/settings/configure-report-delivery/:choice", this::handleConfigureReportDelivery);
     }
 
@@ -60,6 +71,17 @@ public final class Web extends Backend implements Runnable, SparkApplication {
         res.body(render(makeError(t, req, res), "templates/error.html.vm"));
     }
 
+    private void handleBadRequest(IllegalArgumentException ex, Request req, Response res) {
+        res.status(400);
+        res.body(render(makeError(ex, req, res), "templates/error.html.vm"));
+    }
+
+    private void handleDeadlineExceeded(DeadlineExceededException ex, Request req, Response res) {
+        res.status(503);
+        res.header("Retry-After", "1");
+        res.body(render(makeError(ex, req, res), "templates/error.html.vm"));
+    }
+
     private Object handleRoot(Request req, Response res) {
         return render(Map.of("title", "Index"), "templates/index.html.vm");
     }
@@ -78,10 +100,17 @@ public final class Web extends Backend implements Runnable, SparkApplication {
         return render(model, "templates/customers.html.vm");
     }
 
+    // INFO: orders, customers and products come from different places, so
+    // they're all requested at once and only waited for afterwards.
     private Object handleOrders(Request req, Response res) throws WarehouseException {
+        CompletableFuture<Collection<Order>> orders = warehouse.getOrdersAsync();
+        CompletableFuture<Collection<Customer>> customers = warehouse.getCustomersAsync();
+        CompletableFuture<Collection<Product>> products = warehouse.getProductsAsync();
         Map<String, Object> model = Map.of(
             "title", "Manage orders",
-            "orders", warehouse.getOrders());
+            "orders", join(orders),
+            "customers", join(customers),
+            "products", join(products));
         return render(model, "templates/orders.html.vm");
     }
 
@@ -101,7 +130,9 @@ public final class Web extends Backend implements Runnable, SparkApplication {
         Map<String, Object> model = Map.of(
             "title", "Manage charts",
             "chartTypes", ChartType.values(),
-            "reportTypes", Report.Type.values());
+            "reportTypes", Arrays.stream(Report.Type.values())
+                .filter(Report.Type::isTimeSeries)
+                .toArray());
         return render(model, "templates/charts.html.vm");
     }
 
@@ -154,4 +185,16 @@ public final class Web extends Backend implements Runnable, SparkApplication {
         res.redirect("/orders");
         return null;
     }
+
+    private Object handleFulfillOrder(Request req, Response res) throws WarehouseException {
+        int orderId;
+        try {
+            orderId = Integer.valueOf(req.queryParams("orderId"));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("The order's ID must be an integer.", ex);
+        }
+        warehouse.fulfillOrder(orderId);
+        res.redirect("/orders");
+        return null;
+    }
 }